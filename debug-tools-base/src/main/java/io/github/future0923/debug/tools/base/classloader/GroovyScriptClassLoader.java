@@ -16,6 +16,8 @@
  */
 package io.github.future0923.debug.tools.base.classloader;
 
+import java.lang.ref.WeakReference;
+
 /**
  * Groovy运行的父类，用来兼容应用程序的类和DebugTools程序的类的加载
  *
@@ -23,17 +25,21 @@ package io.github.future0923.debug.tools.base.classloader;
  */
 public class GroovyScriptClassLoader extends ClassLoader {
 
-    private ClassLoaderWrapper defaultClassLoader;
-
-    private static GroovyScriptClassLoader classLoader;
-
-    public static GroovyScriptClassLoader getInstance() {
-        return classLoader;
-    }
+    /**
+     * 应用的类加载器，弱引用持有，不阻止应用类加载器被回收
+     */
+    private WeakReference<ClassLoader> defaultClassLoader;
 
-    public static GroovyScriptClassLoader init(ClassLoader classLoader) {
-        GroovyScriptClassLoader.classLoader = new GroovyScriptClassLoader(classLoader);
-        return getInstance();
+    /**
+     * 创建类加载器，用于按应用类加载器缓存编译后的脚本
+     *
+     * @param classLoader        DebugTools的类加载器
+     * @param defaultClassLoader 应用的类加载器
+     */
+    public static GroovyScriptClassLoader newInstance(ClassLoader classLoader, ClassLoader defaultClassLoader) {
+        GroovyScriptClassLoader groovyScriptClassLoader = new GroovyScriptClassLoader(classLoader);
+        groovyScriptClassLoader.setDefaultClassLoader(defaultClassLoader);
+        return groovyScriptClassLoader;
     }
 
     private GroovyScriptClassLoader(ClassLoader classLoader) {
@@ -41,7 +47,7 @@ public class GroovyScriptClassLoader extends ClassLoader {
     }
 
     public void setDefaultClassLoader(ClassLoader defaultClassLoader) {
-        this.defaultClassLoader = new ClassLoaderWrapper(defaultClassLoader);
+        this.defaultClassLoader = new WeakReference<>(defaultClassLoader);
     }
 
     @Override
@@ -49,7 +55,11 @@ public class GroovyScriptClassLoader extends ClassLoader {
         try {
             return super.loadClass(name, resolve);
         } catch (ClassNotFoundException e) {
-            return defaultClassLoader.loadClass(name, resolve);
+            ClassLoader classLoader = defaultClassLoader == null ? null : defaultClassLoader.get();
+            if (classLoader == null) {
+                throw e;
+            }
+            return classLoader.loadClass(name);
         }
     }
 }
@@ -116,6 +116,31 @@ public class AgentArgs {
      */
     private String ignoreSqlConfigPath;
 
+    /**
+     * 运行结果最多保存的数量 (server=true时才生效)
+     */
+    private Integer resultCacheMaxEntries;
+
+    /**
+     * 运行结果估算内存上限，单位MB (server=true时才生效)
+     */
+    private Integer resultCacheMaxMb;
+
+    /**
+     * 运行结果未访问的存活时间，单位秒 (server=true时才生效)
+     */
+    private Integer resultCacheTtlSeconds;
+
+    /**
+     * 运行结果的引用类型. strong | soft | weak (server=true时才生效)
+     */
+    private String resultCacheRetention;
+
+    /**
+     * 运行结果返回的最大字符数，超出时截断 (server=true时才生效)
+     */
+    private Integer resultPreviewLength;
+
     /**
      * 将agent上的string参数转为AgentArgs对象
      *
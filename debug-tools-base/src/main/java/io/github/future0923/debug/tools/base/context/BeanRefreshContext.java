@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bean刷新上下文
+ * <p>
+ * 热部署重新定义或移除Spring Bean后递增版本号，缓存了Bean的工具类比较版本号判断缓存是否失效
+ *
+ * @author future0923
+ */
+public class BeanRefreshContext {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /**
+     * Bean发生了变化
+     */
+    public static void refresh() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * 当前版本号
+     */
+    public static long getGeneration() {
+        return GENERATION.get();
+    }
+}
@@ -24,11 +24,10 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 调用方法追踪
@@ -38,14 +37,29 @@ import java.util.List;
 public class MethodTrace {
 
     /**
-     * 栈
+     * 方法id -> 方法信息
      */
-    private static final ThreadLocal<Deque<MethodTreeNode>> stack = ThreadLocal.withInitial(ArrayDeque::new);
+    private static volatile MethodTraceInfo[] methodInfos = new MethodTraceInfo[0];
 
     /**
-     * 结果
+     * 方法唯一标识 -> 方法id
      */
-    private static final ThreadLocal<List<MethodTreeNode>> resultList = ThreadLocal.withInitial(ArrayList::new);
+    private static final Map<String, Integer> methodIdMap = new ConcurrentHashMap<>();
+
+    /**
+     * MyBatis Mapper方法 -> 方法id
+     */
+    private static final Map<Method, Integer> myBatisMethodIdMap = new ConcurrentHashMap<>();
+
+    /**
+     * SQL的方法id
+     */
+    private static final int SQL_METHOD_ID = registerMethod(MethodTraceType.SQL, null, null, null, null);
+
+    /**
+     * 记录器
+     */
+    private static final ThreadLocal<MethodTraceRecorder> recorder = ThreadLocal.withInitial(MethodTreeRecorder::new);
 
     /**
      * sql追踪状态
@@ -58,79 +72,84 @@ public class MethodTrace {
     public static volatile boolean redefineTraceMethodProcessing = false;
 
     /**
-     * 方法入栈
+     * 注册追踪方法，相同方法返回相同的id
+     *
+     * @return 方法id
      */
-    public static void enterMethod(String className, String classSimpleName, String methodName, String methodSignature) {
-        enter(MethodTraceType.METHOD, className, classSimpleName, methodName, methodSignature, null);
+    public static synchronized int registerMethod(MethodTraceType traceType, String className, String classSimpleName, String methodName, String methodSignature) {
+        String key = traceType + "#" + className + "#" + methodSignature;
+        Integer methodId = methodIdMap.get(key);
+        if (methodId != null) {
+            return methodId;
+        }
+        MethodTraceInfo[] infos = Arrays.copyOf(methodInfos, methodInfos.length + 1);
+        int id = infos.length - 1;
+        infos[id] = new MethodTraceInfo(id, traceType, className, classSimpleName, methodName, methodSignature);
+        methodInfos = infos;
+        methodIdMap.put(key, id);
+        return id;
     }
 
     /**
-     * MyBatis入栈
+     * 获取方法信息
+     *
+     * @param methodId 方法id
+     * @return 方法信息
      */
-    public static void enterMyBatis(String className, String classSimpleName, String method, String methodSignature) {
-        enter(MethodTraceType.MYBATIS, className, classSimpleName, method, methodSignature, null);
+    public static MethodTraceInfo getMethodInfo(int methodId) {
+        return methodInfos[methodId];
     }
 
     /**
-     * SQL入栈
+     * 方法入栈
+     *
+     * @param methodId 注册时返回的方法id
      */
-    public static void enterSql(String sql) {
-        enter(MethodTraceType.SQL, null, null, null, null, sql);
+    public static void enterMethod(int methodId) {
+        recorder.get().enter(methodId, null);
     }
 
     /**
-     * 入栈
-     */
-    private static void enter(MethodTraceType traceType, String className, String classSimpleName, String methodName, String methodSignature, String sql) {
-        MethodTreeNode node = new MethodTreeNode();
-        node.setStart(System.currentTimeMillis());
-        node.setTraceType(traceType);
-        node.setClassName(className);
-        node.setClassSimpleName(classSimpleName);
-        node.setMethodName(methodName);
-        node.setMethodSignature(methodSignature);
-        node.setSql(sql);
-        if (!stack.get().isEmpty()) {
-            MethodTreeNode peek = stack.get().peek();
-            if (peek != null) {
-                peek.getChildren().add(node);
-            }
+     * MyBatis入栈
+     */
+    public static void enterMyBatis(Method method) {
+        Integer methodId = myBatisMethodIdMap.get(method);
+        if (methodId == null) {
+            Class<?> declaringClass = method.getDeclaringClass();
+            methodId = registerMethod(MethodTraceType.MYBATIS, declaringClass.getName(), declaringClass.getSimpleName(), method.getName(), genMethodSignature(method));
+            myBatisMethodIdMap.put(method, methodId);
         }
-        stack.get().push(node);
+        recorder.get().enter(methodId, null);
+    }
+
+    /**
+     * SQL入栈
+     */
+    public static void enterSql(String sql) {
+        recorder.get().enter(SQL_METHOD_ID, sql);
     }
 
     /**
      * 出栈
      */
     public static void exit() {
-        MethodTreeNode node = stack.get().pop();
-        node.setEnd(System.currentTimeMillis());
-        // 如果是顶层方法，构建 MethodTree 树结构并加入结果列表
-        if (stack.get().isEmpty()) {
-            MethodTreeNode tree = node.toTree();
-            resultList.get().add(tree);
-        }
+        recorder.get().exit();
     }
 
     /**
      * 出栈
      */
     public static void exit(long duration) {
-        MethodTreeNode node = stack.get().pop();
-        node.setDuration(duration);
-        // 如果是顶层方法，构建 MethodTree 树结构并加入结果列表
-        if (stack.get().isEmpty()) {
-            MethodTreeNode tree = node.toTree();
-            resultList.get().add(tree);
-        }
+        recorder.get().exit(duration);
     }
 
     /**
      * 获取完整结果
      */
     public static List<MethodTreeNode> getResult() {
-        List<MethodTreeNode> result = resultList.get();
+        List<MethodTreeNode> result = recorder.get().getResult();
         clear();
+        MethodTreeNode.computeStatistics(result);
         return result;
     }
 
@@ -138,11 +157,26 @@ public class MethodTrace {
      * 重置
      */
     private static void clear() {
-        stack.remove();
-        resultList.remove();
+        recorder.remove();
         traceSqlStatus.remove();
     }
 
+    /**
+     * 设置当前线程的追踪记录模式
+     *
+     * @param traceMode            记录模式
+     * @param aggregateMaxChildren 聚合模式下每个节点最多的不同子节点数量
+     */
+    public static void setTraceMode(MethodTraceMode traceMode, Integer aggregateMaxChildren) {
+        if (traceMode == MethodTraceMode.BUFFER) {
+            recorder.set(new MethodTraceBufferRecorder());
+        } else if (traceMode == MethodTraceMode.AGGREGATE) {
+            recorder.set(new MethodTraceAggregateRecorder(aggregateMaxChildren == null ? MethodTraceAggregateRecorder.DEFAULT_MAX_CHILDREN : aggregateMaxChildren));
+        } else {
+            recorder.set(new MethodTreeRecorder());
+        }
+    }
+
     /**
      * 设置当前执行的追踪SQL状态
      */
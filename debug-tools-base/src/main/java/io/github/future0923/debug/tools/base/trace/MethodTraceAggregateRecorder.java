@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 聚合追踪记录器
+ * <p>
+ * 相同调用路径（父节点路径+方法id）的调用在记录时直接合并到同一个节点，节点只累加调用次数、总耗时、最小和最大耗时，
+ * 内存占用只与调用图的形状有关，与调用次数无关。每个节点不同子节点的数量有上限，超出后统一计入“其他调用”节点。
+ *
+ * @author future0923
+ */
+public class MethodTraceAggregateRecorder implements MethodTraceRecorder {
+
+    /**
+     * 默认每个节点最多的不同子节点数量
+     */
+    public static final int DEFAULT_MAX_CHILDREN = 256;
+
+    /**
+     * 超出子节点上限时使用的方法id
+     */
+    private static final int OTHER_METHOD_ID = MethodTrace.registerMethod(MethodTraceType.METHOD, "", "", "<other>", "<other>: 超出子节点数量上限的调用");
+
+    /**
+     * 记录的时间基准，用于将纳秒换算为毫秒时间戳
+     */
+    private final long baseMillis = System.currentTimeMillis();
+
+    private final long baseNanos = System.nanoTime();
+
+    /**
+     * 每个节点最多的不同子节点数量
+     */
+    private final int maxChildren;
+
+    /**
+     * 虚拟根节点，子节点为顶层方法
+     */
+    private final AggregateNode root = new AggregateNode(-1, null);
+
+    /**
+     * 调用路径上的节点
+     */
+    private AggregateNode[] pathNodes = new AggregateNode[64];
+
+    /**
+     * 调用路径上节点的开始时间(ns)
+     */
+    private long[] pathStarts = new long[64];
+
+    /**
+     * 当前深度
+     */
+    private int depth;
+
+    public MethodTraceAggregateRecorder(int maxChildren) {
+        this.maxChildren = maxChildren > 0 ? maxChildren : DEFAULT_MAX_CHILDREN;
+    }
+
+    @Override
+    public void enter(int methodId, String sql) {
+        AggregateNode parent = depth == 0 ? root : pathNodes[depth - 1];
+        AggregateNode node = parent.child(methodId, sql, maxChildren);
+        if (depth == pathNodes.length) {
+            pathNodes = Arrays.copyOf(pathNodes, depth << 1);
+            pathStarts = Arrays.copyOf(pathStarts, depth << 1);
+        }
+        pathNodes[depth] = node;
+        pathStarts[depth++] = System.nanoTime();
+    }
+
+    @Override
+    public void exit() {
+        if (depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        depth--;
+        pathNodes[depth].record(pathStarts[depth], now);
+        pathNodes[depth] = null;
+    }
+
+    @Override
+    public void exit(long duration) {
+        if (depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        depth--;
+        pathNodes[depth].record(now - duration * 1_000_000L, now);
+        pathNodes[depth] = null;
+    }
+
+    @Override
+    public List<MethodTreeNode> getResult() {
+        return toTreeNodes(root.children);
+    }
+
+    /**
+     * 转换为树节点，未完成的调用（count为0）不返回
+     */
+    private List<MethodTreeNode> toTreeNodes(List<AggregateNode> aggregateNodes) {
+        List<MethodTreeNode> nodes = new ArrayList<>(aggregateNodes.size());
+        for (AggregateNode aggregateNode : aggregateNodes) {
+            if (aggregateNode.count == 0) {
+                continue;
+            }
+            MethodTreeNode node = MethodTrace.getMethodInfo(aggregateNode.methodId).newTreeNode(aggregateNode.sql);
+            node.setCount((int) Math.min(Integer.MAX_VALUE, aggregateNode.count));
+            node.setDurationNanos(aggregateNode.totalNanos);
+            node.setDuration(aggregateNode.totalNanos / 1_000_000L);
+            node.setMinDurationNanos(aggregateNode.minNanos);
+            node.setMaxDurationNanos(aggregateNode.maxNanos);
+            node.setStart(toMillis(aggregateNode.firstStartNanos));
+            node.setEnd(toMillis(aggregateNode.lastEndNanos));
+            node.setChildren(toTreeNodes(aggregateNode.children));
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * 纳秒时间转为毫秒时间戳
+     */
+    private long toMillis(long nanos) {
+        return baseMillis + (nanos - baseNanos) / 1_000_000L;
+    }
+
+    /**
+     * 聚合节点
+     */
+    private static class AggregateNode {
+
+        private final int methodId;
+
+        private final String sql;
+
+        private final List<AggregateNode> children = new ArrayList<>();
+
+        private AggregateNode other;
+
+        private long count;
+
+        private long totalNanos;
+
+        private long minNanos = Long.MAX_VALUE;
+
+        private long maxNanos;
+
+        private long firstStartNanos;
+
+        private long lastEndNanos;
+
+        private AggregateNode(int methodId, String sql) {
+            this.methodId = methodId;
+            this.sql = sql;
+        }
+
+        /**
+         * 获取或创建子节点，超过上限时返回“其他调用”节点
+         */
+        private AggregateNode child(int methodId, String sql, int maxChildren) {
+            for (int i = 0, size = children.size(); i < size; i++) {
+                AggregateNode child = children.get(i);
+                if (child.methodId == methodId && Objects.equals(child.sql, sql)) {
+                    return child;
+                }
+            }
+            if (children.size() < maxChildren) {
+                AggregateNode child = new AggregateNode(methodId, sql);
+                children.add(child);
+                return child;
+            }
+            if (other == null) {
+                other = new AggregateNode(OTHER_METHOD_ID, null);
+                children.add(other);
+            }
+            return other;
+        }
+
+        /**
+         * 记录一次调用
+         */
+        private void record(long startNanos, long endNanos) {
+            long elapsed = endNanos - startNanos;
+            if (count++ == 0) {
+                firstStartNanos = startNanos;
+            }
+            lastEndNanos = endNanos;
+            totalNanos += elapsed;
+            minNanos = Math.min(minNanos, elapsed);
+            maxNanos = Math.max(maxNanos, elapsed);
+        }
+    }
+}
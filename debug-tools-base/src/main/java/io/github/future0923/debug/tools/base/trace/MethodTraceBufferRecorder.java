@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 环形缓冲区追踪记录器
+ * <p>
+ * 每次调用只向基本类型数组写入(方法id, 开始纳秒, 结束纳秒, 深度)，不创建对象。
+ * 记录按入栈顺序存放（即树的先序遍历），调用 {@link #getResult()} 时才还原为 {@link MethodTreeNode} 树。
+ * 缓冲区写满后覆盖最早的记录，被覆盖节点的子节点会挂到最近的仍保留的祖先节点上。
+ *
+ * @author future0923
+ */
+public class MethodTraceBufferRecorder implements MethodTraceRecorder {
+
+    /**
+     * 初始容量
+     */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * 最大容量，必须是2的幂
+     */
+    private static final int MAX_CAPACITY = 1 << 18;
+
+    /**
+     * 记录的时间基准，用于将纳秒换算为毫秒时间戳
+     */
+    private final long baseMillis = System.currentTimeMillis();
+
+    private final long baseNanos = System.nanoTime();
+
+    private int[] methodIds = new int[INITIAL_CAPACITY];
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+
+    private long[] ends = new long[INITIAL_CAPACITY];
+
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    private String[] sqls = new String[INITIAL_CAPACITY];
+
+    /**
+     * 已写入的记录总数
+     */
+    private long writeSeq;
+
+    /**
+     * 未出栈记录的序号
+     */
+    private long[] openSeqs = new long[64];
+
+    /**
+     * 当前深度
+     */
+    private int depth;
+
+    @Override
+    public void enter(int methodId, String sql) {
+        if (writeSeq == methodIds.length && methodIds.length < MAX_CAPACITY) {
+            grow();
+        }
+        int slot = (int) (writeSeq & (methodIds.length - 1));
+        methodIds[slot] = methodId;
+        starts[slot] = System.nanoTime();
+        ends[slot] = 0;
+        depths[slot] = depth;
+        sqls[slot] = sql;
+        if (depth == openSeqs.length) {
+            openSeqs = Arrays.copyOf(openSeqs, depth << 1);
+        }
+        openSeqs[depth++] = writeSeq++;
+    }
+
+    @Override
+    public void exit() {
+        int slot = popSlot();
+        if (slot >= 0) {
+            ends[slot] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void exit(long duration) {
+        int slot = popSlot();
+        if (slot >= 0) {
+            long now = System.nanoTime();
+            starts[slot] = now - duration * 1_000_000L;
+            ends[slot] = now;
+        }
+    }
+
+    /**
+     * 出栈
+     *
+     * @return 记录所在的位置，已被覆盖或栈为空时返回-1
+     */
+    private int popSlot() {
+        if (depth == 0) {
+            return -1;
+        }
+        long seq = openSeqs[--depth];
+        if (writeSeq - seq > methodIds.length) {
+            return -1;
+        }
+        return (int) (seq & (methodIds.length - 1));
+    }
+
+    /**
+     * 扩容，只在缓冲区还未绕回时发生
+     */
+    private void grow() {
+        int capacity = methodIds.length << 1;
+        methodIds = Arrays.copyOf(methodIds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        sqls = Arrays.copyOf(sqls, capacity);
+    }
+
+    @Override
+    public List<MethodTreeNode> getResult() {
+        List<MethodTreeNode> resultList = new ArrayList<>();
+        List<MethodTreeNode> pathNodes = new ArrayList<>();
+        List<Integer> pathDepths = new ArrayList<>();
+        long now = System.nanoTime();
+        for (long seq = Math.max(0, writeSeq - methodIds.length); seq < writeSeq; seq++) {
+            int slot = (int) (seq & (methodIds.length - 1));
+            int recordDepth = depths[slot];
+            while (!pathDepths.isEmpty() && pathDepths.get(pathDepths.size() - 1) >= recordDepth) {
+                pathNodes.remove(pathNodes.size() - 1);
+                pathDepths.remove(pathDepths.size() - 1);
+            }
+            MethodTreeNode node = MethodTrace.getMethodInfo(methodIds[slot]).newTreeNode(sqls[slot]);
+            long end = ends[slot] == 0 ? now : ends[slot];
+            node.setStart(toMillis(starts[slot]));
+            node.setEnd(toMillis(end));
+            node.recordDuration(end - starts[slot]);
+            if (pathNodes.isEmpty()) {
+                resultList.add(node);
+            } else {
+                pathNodes.get(pathNodes.size() - 1).getChildren().add(node);
+            }
+            pathNodes.add(node);
+            pathDepths.add(recordDepth);
+        }
+        return resultList;
+    }
+
+    /**
+     * 纳秒时间转为毫秒时间戳
+     */
+    private long toMillis(long nanos) {
+        return baseMillis + (nanos - baseNanos) / 1_000_000L;
+    }
+}
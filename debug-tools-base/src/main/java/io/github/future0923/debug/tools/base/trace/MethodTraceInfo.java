@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import lombok.Getter;
+
+/**
+ * 追踪方法信息，注册时确定，运行时通过方法id查找
+ *
+ * @author future0923
+ */
+@Getter
+public class MethodTraceInfo {
+
+    /**
+     * 方法id
+     */
+    private final int methodId;
+
+    /**
+     * 追踪类型
+     */
+    private final MethodTraceType traceType;
+
+    /**
+     * 全类名
+     */
+    private final String className;
+
+    /**
+     * 简类名
+     */
+    private final String classSimpleName;
+
+    /**
+     * 方法名
+     */
+    private final String methodName;
+
+    /**
+     * 方法签名
+     */
+    private final String methodSignature;
+
+    public MethodTraceInfo(int methodId, MethodTraceType traceType, String className, String classSimpleName, String methodName, String methodSignature) {
+        this.methodId = methodId;
+        this.traceType = traceType;
+        this.className = className;
+        this.classSimpleName = classSimpleName;
+        this.methodName = methodName;
+        this.methodSignature = methodSignature;
+    }
+
+    /**
+     * 创建树节点
+     *
+     * @param sql sql语句，非SQL类型为null
+     * @return 树节点
+     */
+    public MethodTreeNode newTreeNode(String sql) {
+        MethodTreeNode node = new MethodTreeNode();
+        node.setTraceType(traceType);
+        node.setClassName(className);
+        node.setClassSimpleName(classSimpleName);
+        node.setMethodName(methodName);
+        node.setMethodSignature(methodSignature);
+        node.setSql(sql);
+        return node;
+    }
+}
@@ -14,21 +14,27 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <https://www.gnu.org/licenses/>.
  */
-package io.github.future0923.debug.tools.base.classloader;
+package io.github.future0923.debug.tools.base.trace;
 
 /**
- * 类加载器包装器，主要是可以调用父类的方法
+ * 方法追踪记录模式
  *
  * @author future0923
  */
-public class ClassLoaderWrapper extends ClassLoader {
+public enum MethodTraceMode {
 
-    public ClassLoaderWrapper(ClassLoader defaultClassLoader) {
-        super(defaultClassLoader);
-    }
+    /**
+     * 每次调用创建一个树节点
+     */
+    TREE,
 
-    @Override
-    public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        return super.loadClass(name, resolve);
-    }
+    /**
+     * 每次调用写入线程私有的环形缓冲区，获取结果时才构建树
+     */
+    BUFFER,
+
+    /**
+     * 相同调用路径的调用在记录时合并为一个节点，只记录调用次数和耗时统计
+     */
+    AGGREGATE,
 }
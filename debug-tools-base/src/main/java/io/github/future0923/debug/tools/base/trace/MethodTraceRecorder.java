@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import java.util.List;
+
+/**
+ * 线程私有的方法追踪记录器
+ *
+ * @author future0923
+ */
+public interface MethodTraceRecorder {
+
+    /**
+     * 入栈
+     *
+     * @param methodId 方法id
+     * @param sql      sql语句，非SQL类型为null
+     */
+    void enter(int methodId, String sql);
+
+    /**
+     * 出栈
+     */
+    void exit();
+
+    /**
+     * 出栈并指定耗时
+     *
+     * @param duration 耗时(ms)
+     */
+    void exit(long duration);
+
+    /**
+     * 获取完整结果
+     */
+    List<MethodTreeNode> getResult();
+}
@@ -19,7 +19,9 @@ package io.github.future0923.debug.tools.base.trace;
 import lombok.Data;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 方法树节点
@@ -60,10 +62,40 @@ public class MethodTreeNode {
     private String sql;
 
     /**
-     * 耗时
+     * 耗时(ms)
      */
     private Long duration;
 
+    /**
+     * 耗时(ns)，合并后为所有调用的总耗时
+     */
+    private Long durationNanos;
+
+    /**
+     * 自身耗时(ns)，总耗时减去子节点耗时
+     */
+    private Long selfDurationNanos;
+
+    /**
+     * 调用次数，相同调用合并后累加
+     */
+    private Integer count = 1;
+
+    /**
+     * 单次调用最小耗时(ns)
+     */
+    private Long minDurationNanos;
+
+    /**
+     * 单次调用最大耗时(ns)
+     */
+    private Long maxDurationNanos;
+
+    /**
+     * 单次调用平均耗时(ns)
+     */
+    private Long avgDurationNanos;
+
     /**
      * 方法开始时间
      */
@@ -80,26 +112,82 @@ public class MethodTreeNode {
     private List<MethodTreeNode> children = new ArrayList<>();
 
     /**
-     * 转换成树结构
+     * 记录单次调用耗时
+     *
+     * @param durationNanos 耗时(ns)
+     */
+    public void recordDuration(long durationNanos) {
+        this.durationNanos = durationNanos;
+        this.duration = durationNanos / 1_000_000L;
+        this.minDurationNanos = durationNanos;
+        this.maxDurationNanos = durationNanos;
+    }
+
+    /**
+     * 计算自身耗时和平均耗时
      *
-     * @return 树结构
-     */
-    public MethodTreeNode toTree() {
-        MethodTreeNode tree = new MethodTreeNode();
-        tree.setStart(start);
-        tree.setTraceType(traceType);
-        tree.setClassName(className);
-        tree.setClassSimpleName(classSimpleName);
-        tree.setMethodName(methodName);
-        tree.setMethodSignature(methodSignature);
-        tree.setSql(sql);
-        if (duration == null) {
-            duration = end - start;
+     * @param nodes 节点
+     */
+    public static void computeStatistics(List<MethodTreeNode> nodes) {
+        for (MethodTreeNode node : nodes) {
+            computeStatistics(node.children);
+            long childrenNanos = 0;
+            for (MethodTreeNode child : node.children) {
+                childrenNanos += child.durationNanos;
+            }
+            node.selfDurationNanos = Math.max(0, node.durationNanos - childrenNanos);
+            node.avgDurationNanos = node.durationNanos / node.count;
         }
-        tree.setDuration(duration);
-        for (MethodTreeNode child : children) {
-            tree.getChildren().add(child.toTree());
+    }
+
+    /**
+     * 合并同一父节点下相同的调用，累加调用次数和耗时
+     *
+     * @param nodes 同级节点
+     * @return 合并后的节点
+     */
+    public static List<MethodTreeNode> mergeSameCall(List<MethodTreeNode> nodes) {
+        List<MethodTreeNode> result = mergeSameCallNodes(nodes);
+        computeStatistics(result);
+        return result;
+    }
+
+    /**
+     * 递归合并相同的调用，不计算统计，合并完成后由 {@link #computeStatistics(List)} 自底向上统一计算一次
+     */
+    private static List<MethodTreeNode> mergeSameCallNodes(List<MethodTreeNode> nodes) {
+        Map<String, MethodTreeNode> mergedMap = new LinkedHashMap<>();
+        for (MethodTreeNode node : nodes) {
+            MethodTreeNode merged = mergedMap.putIfAbsent(node.mergeKey(), node);
+            if (merged != null) {
+                merged.merge(node);
+            }
+        }
+        List<MethodTreeNode> result = new ArrayList<>(mergedMap.values());
+        for (MethodTreeNode node : result) {
+            node.children = mergeSameCallNodes(node.children);
         }
-        return tree;
+        return result;
+    }
+
+    /**
+     * 合并另一个相同调用的节点
+     */
+    private void merge(MethodTreeNode other) {
+        count += other.count;
+        durationNanos += other.durationNanos;
+        duration = durationNanos / 1_000_000L;
+        minDurationNanos = Math.min(minDurationNanos, other.minDurationNanos);
+        maxDurationNanos = Math.max(maxDurationNanos, other.maxDurationNanos);
+        start = Math.min(start, other.start);
+        end = Math.max(end, other.end);
+        children.addAll(other.children);
+    }
+
+    /**
+     * 相同调用的判断依据
+     */
+    private String mergeKey() {
+        return traceType + "#" + className + "#" + methodSignature + "#" + sql;
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 每次调用创建一个树节点的追踪记录器
+ *
+ * @author future0923
+ */
+public class MethodTreeRecorder implements MethodTraceRecorder {
+
+    /**
+     * 栈
+     */
+    private final Deque<MethodTreeNode> stack = new ArrayDeque<>();
+
+    /**
+     * 栈中节点的开始时间(ns)
+     */
+    private long[] startNanos = new long[64];
+
+    /**
+     * 结果
+     */
+    private final List<MethodTreeNode> resultList = new ArrayList<>();
+
+    @Override
+    public void enter(int methodId, String sql) {
+        MethodTreeNode node = MethodTrace.getMethodInfo(methodId).newTreeNode(sql);
+        node.setStart(System.currentTimeMillis());
+        MethodTreeNode peek = stack.peek();
+        if (peek != null) {
+            peek.getChildren().add(node);
+        }
+        int depth = stack.size();
+        if (depth == startNanos.length) {
+            startNanos = Arrays.copyOf(startNanos, depth << 1);
+        }
+        startNanos[depth] = System.nanoTime();
+        stack.push(node);
+    }
+
+    @Override
+    public void exit() {
+        MethodTreeNode node = stack.poll();
+        if (node == null) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - startNanos[stack.size()];
+        node.recordDuration(durationNanos);
+        node.setEnd(node.getStart() + node.getDuration());
+        complete(node);
+    }
+
+    @Override
+    public void exit(long duration) {
+        MethodTreeNode node = stack.poll();
+        if (node == null) {
+            return;
+        }
+        node.recordDuration(duration * 1_000_000L);
+        node.setEnd(node.getStart() + duration);
+        complete(node);
+    }
+
+    /**
+     * 如果是顶层方法，加入结果列表
+     */
+    private void complete(MethodTreeNode node) {
+        if (stack.isEmpty()) {
+            resultList.add(node);
+        }
+    }
+
+    @Override
+    public List<MethodTreeNode> getResult() {
+        return resultList;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author future0923
+ */
+class MethodTraceAggregateRecorderTest {
+
+    private static final int A = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Aggregate", "Aggregate", "a", "a()");
+
+    private static final int B = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Aggregate", "Aggregate", "b", "b()");
+
+    @Test
+    void mergeSamePath() {
+        MethodTraceAggregateRecorder recorder = new MethodTraceAggregateRecorder(0);
+        for (int i = 1; i <= 2; i++) {
+            recorder.enter(A, null);
+            recorder.enter(B, null);
+            recorder.exit(i);
+            recorder.enter(B, null);
+            recorder.exit(i * 10);
+            recorder.exit(100);
+        }
+        List<MethodTreeNode> result = recorder.getResult();
+        assertEquals(1, result.size());
+        MethodTreeNode a = result.get(0);
+        assertEquals(2, a.getCount());
+        assertEquals(200_000_000L, a.getDurationNanos());
+        assertEquals(1, a.getChildren().size());
+        MethodTreeNode b = a.getChildren().get(0);
+        assertEquals(4, b.getCount());
+        assertEquals(33_000_000L, b.getDurationNanos());
+        assertEquals(1_000_000L, b.getMinDurationNanos());
+        assertEquals(20_000_000L, b.getMaxDurationNanos());
+    }
+
+    @Test
+    void sqlSplitsNodes() {
+        MethodTraceAggregateRecorder recorder = new MethodTraceAggregateRecorder(0);
+        recorder.enter(A, null);
+        recorder.enter(B, "select 1");
+        recorder.exit(1);
+        recorder.enter(B, "select 2");
+        recorder.exit(1);
+        recorder.exit(5);
+        assertEquals(2, recorder.getResult().get(0).getChildren().size());
+    }
+
+    @Test
+    void childrenOverLimitGoToOther() {
+        MethodTraceAggregateRecorder recorder = new MethodTraceAggregateRecorder(2);
+        recorder.enter(A, null);
+        for (int i = 0; i < 5; i++) {
+            int methodId = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Aggregate", "Aggregate", "c" + i, "c" + i + "()");
+            recorder.enter(methodId, null);
+            recorder.exit(1);
+        }
+        recorder.exit(10);
+        List<MethodTreeNode> children = recorder.getResult().get(0).getChildren();
+        assertEquals(3, children.size());
+        MethodTreeNode other = children.get(2);
+        assertEquals("<other>", other.getMethodName());
+        assertEquals(3, other.getCount());
+    }
+
+    @Test
+    void unfinishedCallIsSkipped() {
+        MethodTraceAggregateRecorder recorder = new MethodTraceAggregateRecorder(0);
+        recorder.enter(A, null);
+        assertEquals(0, recorder.getResult().size());
+    }
+}
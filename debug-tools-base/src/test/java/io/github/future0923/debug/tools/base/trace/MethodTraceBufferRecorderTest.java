@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class MethodTraceBufferRecorderTest {
+
+    private static final int A = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Buffer", "Buffer", "a", "a()");
+
+    private static final int B = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Buffer", "Buffer", "b", "b()");
+
+    private static final int C = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Buffer", "Buffer", "c", "c()");
+
+    @Test
+    void rebuildTree() {
+        MethodTraceBufferRecorder recorder = new MethodTraceBufferRecorder();
+        recorder.enter(A, null);
+        recorder.enter(B, null);
+        recorder.enter(C, null);
+        recorder.exit(1);
+        recorder.exit(2);
+        recorder.enter(C, "select 1");
+        recorder.exit(3);
+        recorder.exit(10);
+        recorder.enter(B, null);
+        recorder.exit(4);
+
+        List<MethodTreeNode> result = recorder.getResult();
+        assertEquals(2, result.size());
+        MethodTreeNode a = result.get(0);
+        assertEquals("a", a.getMethodName());
+        assertEquals(10_000_000L, a.getDurationNanos());
+        assertEquals(2, a.getChildren().size());
+        MethodTreeNode b = a.getChildren().get(0);
+        assertEquals("b", b.getMethodName());
+        assertEquals(1, b.getChildren().size());
+        assertEquals("c", b.getChildren().get(0).getMethodName());
+        assertNull(b.getChildren().get(0).getSql());
+        assertEquals("select 1", a.getChildren().get(1).getSql());
+        assertEquals("b", result.get(1).getMethodName());
+        assertTrue(result.get(1).getChildren().isEmpty());
+    }
+
+    @Test
+    void unfinishedCallUsesNow() {
+        MethodTraceBufferRecorder recorder = new MethodTraceBufferRecorder();
+        recorder.enter(A, null);
+        List<MethodTreeNode> result = recorder.getResult();
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getDurationNanos() >= 0);
+    }
+
+    @Test
+    void overwrittenParentAttachesChildrenToRoot() {
+        MethodTraceBufferRecorder recorder = new MethodTraceBufferRecorder();
+        recorder.enter(A, null);
+        int calls = (1 << 18) + 10;
+        for (int i = 0; i < calls; i++) {
+            recorder.enter(B, null);
+            recorder.exit(1);
+        }
+        recorder.exit(5);
+        List<MethodTreeNode> result = recorder.getResult();
+        // A已被覆盖，保留的记录都是顶层的B
+        assertEquals(1 << 18, result.size());
+        for (MethodTreeNode node : result) {
+            assertEquals("b", node.getMethodName());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.base.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class MethodTreeRecorderTest {
+
+    private static final int A = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Tree", "Tree", "a", "a()");
+
+    private static final int B = MethodTrace.registerMethod(MethodTraceType.METHOD, "test.Tree", "Tree", "b", "b()");
+
+    @Test
+    void exitWithDurationKeepsStart() {
+        MethodTreeRecorder recorder = new MethodTreeRecorder();
+        recorder.enter(A, null);
+        recorder.exit(25);
+        MethodTreeNode node = recorder.getResult().get(0);
+        assertEquals(25L, node.getDuration());
+        assertEquals(25_000_000L, node.getDurationNanos());
+        assertEquals(node.getStart() + 25, node.getEnd());
+    }
+
+    @Test
+    void mergeSameCall() {
+        MethodTreeRecorder recorder = new MethodTreeRecorder();
+        recorder.enter(A, null);
+        for (int i = 1; i <= 3; i++) {
+            recorder.enter(B, null);
+            recorder.exit(i);
+        }
+        recorder.exit(10);
+        List<MethodTreeNode> result = MethodTreeNode.mergeSameCall(recorder.getResult());
+        assertEquals(1, result.size());
+        MethodTreeNode a = result.get(0);
+        assertEquals(1, a.getChildren().size());
+        MethodTreeNode b = a.getChildren().get(0);
+        assertEquals(3, b.getCount());
+        assertEquals(6_000_000L, b.getDurationNanos());
+        assertEquals(1_000_000L, b.getMinDurationNanos());
+        assertEquals(3_000_000L, b.getMaxDurationNanos());
+        assertEquals(2_000_000L, b.getAvgDurationNanos());
+        assertEquals(6_000_000L, b.getSelfDurationNanos());
+        assertEquals(4_000_000L, a.getSelfDurationNanos());
+    }
+
+    @Test
+    void mergeTopLevelCalls() {
+        MethodTreeRecorder recorder = new MethodTreeRecorder();
+        recorder.enter(A, null);
+        recorder.exit(2);
+        recorder.enter(A, null);
+        recorder.exit(4);
+        List<MethodTreeNode> result = MethodTreeNode.mergeSameCall(recorder.getResult());
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getCount());
+        assertEquals(3_000_000L, result.get(0).getAvgDurationNanos());
+        assertTrue(MethodTreeNode.mergeSameCall(Collections.emptyList()).isEmpty());
+    }
+}
@@ -22,14 +22,18 @@ import io.github.future0923.debug.tools.common.protocal.packet.request.ChangeTra
 import io.github.future0923.debug.tools.common.protocal.packet.request.ClearRunResultRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.HeartBeatRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.LocalCompilerHotDeployRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.request.ProfilerRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RemoteCompilerHotDeployRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.ResourceHotDeployRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RunGroovyScriptRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.request.RunResultContentRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RunTargetMethodRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.ServerCloseRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.response.HeartBeatResponsePacket;
 import io.github.future0923.debug.tools.common.protocal.packet.response.HotDeployResponsePacket;
+import io.github.future0923.debug.tools.common.protocal.packet.response.ProfilerResponsePacket;
 import io.github.future0923.debug.tools.common.protocal.packet.response.RunGroovyScriptResponsePacket;
+import io.github.future0923.debug.tools.common.protocal.packet.response.RunResultContentResponsePacket;
 import io.github.future0923.debug.tools.common.protocal.packet.response.RunTargetMethodResponsePacket;
 import io.github.future0923.debug.tools.common.protocal.serializer.BinaryNettySerializer;
 import io.github.future0923.debug.tools.common.protocal.serializer.NettySerializer;
@@ -63,6 +67,10 @@ public final class PacketCodecNetty {
         packetTypeMap.put(Command.REMOTE_COMPILER_HOT_DEPLOY_RESPONSE, HotDeployResponsePacket.class);
         packetTypeMap.put(Command.CHANGE_TRACE_METHOD_REQUEST, ChangeTraceMethodRequestPacket.class);
         packetTypeMap.put(Command.RESOURCE_HOT_DEPLOY_REQUEST, ResourceHotDeployRequestPacket.class);
+        packetTypeMap.put(Command.PROFILER_REQUEST, ProfilerRequestPacket.class);
+        packetTypeMap.put(Command.PROFILER_RESPONSE, ProfilerResponsePacket.class);
+        packetTypeMap.put(Command.RUN_RESULT_CONTENT_REQUEST, RunResultContentRequestPacket.class);
+        packetTypeMap.put(Command.RUN_RESULT_CONTENT_RESPONSE, RunResultContentResponsePacket.class);
     }
 
     public Packet decode(ByteBuf in) throws Exception {
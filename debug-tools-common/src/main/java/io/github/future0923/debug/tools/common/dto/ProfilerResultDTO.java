@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 采样分析结果
+ *
+ * @author future0923
+ */
+@Data
+public class ProfilerResultDTO {
+
+    /**
+     * 是否正在采样
+     */
+    private Boolean running;
+
+    /**
+     * 采样开始时间
+     */
+    private Long startTime;
+
+    /**
+     * 采样持续时间(ms)
+     */
+    private Long duration;
+
+    /**
+     * 采样间隔(ms)
+     */
+    private Long interval;
+
+    /**
+     * 采样次数
+     */
+    private Long sampleCount;
+
+    /**
+     * 采集到的线程栈总数
+     */
+    private Long stackCount;
+
+    /**
+     * 折叠栈，key为从栈底到栈顶以分号分隔的帧（可直接用于生成火焰图），value为出现次数
+     */
+    private Map<String, Long> foldedStacks;
+}
@@ -38,8 +38,17 @@ public class RunResultDTO implements Serializable {
         MAP,
         MAP_ENTRY,
         COLLECTION,
+        /**
+         * 容器的下一页，展开后获取剩余的子节点
+         */
+        PAGE,
     }
 
+    /**
+     * 数组长度超过该值时只显示长度，不拼接全部元素
+     */
+    private static final int ARRAY_SUMMARY_SIZE = 100;
+
     /**
      * 类型
      */
@@ -121,7 +130,7 @@ public class RunResultDTO implements Serializable {
             } catch (Exception ignored) {
             }
             this.nameClassName = genClassName(name, nameChildSize);
-            this.name = nameChildSize != null && !nameArray ? "size = " + nameChildSize : Convert.toStr(name);
+            this.name = summary(name, nameArray, nameChildSize);
         }
         this.valueArray = ArrayUtil.isArray(value);
         if (value != null) {
@@ -130,10 +139,10 @@ public class RunResultDTO implements Serializable {
             } catch (Exception ignored) {
             }
             this.valueClassName = genClassName(value, valueChildSize);
-            this.value = valueChildSize != null && !valueArray ? "size = " + valueChildSize : Convert.toStr(value);
+            this.value = summary(value, valueArray, valueChildSize);
         }
 
-        this.leaf = value == null || ClassUtil.isBasicType(value.getClass()) || (ArrayUtil.isArray(value) && ClassUtil.isBasicType(value.getClass().getComponentType()));
+        this.leaf = value == null || ClassUtil.isBasicType(value.getClass()) || (valueArray && ClassUtil.isBasicType(value.getClass().getComponentType()) && valueChildSize != null && valueChildSize <= ARRAY_SUMMARY_SIZE);
     }
 
     /**
@@ -167,6 +176,16 @@ public class RunResultDTO implements Serializable {
         return System.identityHashCode(valueObj) + "" + new Random().nextInt(999999);
     }
 
+    /**
+     * 集合和长数组只显示长度
+     */
+    private static String summary(Object object, boolean array, Integer childSize) {
+        if (childSize != null && (!array || childSize > ARRAY_SUMMARY_SIZE)) {
+            return "size = " + childSize;
+        }
+        return Convert.toStr(object);
+    }
+
     private String genClassName(Object object, Integer childSize) {
         if (ArrayUtil.isArray(object)) {
             return object.getClass().getComponentType().getName() + "[" + childSize + "]";
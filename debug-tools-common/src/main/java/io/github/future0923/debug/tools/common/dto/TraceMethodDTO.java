@@ -16,6 +16,7 @@
  */
 package io.github.future0923.debug.tools.common.dto;
 
+import io.github.future0923.debug.tools.base.trace.MethodTraceMode;
 import lombok.Data;
 
 /**
@@ -58,4 +59,19 @@ public class TraceMethodDTO {
      * 忽略追踪方法包前缀
      */
     private String traceIgnorePackageRegexp;
+
+    /**
+     * 追踪记录模式
+     */
+    private MethodTraceMode traceMode = MethodTraceMode.TREE;
+
+    /**
+     * 合并同一父节点下相同的调用，节点中记录调用次数和最小、最大、平均耗时
+     */
+    private Boolean traceMergeSameCall = false;
+
+    /**
+     * 聚合模式下每个节点最多的不同子节点数量，超出的调用合并为一个节点
+     */
+    private Integer traceAggregateMaxChildren = 256;
 }
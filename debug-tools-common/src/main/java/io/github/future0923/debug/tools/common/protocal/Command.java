@@ -85,4 +85,24 @@ public interface Command {
      * 资源HotDeploy请求
      */
     Byte RESOURCE_HOT_DEPLOY_REQUEST = 14;
+
+    /**
+     * 采样分析器请求
+     */
+    Byte PROFILER_REQUEST = 15;
+
+    /**
+     * 采样分析器响应
+     */
+    Byte PROFILER_RESPONSE = 16;
+
+    /**
+     * 获取完整运行结果内容请求
+     */
+    Byte RUN_RESULT_CONTENT_REQUEST = 17;
+
+    /**
+     * 完整运行结果内容响应，内容较大时分多个包返回
+     */
+    Byte RUN_RESULT_CONTENT_RESPONSE = 18;
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+/**
+ * 类路径扫描统计
+ *
+ * @author future0923
+ */
+@Data
+public class ClassPathScanStatsRes {
+
+    /**
+     * 扫描次数
+     */
+    private long scanCount;
+
+    /**
+     * 扫描的class文件总数
+     */
+    private long scannedFileCount;
+
+    /**
+     * 扫描总耗时(ms)
+     */
+    private long scanTime;
+
+    /**
+     * 通过索引扫描jar的次数
+     */
+    private long jarIndexCount;
+
+    /**
+     * 缓存的jar索引数量
+     */
+    private int cachedJarIndexCount;
+
+    /**
+     * 最多缓存的jar索引数量
+     */
+    private int maxCachedJarIndexes;
+
+    /**
+     * 淘汰的jar索引数量
+     */
+    private long jarIndexEvictionCount;
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+/**
+ * Javassist ClassPool统计
+ *
+ * @author future0923
+ */
+@Data
+public class ClassPoolStatsRes {
+
+    /**
+     * ClassPool数量（每个类加载器一个）
+     */
+    private int poolCount;
+
+    /**
+     * 所有ClassPool缓存的CtClass数量
+     */
+    private int cachedClassCount;
+
+    /**
+     * 每个ClassPool最多缓存的CtClass数量
+     */
+    private int maxCachedClasses;
+
+    /**
+     * 超出上限被淘汰的CtClass数量
+     */
+    private long evictionCount;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+/**
+ * 运行结果存储统计
+ *
+ * @author future0923
+ */
+@Data
+public class ResultCacheStatsRes {
+
+    /**
+     * 当前条目数量
+     */
+    private int entries;
+
+    /**
+     * 当前估算内存占用(byte)
+     */
+    private long estimatedBytes;
+
+    /**
+     * 最多保存的条目数量
+     */
+    private int maxEntries;
+
+    /**
+     * 估算内存上限(byte)
+     */
+    private long maxBytes;
+
+    /**
+     * 未访问的存活时间(s)
+     */
+    private long ttlSeconds;
+
+    /**
+     * 引用类型 strong | soft | weak
+     */
+    private String retention;
+
+    /**
+     * 命中次数
+     */
+    private long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private long missCount;
+
+    /**
+     * 放入次数
+     */
+    private long putCount;
+
+    /**
+     * 超出数量或内存上限被淘汰的次数
+     */
+    private long evictionCount;
+
+    /**
+     * 超过存活时间被清理的次数
+     */
+    private long expiredCount;
+
+    /**
+     * 被GC回收的次数
+     */
+    private long collectedCount;
+}
@@ -25,4 +25,14 @@ import lombok.Data;
 public class RunResultDetailReq {
 
     private String offsetPath;
+
+    /**
+     * 容器子节点的起始位置，为空时使用offsetPath中#后的位置
+     */
+    private Integer offset;
+
+    /**
+     * 容器子节点的最大数量
+     */
+    private Integer limit;
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+/**
+ * 热部署命令调度器统计
+ *
+ * @author future0923
+ */
+@Data
+public class SchedulerStatsRes {
+
+    /**
+     * 热部署是否开启（未开启时没有调度器，其他统计都为0）
+     */
+    private boolean enabled;
+
+    /**
+     * 等待执行的命令数量
+     */
+    private int pendingCount;
+
+    /**
+     * 正在运行的命令数量
+     */
+    private int runningCount;
+
+    /**
+     * 已提交到线程池还未开始执行的命令数量
+     */
+    private int executorQueueSize;
+
+    /**
+     * 已执行的命令数量
+     */
+    private long executedCount;
+
+    /**
+     * 命令到期到开始执行的平均等待时间(ms)
+     */
+    private long averageWaitTime;
+
+    /**
+     * 命令到期到开始执行的最大等待时间(ms)
+     */
+    private long maxWaitTime;
+
+    /**
+     * 命令平均执行耗时(ms)
+     */
+    private long averageExecuteTime;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * SQL打印增强状态
+ *
+ * @author future0923
+ */
+@Data
+public class SqlPrintStatusRes {
+
+    /**
+     * 打印SQL类型
+     */
+    private String printSqlType;
+
+    /**
+     * 是否已增强驱动
+     */
+    private boolean installed;
+
+    /**
+     * 已增强的驱动类
+     */
+    private Set<String> enhancedClasses;
+}
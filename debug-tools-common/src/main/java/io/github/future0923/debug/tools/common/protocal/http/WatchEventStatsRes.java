@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.http;
+
+import lombok.Data;
+
+/**
+ * 文件监听事件统计
+ *
+ * @author future0923
+ */
+@Data
+public class WatchEventStatsRes {
+
+    /**
+     * 是否有文件监听
+     */
+    private boolean watching;
+
+    /**
+     * 已分发的事件数量
+     */
+    private long dispatchedCount;
+
+    /**
+     * 合并掉的重复事件数量
+     */
+    private long coalescedCount;
+
+    /**
+     * 队列已满丢弃的事件数量
+     */
+    private long droppedCount;
+
+    /**
+     * WatchService 溢出的次数，溢出后会重新扫描目录
+     */
+    private long overflowCount;
+
+    /**
+     * 等待分发的事件数量
+     */
+    private int queueSize;
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.packet.request;
+
+import io.github.future0923.debug.tools.common.enums.ProfilerAction;
+import io.github.future0923.debug.tools.common.protocal.Command;
+import io.github.future0923.debug.tools.common.protocal.packet.EntityPacket;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 采样分析器请求
+ *
+ * @author future0923
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProfilerRequestPacket extends EntityPacket<ProfilerRequestPacket> {
+
+    /**
+     * 操作
+     */
+    private ProfilerAction action;
+
+    /**
+     * 采样间隔(ms)
+     */
+    private Long interval;
+
+    /**
+     * 每个线程栈最大采集深度
+     */
+    private Integer maxDepth;
+
+    /**
+     * 是否只采集RUNNABLE状态的线程
+     */
+    private Boolean onlyRunnable;
+
+    public ProfilerRequestPacket() {
+    }
+
+    public ProfilerRequestPacket(ProfilerAction action) {
+        this.action = action;
+    }
+
+    @Override
+    public byte getCommand() {
+        return Command.PROFILER_REQUEST;
+    }
+
+    @Override
+    public void doDeserialize(ProfilerRequestPacket packet) {
+        this.setAction(packet.getAction());
+        this.setInterval(packet.getInterval());
+        this.setMaxDepth(packet.getMaxDepth());
+        this.setOnlyRunnable(packet.getOnlyRunnable());
+    }
+}
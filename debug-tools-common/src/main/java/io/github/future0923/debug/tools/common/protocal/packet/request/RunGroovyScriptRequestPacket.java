@@ -22,6 +22,8 @@ import io.github.future0923.debug.tools.common.protocal.packet.EntityPacket;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.Map;
+
 /**
  * @author future0923
  */
@@ -41,6 +43,11 @@ public class RunGroovyScriptRequestPacket extends EntityPacket<RunGroovyScriptRe
      */
     private String identity;
 
+    /**
+     * 脚本绑定的变量，脚本中可以直接通过变量名使用
+     */
+    private Map<String, Object> bindings;
+
     @Override
     public byte getCommand() {
         return Command.RUN_GROOVY_SCRIPT_REQUEST;
@@ -50,5 +57,6 @@ public class RunGroovyScriptRequestPacket extends EntityPacket<RunGroovyScriptRe
     public void doDeserialize(RunGroovyScriptRequestPacket packet) {
         this.setScript(packet.getScript());
         this.setIdentity(packet.getIdentity());
+        this.setBindings(packet.getBindings());
     }
 }
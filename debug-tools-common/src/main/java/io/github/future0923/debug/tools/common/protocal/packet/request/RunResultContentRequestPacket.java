@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.packet.request;
+
+import io.github.future0923.debug.tools.common.protocal.Command;
+import io.github.future0923.debug.tools.common.protocal.packet.EntityPacket;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 获取完整运行结果内容请求，用于获取被截断的printResult
+ *
+ * @author future0923
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RunResultContentRequestPacket extends EntityPacket<RunResultContentRequestPacket> {
+
+    /**
+     * 运行结果的offsetPath
+     */
+    private String offsetPath;
+
+    /**
+     * 从第几个字符开始返回
+     */
+    private Integer offset;
+
+    /**
+     * 每个包最多返回的字符数
+     */
+    private Integer chunkSize;
+
+    @Override
+    public byte getCommand() {
+        return Command.RUN_RESULT_CONTENT_REQUEST;
+    }
+
+    @Override
+    public void doDeserialize(RunResultContentRequestPacket packet) {
+        this.setOffsetPath(packet.getOffsetPath());
+        this.setOffset(packet.getOffset());
+        this.setChunkSize(packet.getChunkSize());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.packet.response;
+
+import io.github.future0923.debug.tools.common.dto.ProfilerResultDTO;
+import io.github.future0923.debug.tools.common.protocal.Command;
+import io.github.future0923.debug.tools.common.protocal.packet.EntityPacket;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 采样分析器响应
+ *
+ * @author future0923
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProfilerResponsePacket extends EntityPacket<ProfilerResponsePacket> {
+
+    private String applicationName;
+
+    private ProfilerResultDTO result;
+
+    @Override
+    public byte getCommand() {
+        return Command.PROFILER_RESPONSE;
+    }
+
+    @Override
+    public void doDeserialize(ProfilerResponsePacket packet) {
+        this.setApplicationName(packet.getApplicationName());
+        this.setResult(packet.getResult());
+    }
+
+    public static ProfilerResponsePacket of(ProfilerResultDTO result, String applicationName) {
+        ProfilerResponsePacket packet = new ProfilerResponsePacket();
+        packet.setApplicationName(applicationName);
+        packet.setResult(result);
+        return packet;
+    }
+}
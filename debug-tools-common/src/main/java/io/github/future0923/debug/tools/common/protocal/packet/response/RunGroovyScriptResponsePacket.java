@@ -41,6 +41,11 @@ public class RunGroovyScriptResponsePacket extends EntityPacket<RunGroovyScriptR
 
     private String printResult;
 
+    /**
+     * 完整结果的长度，printResult被截断时才有值，完整内容通过RunResultContentRequestPacket获取
+     */
+    private Integer printResultLength;
+
     private String throwable;
 
     private String offsetPath;
@@ -55,6 +60,7 @@ public class RunGroovyScriptResponsePacket extends EntityPacket<RunGroovyScriptR
         this.setApplicationName(packet.getApplicationName());
         this.setResultClassType(packet.getResultClassType());
         this.setPrintResult(packet.getPrintResult());
+        this.setPrintResultLength(packet.getPrintResultLength());
         this.setThrowable(packet.getThrowable());
         this.setOffsetPath(packet.getOffsetPath());
     }
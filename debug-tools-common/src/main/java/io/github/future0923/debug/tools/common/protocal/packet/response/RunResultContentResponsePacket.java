@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.common.protocal.packet.response;
+
+import io.github.future0923.debug.tools.common.protocal.Command;
+import io.github.future0923.debug.tools.common.protocal.packet.EntityPacket;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 完整运行结果内容响应
+ * <p>
+ * 内容较大时分多个包依次返回，客户端按offset拼接，直到收到last为true的包
+ *
+ * @author future0923
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RunResultContentResponsePacket extends EntityPacket<RunResultContentResponsePacket> {
+
+    private String applicationName;
+
+    /**
+     * 运行结果的offsetPath
+     */
+    private String offsetPath;
+
+    /**
+     * 本次内容在完整内容中的起始位置
+     */
+    private Integer offset;
+
+    /**
+     * 本次内容
+     */
+    private String content;
+
+    /**
+     * 完整内容的长度
+     */
+    private Integer totalLength;
+
+    /**
+     * 是否是最后一个包
+     */
+    private Boolean last;
+
+    @Override
+    public byte getCommand() {
+        return Command.RUN_RESULT_CONTENT_RESPONSE;
+    }
+
+    @Override
+    public void doDeserialize(RunResultContentResponsePacket packet) {
+        this.setApplicationName(packet.getApplicationName());
+        this.setOffsetPath(packet.getOffsetPath());
+        this.setOffset(packet.getOffset());
+        this.setContent(packet.getContent());
+        this.setTotalLength(packet.getTotalLength());
+        this.setLast(packet.getLast());
+    }
+
+    public static RunResultContentResponsePacket fail(String offsetPath, String message, String applicationName) {
+        RunResultContentResponsePacket packet = new RunResultContentResponsePacket();
+        packet.setResultFlag(FAIL);
+        packet.setApplicationName(applicationName);
+        packet.setOffsetPath(offsetPath);
+        packet.setOffset(0);
+        packet.setContent(message);
+        packet.setLast(true);
+        return packet;
+    }
+}
@@ -54,6 +54,11 @@ public class RunTargetMethodResponsePacket extends EntityPacket<RunTargetMethodR
 
     private String printResult;
 
+    /**
+     * 完整结果的长度，printResult被截断时才有值，完整内容通过RunResultContentRequestPacket获取
+     */
+    private Integer printResultLength;
+
     private String throwable;
 
     private String offsetPath;
@@ -62,6 +67,8 @@ public class RunTargetMethodResponsePacket extends EntityPacket<RunTargetMethodR
 
     private Long duration;
 
+    private Long durationNanos;
+
     @Override
     public byte getCommand() {
         return Command.RUN_TARGET_METHOD_RESPONSE;
@@ -71,6 +78,7 @@ public class RunTargetMethodResponsePacket extends EntityPacket<RunTargetMethodR
     public void doDeserialize(RunTargetMethodResponsePacket packet) {
         this.setIdentity(packet.getIdentity());
         this.setDuration(packet.getDuration());
+        this.setDurationNanos(packet.getDurationNanos());
         this.setApplicationName(packet.getApplicationName());
         this.setClassLoaderIdentity(packet.getClassLoaderIdentity());
         this.setClassName(packet.getClassName());
@@ -78,6 +86,7 @@ public class RunTargetMethodResponsePacket extends EntityPacket<RunTargetMethodR
         this.setMethodParameterTypes(packet.getMethodParameterTypes());
         this.setResultClassType(packet.getResultClassType());
         this.setPrintResult(packet.getPrintResult());
+        this.setPrintResultLength(packet.getPrintResultLength());
         this.setThrowable(packet.getThrowable());
         this.setOffsetPath(packet.getOffsetPath());
         this.setTraceOffsetPath(packet.getTraceOffsetPath());
@@ -16,6 +16,7 @@
  */
 package io.github.future0923.debug.tools.extension.spring;
 
+import io.github.future0923.debug.tools.base.context.BeanRefreshContext;
 import io.github.future0923.debug.tools.base.hutool.core.collection.CollUtil;
 import io.github.future0923.debug.tools.base.hutool.core.collection.CollectionUtil;
 import io.github.future0923.debug.tools.base.constants.ProjectConstants;
@@ -29,11 +30,16 @@ import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.AopProxy;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.*;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -45,6 +51,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * @author future0923
@@ -55,19 +64,168 @@ public class SpringEnvUtil {
 
     private static volatile boolean init = false;
 
-    private static List<BeanFactory> beanFactories;
+    /**
+     * 有容器关闭，下次获取时重新扫描
+     */
+    private static volatile boolean rediscoverPending = false;
 
-    private static List<ApplicationContext> applicationContexts;
+    private static volatile List<BeanFactory> beanFactories;
+
+    private static volatile List<ApplicationContext> applicationContexts;
+
+    /**
+     * Bean缓存，key为Bean类型或名称，只缓存单例Bean。扩展类加载器每个应用类加载器一个，所以缓存也按应用类加载器隔离
+     */
+    private static final Map<Object, List<?>> BEAN_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存版本号，缓存失效时递增，避免查找期间失效的结果被放入缓存
+     */
+    private static final AtomicLong CACHE_GENERATION = new AtomicLong();
+
+    /**
+     * 已处理的 {@link BeanRefreshContext} 版本号
+     */
+    private static volatile long refreshGeneration = BeanRefreshContext.getGeneration();
+
+    /**
+     * 已注册监听器的容器
+     */
+    private static final Set<ApplicationContext> LISTENED_CONTEXTS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private static final ContextEventListener CONTEXT_EVENT_LISTENER = new ContextEventListener();
 
     private static void initSpringContext() {
-        if (!init) {
+        if (!init || rediscoverPending) {
             synchronized (SpringEnvUtil.class) {
-                if (!init) {
-                    beanFactories = Arrays.asList(BeanInstanceUtils.getInstances(BeanFactory.class));
-                    applicationContexts = sort(BeanInstanceUtils.getInstances(ApplicationContext.class));
-                    init = true;
+                if (!init || rediscoverPending) {
+                    discover();
+                }
+            }
+        }
+        long generation = BeanRefreshContext.getGeneration();
+        if (generation != refreshGeneration) {
+            refreshGeneration = generation;
+            invalidate();
+        }
+    }
+
+    /**
+     * 遍历堆获取容器，跳过已关闭的容器。需要遍历两次堆，只在首次使用和有容器关闭后执行，查找不到Bean时不会重新扫描
+     */
+    private static synchronized void discover() {
+        beanFactories = Arrays.asList(BeanInstanceUtils.getInstances(BeanFactory.class));
+        List<ApplicationContext> contexts = new ArrayList<>();
+        for (ApplicationContext applicationContext : BeanInstanceUtils.getInstances(ApplicationContext.class)) {
+            if (applicationContext instanceof ConfigurableApplicationContext && !((ConfigurableApplicationContext) applicationContext).isActive()) {
+                continue;
+            }
+            contexts.add(applicationContext);
+        }
+        applicationContexts = sort(contexts.toArray(new ApplicationContext[0]));
+        for (ApplicationContext applicationContext : applicationContexts) {
+            addContextEventListener(applicationContext);
+        }
+        rediscoverPending = false;
+        init = true;
+        invalidate();
+    }
+
+    /**
+     * 注册容器刷新、关闭事件监听器
+     */
+    private static void addContextEventListener(ApplicationContext applicationContext) {
+        if (!(applicationContext instanceof ConfigurableApplicationContext) || !LISTENED_CONTEXTS.add(applicationContext)) {
+            return;
+        }
+        try {
+            ((ConfigurableApplicationContext) applicationContext).addApplicationListener(CONTEXT_EVENT_LISTENER);
+        } catch (RuntimeException e) {
+            if (ProjectConstants.DEBUG) {
+                logger.warning("注册容器事件监听器失败", e);
+            }
+        }
+    }
+
+    /**
+     * 清空Bean缓存
+     */
+    public static void invalidate() {
+        CACHE_GENERATION.incrementAndGet();
+        BEAN_CACHE.clear();
+    }
+
+    /**
+     * 先从缓存获取，未命中时查找，结果都是单例Bean时放入缓存
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> resolveBeans(Object key, Supplier<List<T>> finder) {
+        initSpringContext();
+        List<T> cached = (List<T>) BEAN_CACHE.get(key);
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+        long generation = CACHE_GENERATION.get();
+        List<T> beans = finder.get();
+        if (!beans.isEmpty() && isSingleton(key)) {
+            BEAN_CACHE.put(key, new ArrayList<>(beans));
+            if (generation != CACHE_GENERATION.get()) {
+                BEAN_CACHE.remove(key);
+            }
+        }
+        return beans;
+    }
+
+    /**
+     * key对应的Bean在所有容器中是否都是单例，非单例Bean每次获取都可能是新的实例，不能缓存
+     */
+    private static boolean isSingleton(Object key) {
+        try {
+            for (ApplicationContext applicationContext : applicationContexts) {
+                if (!isSingleton(applicationContext, key)) {
+                    return false;
+                }
+            }
+            for (BeanFactory beanFactory : beanFactories) {
+                if (!isSingleton(beanFactory, key)) {
+                    return false;
                 }
             }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSingleton(BeanFactory beanFactory, Object key) {
+        if (key instanceof String) {
+            String beanName = (String) key;
+            return !beanFactory.containsBean(beanName) || beanFactory.isSingleton(beanName);
+        }
+        if (!(beanFactory instanceof ListableBeanFactory)) {
+            return false;
+        }
+        for (String beanName : ((ListableBeanFactory) beanFactory).getBeanNamesForType((Class<?>) key)) {
+            if (!beanFactory.isSingleton(beanName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 容器刷新时清空缓存，容器关闭时清空缓存并在下次获取时重新扫描容器
+     */
+    private static class ContextEventListener implements ApplicationListener<ApplicationContextEvent> {
+
+        @Override
+        public void onApplicationEvent(ApplicationContextEvent event) {
+            if (event instanceof ContextClosedEvent) {
+                rediscoverPending = true;
+                invalidate();
+            } else if (event instanceof ContextRefreshedEvent) {
+                invalidate();
+            }
         }
     }
 
@@ -106,12 +264,13 @@ public class SpringEnvUtil {
     }
 
     public static <T> List<T> getBeans(String beanName) {
-        initSpringContext();
-        List<T> beansByApplicationContext = getBeansByApplicationContext(beanName);
-        if (!beansByApplicationContext.isEmpty()) {
-            return beansByApplicationContext;
-        }
-        return getBeansByBeanFactory(beanName);
+        return resolveBeans(beanName, () -> {
+            List<T> beansByApplicationContext = getBeansByApplicationContext(beanName);
+            if (!beansByApplicationContext.isEmpty()) {
+                return beansByApplicationContext;
+            }
+            return getBeansByBeanFactory(beanName);
+        });
     }
 
     public static <T> T getLastBean(Class<T> requiredType) {
@@ -119,12 +278,13 @@ public class SpringEnvUtil {
     }
 
     public static <T> List<T> getBeans(Class<T> requiredType) {
-        initSpringContext();
-        List<T> beansByApplicationContext = getBeansByApplicationContext(requiredType);
-        if (!beansByApplicationContext.isEmpty()) {
-            return beansByApplicationContext;
-        }
-        return getBeansByBeanFactory(requiredType);
+        return resolveBeans(requiredType, () -> {
+            List<T> beansByApplicationContext = getBeansByApplicationContext(requiredType);
+            if (!beansByApplicationContext.isEmpty()) {
+                return beansByApplicationContext;
+            }
+            return getBeansByBeanFactory(requiredType);
+        });
     }
 
     public static <T> void registerBean(T bean) {
@@ -153,6 +313,7 @@ public class SpringEnvUtil {
                 }
             }
         }
+        invalidate();
     }
 
     public static <T> void registerBean(String beanName, Class<T> beanClass) {
@@ -184,6 +345,7 @@ public class SpringEnvUtil {
                 }
             }
         }
+        invalidate();
     }
 
     public static void unregisterBean(String beanName) {
@@ -212,6 +374,7 @@ public class SpringEnvUtil {
                 }
             }
         }
+        invalidate();
     }
 
     public static void unregisterBeanAndDefinition(String beanName) {
@@ -266,6 +429,7 @@ public class SpringEnvUtil {
                 }
             }
         }
+        invalidate();
     }
 
     private static <T> List<T> getBeansByApplicationContext(Class<T> requiredType) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.extension.spring;
+
+import io.github.future0923.debug.tools.base.context.BeanRefreshContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 容器由测试设置好，重新扫描需要遍历堆，测试环境中会失败
+ *
+ * @author future0923
+ */
+class SpringEnvUtilTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        setField("beanFactories", Collections.<BeanFactory>singletonList(beanFactory));
+        setField("applicationContexts", Collections.emptyList());
+        setField("init", true);
+        SpringEnvUtil.invalidate();
+    }
+
+    @AfterEach
+    void tearDown() throws ReflectiveOperationException {
+        setField("init", false);
+        SpringEnvUtil.invalidate();
+    }
+
+    @Test
+    void singletonIsCachedUntilInvalidated() {
+        Object first = new Object();
+        beanFactory.registerSingleton("bean", first);
+        assertSame(first, SpringEnvUtil.getLastBean("bean"));
+        Object second = new Object();
+        beanFactory.destroySingleton("bean");
+        beanFactory.registerSingleton("bean", second);
+        assertSame(first, SpringEnvUtil.getLastBean("bean"));
+        SpringEnvUtil.invalidate();
+        assertSame(second, SpringEnvUtil.getLastBean("bean"));
+    }
+
+    @Test
+    void beanRefreshInvalidatesCache() {
+        Object first = new Object();
+        beanFactory.registerSingleton("bean", first);
+        assertSame(first, SpringEnvUtil.getLastBean("bean"));
+        Object second = new Object();
+        beanFactory.destroySingleton("bean");
+        beanFactory.registerSingleton("bean", second);
+        BeanRefreshContext.refresh();
+        assertSame(second, SpringEnvUtil.getLastBean("bean"));
+    }
+
+    @Test
+    void missIsNotCachedAndDoesNotRediscover() {
+        assertTrue(SpringEnvUtil.getBeans("bean").isEmpty());
+        assertTrue(SpringEnvUtil.getBeans("bean").isEmpty());
+        Object bean = new Object();
+        beanFactory.registerSingleton("bean", bean);
+        assertEquals(Collections.singletonList(bean), SpringEnvUtil.getBeans("bean"));
+    }
+
+    private static void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = SpringEnvUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+}
@@ -45,7 +45,7 @@ import static io.github.future0923.debug.tools.hotswap.core.annotation.LoadEvent
  * <li>{@link Class} 类被重新定义，在redefine或retransform时有值，load时为null
  * <li>{@link ProtectionDomain} 保护域
  * <li>{@link ClassPool} javassist的ClassPool
- * <li>{@link CtClass} 通过byte[]与ClassLoader创建的javassist的CtClass
+ * <li>{@link CtClass} 通过byte[]与ClassLoader创建的javassist的CtClass，同一次加载中的插件共享，直接修改即可，只读取不修改时不会重新生成字节码
  * <li>{@link LoadEvent} 加载的事件类型
  * </ul>
  * <p>{@return byte[]} 返回null表示不修改字节码，否则返回修改后的字节码byte[]
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.annotation.handler;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.hotswap.core.util.JavassistUtil;
+import javassist.CannotCompileException;
+import javassist.CtClass;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+/**
+ * 一次类加载的转换会话，多个{@link PluginClassFileTransformer}共享
+ * <p>第一个需要{@link CtClass}的插件方法调用时才解析字节码，之后的插件方法复用同一个CtClass并在其上修改，
+ * 所有插件执行完后在{@link #finish()}中只序列化一次。没有修改CtClass的插件（只读取）不会触发重新生成字节码。
+ * 插件需要{@code byte[]}时，先将之前未序列化的修改写回字节码。
+ * 插件执行失败时{@link #rollback()}丢弃CtClass上未序列化的修改，重新从最近一次序列化的字节码解析，
+ * 执行前不保存回滚点，所以之前插件在CtClass上未序列化的修改也会一起丢弃。
+ */
+public class ClassTransformSession {
+
+    private static final Logger LOGGER = Logger.getLogger(ClassTransformSession.class);
+
+    /**
+     * {@code CtClassType.wasChanged}，makeClass后会被置为true，需要重置后才能通过{@link CtClass#isModified()}判断插件是否修改
+     */
+    private static final Field WAS_CHANGED_FIELD;
+
+    static {
+        Field field = null;
+        try {
+            field = Class.forName("javassist.CtClassType").getDeclaredField("wasChanged");
+            field.setAccessible(true);
+        } catch (Throwable e) {
+            LOGGER.debug("Unable to access javassist CtClassType.wasChanged, every CtClass will be treated as modified", e);
+        }
+        WAS_CHANGED_FIELD = field;
+    }
+
+    private final ClassLoader classLoader;
+
+    /**
+     * 当前字节码，不包含{@link #ctClass}中未序列化的修改，也是{@link #rollback()}的回滚点
+     */
+    private byte[] bytes;
+
+    /**
+     * 共享的CtClass
+     */
+    private CtClass ctClass;
+
+    /**
+     * 解析字节码的次数
+     */
+    private int parseCount;
+
+    /**
+     * 序列化字节码的次数
+     */
+    private int serializeCount;
+
+    public ClassTransformSession(ClassLoader classLoader, byte[] bytes) {
+        this.classLoader = classLoader;
+        this.bytes = bytes;
+    }
+
+    /**
+     * 获取当前字节码，包含之前插件在CtClass上的修改
+     */
+    public byte[] getBytes() throws IOException, CannotCompileException {
+        if (ctClass != null && ctClass.isModified()) {
+            bytes = ctClass.toBytecode();
+            serializeCount++;
+            discardCtClass();
+        }
+        return bytes;
+    }
+
+    /**
+     * 获取共享的CtClass，没有时从当前字节码解析。之前的插件调用过toBytecode()导致CtClass被冻结时，先写回字节码再重新解析
+     */
+    public CtClass getCtClass() throws IOException, CannotCompileException {
+        if (ctClass != null && ctClass.isFrozen()) {
+            getBytes();
+            discardCtClass();
+        }
+        if (ctClass == null) {
+            ctClass = JavassistUtil.createCtClass(classLoader, bytes);
+            parseCount++;
+            markUnmodified(ctClass);
+        }
+        return ctClass;
+    }
+
+    /**
+     * 是否已经解析出CtClass且被修改
+     */
+    public boolean isModified() {
+        return ctClass != null && ctClass.isModified();
+    }
+
+    /**
+     * 插件返回了新的字节码
+     */
+    public void setBytes(byte[] result) {
+        if (result != bytes) {
+            discardCtClass();
+            bytes = result;
+        }
+    }
+
+    /**
+     * 插件返回了CtClass，不是共享的CtClass时以返回的为准
+     */
+    public void setCtClass(CtClass result) throws IOException, CannotCompileException {
+        if (result != ctClass) {
+            byte[] resultBytes = result.toBytecode();
+            serializeCount++;
+            result.detach();
+            setBytes(resultBytes);
+        }
+    }
+
+    /**
+     * 回滚到最近一次序列化的字节码，丢弃CtClass上未序列化的修改，下一个插件需要时重新解析
+     */
+    public void rollback() {
+        discardCtClass();
+    }
+
+    /**
+     * 丢弃共享的CtClass及其上未序列化的修改
+     */
+    public void discardCtClass() {
+        if (ctClass != null) {
+            ctClass.detach();
+            ctClass = null;
+        }
+    }
+
+    /**
+     * 结束会话，有修改时序列化一次并释放CtClass
+     *
+     * @return 最终的字节码
+     */
+    public byte[] finish() throws IOException, CannotCompileException {
+        try {
+            return getBytes();
+        } finally {
+            discardCtClass();
+        }
+    }
+
+    int getParseCount() {
+        return parseCount;
+    }
+
+    int getSerializeCount() {
+        return serializeCount;
+    }
+
+    private static void markUnmodified(CtClass ctClass) {
+        if (WAS_CHANGED_FIELD != null && WAS_CHANGED_FIELD.getDeclaringClass().isInstance(ctClass)) {
+            try {
+                WAS_CHANGED_FIELD.setBoolean(ctClass, false);
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+    }
+}
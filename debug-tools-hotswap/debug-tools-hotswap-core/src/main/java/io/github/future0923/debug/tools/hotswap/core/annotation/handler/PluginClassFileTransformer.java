@@ -88,17 +88,31 @@ public class PluginClassFileTransformer implements HaClassFileTransformer {
 
     @Override
     public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) throws IllegalClassFormatException {
+        ClassTransformSession session = new ClassTransformSession(loader, classfileBuffer);
+        transform(session, loader, className, classBeingRedefined, protectionDomain);
+        try {
+            return session.finish();
+        } catch (IOException | CannotCompileException e) {
+            LOGGER.error("Cannot compile class after manipulation on plugin '{}' class '{}'", e, pluginAnnotation.getPluginClass(), className);
+            return classfileBuffer;
+        }
+    }
+
+    /**
+     * 在共享的转换会话上执行，修改保存在会话中，由调用方{@link ClassTransformSession#finish()}
+     */
+    public void transform(ClassTransformSession session, ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
         if ((classBeingRedefined == null) ? !events.contains(LoadEvent.DEFINE) : !events.contains(LoadEvent.REDEFINE)) {
             LOGGER.trace("Not a handled event!", events);
-            return classfileBuffer;
+            return;
         }
 
         if (pluginManager.getPluginConfiguration(loader).isDisabledPlugin(pluginAnnotation.getPluginClass())) {
             LOGGER.trace("Plugin NOT enabled! {}", pluginAnnotation);
-            return classfileBuffer;
+            return;
         }
 
-        return transform(pluginManager, pluginAnnotation, loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+        transform(pluginManager, pluginAnnotation, session, loader, className, classBeingRedefined, protectionDomain);
     }
 
     /**
@@ -116,17 +130,31 @@ public class PluginClassFileTransformer implements HaClassFileTransformer {
      * 反射调用{@link OnClassLoadEvent}
      */
     public static byte[] transform(PluginManager pluginManager, PluginAnnotation<OnClassLoadEvent> pluginAnnotation, ClassLoader classLoader, String className, Class<?> redefiningClass, ProtectionDomain protectionDomain, byte[] bytes) {
+        ClassTransformSession session = new ClassTransformSession(classLoader, bytes);
+        transform(pluginManager, pluginAnnotation, session, classLoader, className, redefiningClass, protectionDomain);
+        try {
+            return session.finish();
+        } catch (IOException | CannotCompileException e) {
+            LOGGER.error("Cannot compile class after manipulation on plugin '{}' class '{}'", e, pluginAnnotation.getPluginClass(), className);
+            return bytes;
+        }
+    }
+
+    /**
+     * 在转换会话上反射调用{@link OnClassLoadEvent}，只有参数需要{@link CtClass}时才解析字节码
+     */
+    public static void transform(PluginManager pluginManager, PluginAnnotation<OnClassLoadEvent> pluginAnnotation, ClassTransformSession session, ClassLoader classLoader, String className, Class<?> redefiningClass, ProtectionDomain protectionDomain) {
         LOGGER.trace("Transforming.... '{}' using: '{}'", className, pluginAnnotation);
 
         if (pluginAnnotation.getAnnotation().skipSynthetic()) {
             if (isSyntheticClass(className) || (redefiningClass != null && redefiningClass.isSynthetic())) {
-                return bytes;
+                return;
             }
         }
 
         if (pluginAnnotation.getAnnotation().skipAnonymous()) {
             if (className.matches("\\$\\d+$")) {
-                return bytes;
+                return;
             }
         }
 
@@ -134,60 +162,60 @@ public class PluginClassFileTransformer implements HaClassFileTransformer {
             pluginManager.initClassLoader(classLoader, protectionDomain);
         }
 
-        // default result
-        byte[] result = bytes;
-
-        CtClass ctClass = null;
+        byte[] bytes = null;
 
         List<Object> args = new ArrayList<>();
-        for (Class<?> type : pluginAnnotation.getMethod().getParameterTypes()) {
-            if (type.isAssignableFrom(ClassLoader.class)) {
-                args.add(classLoader);
-            } else if (type.isAssignableFrom(String.class)) {
-                args.add(className);
-            } else if (type.isAssignableFrom(Class.class)) {
-                args.add(redefiningClass);
-            } else if (type.isAssignableFrom(ProtectionDomain.class)) {
-                args.add(protectionDomain);
-            } else if (type.isAssignableFrom(byte[].class)) {
-                args.add(bytes);
-            } else if (type.isAssignableFrom(ClassPool.class)) {
-                args.add(JavassistUtil.getClassPool(classLoader));
-            } else if (type.isAssignableFrom(CtClass.class)) {
-                try {
-                    ctClass = JavassistUtil.createCtClass(classLoader, bytes);
-                    args.add(ctClass);
-                } catch (IOException e) {
-                    LOGGER.error("Unable create CtClass for '" + className + "'.", e);
-                    return result;
+        try {
+            for (Class<?> type : pluginAnnotation.getMethod().getParameterTypes()) {
+                if (type.isAssignableFrom(ClassLoader.class)) {
+                    args.add(classLoader);
+                } else if (type.isAssignableFrom(String.class)) {
+                    args.add(className);
+                } else if (type.isAssignableFrom(Class.class)) {
+                    args.add(redefiningClass);
+                } else if (type.isAssignableFrom(ProtectionDomain.class)) {
+                    args.add(protectionDomain);
+                } else if (type.isAssignableFrom(byte[].class)) {
+                    bytes = session.getBytes();
+                    args.add(bytes);
+                } else if (type.isAssignableFrom(ClassPool.class)) {
+                    args.add(JavassistUtil.getClassPool(classLoader));
+                } else if (type.isAssignableFrom(CtClass.class)) {
+                    try {
+                        args.add(session.getCtClass());
+                    } catch (IOException e) {
+                        LOGGER.error("Unable create CtClass for '" + className + "'.", e);
+                        session.rollback();
+                        return;
+                    }
+                } else if (type.isAssignableFrom(LoadEvent.class)) {
+                    args.add(redefiningClass == null ? LoadEvent.DEFINE : LoadEvent.REDEFINE);
+                } else {
+                    LOGGER.error("Unable to call init method on plugin '" + pluginAnnotation.getPluginClass() + "'." + " Method parameter type '" + type + "' is not recognized for @Init annotation.");
+                    return;
                 }
-            } else if (type.isAssignableFrom(LoadEvent.class)) {
-                args.add(redefiningClass == null ? LoadEvent.DEFINE : LoadEvent.REDEFINE);
-            } else {
-                LOGGER.error("Unable to call init method on plugin '" + pluginAnnotation.getPluginClass() + "'." + " Method parameter type '" + type + "' is not recognized for @Init annotation.");
-                return result;
             }
+        } catch (IOException | CannotCompileException e) {
+            LOGGER.error("Cannot compile class before manipulation on plugin '{}' class '{}' of classLoader '{}'",
+                e, pluginAnnotation.getPluginClass(), className,
+                classLoader != null ? classLoader.getClass().getName() : "");
+            session.rollback();
+            return;
         }
         try {
             Object resultObject = pluginAnnotation.getMethod().invoke(pluginAnnotation.getPlugin(), args.toArray());
             if (resultObject == null) {
 
             } else if (resultObject instanceof byte[]) {
-                result = (byte[]) resultObject;
-            } else if (resultObject instanceof CtClass) {
-                result = ((CtClass) resultObject).toBytecode();
-                if (resultObject != ctClass) {
-                    ((CtClass) resultObject).detach();
+                if (resultObject != bytes) {
+                    session.setBytes((byte[]) resultObject);
                 }
+            } else if (resultObject instanceof CtClass) {
+                session.setCtClass((CtClass) resultObject);
             } else {
-                LOGGER.error("Unknown result of @OnClassLoadEvent method '" + result.getClass().getName() + "'.");
-            }
-            if (ctClass != null) {
-                if (resultObject == null) {
-                    result = ctClass.toBytecode();
-                }
-                ctClass.detach();
+                LOGGER.error("Unknown result of @OnClassLoadEvent method '" + resultObject.getClass().getName() + "'.");
             }
+            return;
         } catch (IllegalAccessException e) {
             LOGGER.error("IllegalAccessException in transform method on plugin '{}' class '{}' of classLoader '{}'",
                 e, pluginAnnotation.getPluginClass(), className,
@@ -205,8 +233,8 @@ public class PluginClassFileTransformer implements HaClassFileTransformer {
                 e, pluginAnnotation.getPluginClass(), className,
                 classLoader != null ? classLoader.getClass().getName() : "");
         }
-
-        return result;
+        // 插件执行失败，丢弃CtClass上未序列化的修改，不会留下修改了一半的类
+        session.rollback();
     }
 
     @Override
@@ -1,51 +0,0 @@
-/*
- * Copyright (C) 2024-2025 the original author or authors.
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <https://www.gnu.org/licenses/>.
- */
-package io.github.future0923.debug.tools.hotswap.core.command.impl;
-
-import io.github.future0923.debug.tools.base.logging.Logger;
-import io.github.future0923.debug.tools.hotswap.core.command.Command;
-
-/**
- * 命令的执行器，创建线程执行
- */
-public class CommandExecutor extends Thread {
-    private static final Logger LOGGER = Logger.getLogger(CommandExecutor.class);
-
-    final Command command;
-
-    public CommandExecutor(Command command) {
-        this.command = command;
-        setDaemon(true);
-    }
-
-    @Override
-    public void run() {
-        try {
-            LOGGER.trace("Executing command {}", command);
-            command.executeCommand();
-        } finally {
-            finished();
-        }
-    }
-
-    /**
-     * 执行完成后的处理（一定会调用）
-     */
-    public void finished() {
-    }
-
-}
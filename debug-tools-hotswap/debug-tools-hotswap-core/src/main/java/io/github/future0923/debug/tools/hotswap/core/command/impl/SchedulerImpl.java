@@ -23,15 +23,23 @@ import io.github.future0923.debug.tools.hotswap.core.command.MergeableCommand;
 import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
 import lombok.Getter;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 调度器默认实现，只调度，命令通过创建{@link CommandExecutor}执行
+ * 调度器默认实现
+ * <p>
+ * 投递的命令放入{@link DelayQueue}，调度线程在命令到期时才被唤醒，命令交给有界的线程池执行。
+ * 相同（equals）的命令通过Map直接查找，合并或重新计时。
  */
 public class SchedulerImpl implements Scheduler {
 
@@ -43,24 +51,59 @@ public class SchedulerImpl implements Scheduler {
     int DEFAULT_SCHEDULING_TIMEOUT = 500;
 
     /**
-     * 投递进来的命令（无序）
+     * 执行命令的线程数
      */
-    final Map<Command, DuplicateScheduleConfig> scheduledCommands = new ConcurrentHashMap<>();
+    private static final int WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 投递进来等待执行的命令，同一命令只保留最后一次投递
+     */
+    final Map<Command, ScheduledCommand> scheduledCommands = new HashMap<>();
+
+    /**
+     * 按执行时间排序的命令，重新投递后旧的条目在出队时忽略
+     */
+    private final DelayQueue<ScheduledCommand> delayQueue = new DelayQueue<>();
 
     /**
      * 正在运行的命令
      */
-    final Set<Command> runningCommands = Collections.synchronizedSet(new HashSet<Command>());
+    final Set<Command> runningCommands = new HashSet<>();
 
     /**
-     * 运行命令的调度线程，创建{@link CommandExecutor}最终执行命令
+     * 执行命令的线程池
+     */
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 调度线程，命令到期后交给{@link #executor}执行
      */
     Thread runner;
 
     /**
      * 是否停止运行
      */
-    boolean stopped;
+    volatile boolean stopped;
+
+    /**
+     * 已执行的命令数量
+     */
+    private final AtomicLong executedCount = new AtomicLong();
+
+    /**
+     * 命令到期到开始执行的总等待时间(ms)
+     */
+    private final AtomicLong totalWaitTime = new AtomicLong();
+
+    /**
+     * 命令到期到开始执行的最大等待时间(ms)
+     */
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * 命令执行的总耗时(ms)
+     */
+    private final AtomicLong totalExecuteTime = new AtomicLong();
 
     @Override
     public void scheduleCommand(Command command) {
@@ -74,92 +117,128 @@ public class SchedulerImpl implements Scheduler {
 
     @Override
     public void scheduleCommand(Command command, int timeout, DuplicateSheduleBehaviour behaviour) {
+        ScheduledCommand scheduled;
         synchronized (scheduledCommands) {
             Command targetCommand = command;
-            if (scheduledCommands.containsKey(command) && (command instanceof MergeableCommand)) {
-                // 任务中有这个命令并且是可以合并的
-                for (Command scheduledCommand : scheduledCommands.keySet()) {
-                    // 如果他们的equals相等就合并
-                    if (command.equals(scheduledCommand)) {
-                        targetCommand = ((MergeableCommand) scheduledCommand).merge(command);
-                        break;
-                    }
+            ScheduledCommand exist = scheduledCommands.get(command);
+            if (exist != null) {
+                // 已经有相同的命令，保留之前的命令对象，可以合并的就合并
+                targetCommand = exist.getCommand();
+                if (targetCommand instanceof MergeableCommand) {
+                    targetCommand = ((MergeableCommand) targetCommand).merge(command);
                 }
+                scheduledCommands.remove(command);
             }
-
-            // map可能已经包含equals命令，put将替换它并重置计时器
-            scheduledCommands.put(targetCommand, new DuplicateScheduleConfig(System.currentTimeMillis() + timeout, behaviour));
-            LOGGER.trace("{} scheduled for execution in {}ms", targetCommand, timeout);
+            // 重新计时
+            scheduled = new ScheduledCommand(targetCommand, System.currentTimeMillis() + timeout, behaviour);
+            scheduledCommands.put(targetCommand, scheduled);
         }
+        delayQueue.offer(scheduled);
+        LOGGER.trace("{} scheduled for execution in {}ms", scheduled.getCommand(), timeout);
     }
 
     /**
-     * 运行当前未运行且运行时间{@link DuplicateScheduleConfig#time}
+     * 处理到期的命令
      */
-    private boolean processCommands() {
-        long currentTime = System.currentTimeMillis();
+    private void processCommand(ScheduledCommand scheduled) {
+        Command command = scheduled.getCommand();
         synchronized (scheduledCommands) {
-            for (Iterator<Map.Entry<Command, DuplicateScheduleConfig>> it = scheduledCommands.entrySet().iterator(); it.hasNext(); ) {
-                Map.Entry<Command, DuplicateScheduleConfig> entry = it.next();
-                DuplicateScheduleConfig config = entry.getValue();
-                Command command = entry.getKey();
-                // 如果时间到了
-                if (config.getTime() < currentTime) {
-                    // 如果当前正在运行
-                    if (runningCommands.contains(command)) {
-                        if (config.getBehaviour().equals(DuplicateSheduleBehaviour.SKIP)) {
-                            LOGGER.debug("Skipping duplicate running command {}", command);
-                            it.remove();
-                        } else if (config.getBehaviour().equals(DuplicateSheduleBehaviour.RUN_DUPLICATE)) {
-                            executeCommand(command);
-                            it.remove();
-                        }
-                        // 不投递则为等待下次调度
-                    } else {
-                        executeCommand(command);
-                        it.remove();
-                    }
+            if (scheduledCommands.get(command) != scheduled) {
+                // 已经被重新投递
+                return;
+            }
+            // 如果当前正在运行
+            if (runningCommands.contains(command)) {
+                if (scheduled.getBehaviour().equals(DuplicateSheduleBehaviour.SKIP)) {
+                    LOGGER.debug("Skipping duplicate running command {}", command);
+                    scheduledCommands.remove(command);
+                    return;
+                } else if (!scheduled.getBehaviour().equals(DuplicateSheduleBehaviour.RUN_DUPLICATE)) {
+                    // 等待运行结束后由 finished 重新放入队列
+                    scheduled.waiting = true;
+                    return;
                 }
             }
+            scheduledCommands.remove(command);
+            runningCommands.add(command);
         }
-
-        return true;
+        executeCommand(scheduled);
     }
 
     /**
-     * 创建{@link CommandExecutor}执行命令
+     * 交给线程池执行命令
      */
-    private void executeCommand(Command command) {
+    private void executeCommand(ScheduledCommand scheduled) {
+        Command command = scheduled.getCommand();
         if (command instanceof WatchEventCommand) {
             LOGGER.trace("Executing {}", command);
         } else {
             LOGGER.debug("Executing {}", command);
         }
-        //添加到正在运行的集合
-        runningCommands.add(command);
-        new CommandExecutor(command) {
-            @Override
-            public void finished() {
-                runningCommands.remove(command);
+        executor.execute(() -> {
+            long start = System.currentTimeMillis();
+            long waitTime = Math.max(0, start - scheduled.getTime());
+            totalWaitTime.addAndGet(waitTime);
+            maxWaitTime.accumulateAndGet(waitTime, Math::max);
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            try {
+                LOGGER.trace("Executing command {}", command);
+                command.executeCommand();
+            } catch (Throwable e) {
+                LOGGER.error("Execute command {} error", e, command);
+            } finally {
+                // 命令可能修改线程上下文类加载器
+                thread.setContextClassLoader(contextClassLoader);
+                totalExecuteTime.addAndGet(System.currentTimeMillis() - start);
+                executedCount.incrementAndGet();
+                finished(command);
+            }
+        });
+    }
+
+    /**
+     * 命令执行完成，有等待该命令结束的相同命令时放回队列
+     */
+    private void finished(Command command) {
+        ScheduledCommand waiting = null;
+        synchronized (scheduledCommands) {
+            runningCommands.remove(command);
+            ScheduledCommand scheduled = scheduledCommands.get(command);
+            if (scheduled != null && scheduled.waiting) {
+                scheduled.waiting = false;
+                waiting = scheduled;
             }
-        }.start();
+        }
+        if (waiting != null) {
+            delayQueue.offer(waiting);
+        }
     }
 
     @Override
     public void run() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r);
+            t.setName("DebugTools-HotswapCommand-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            t.setContextClassLoader(contextClassLoader);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
         runner = new Thread(() -> {
-            for (; ; ) {
-                if (stopped || !processCommands()) {
-                    break;
-                }
+            while (!stopped) {
                 try {
-                    Thread.sleep(100);
+                    processCommand(delayQueue.take());
                 } catch (InterruptedException e) {
                     break;
+                } catch (Throwable e) {
+                    LOGGER.error("Process command error", e);
                 }
             }
-
         });
+        runner.setName("DebugTools-HotswapScheduler");
         runner.setDaemon(true);
         runner.start();
     }
@@ -167,10 +246,73 @@ public class SchedulerImpl implements Scheduler {
     @Override
     public void stop() {
         stopped = true;
+        if (runner != null) {
+            runner.interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 等待执行的命令数量
+     */
+    public int getPendingCount() {
+        synchronized (scheduledCommands) {
+            return scheduledCommands.size();
+        }
+    }
+
+    /**
+     * 正在运行的命令数量
+     */
+    public int getRunningCount() {
+        synchronized (scheduledCommands) {
+            return runningCommands.size();
+        }
+    }
+
+    /**
+     * 已提交到线程池还未开始执行的命令数量
+     */
+    public int getExecutorQueueSize() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    /**
+     * 已执行的命令数量
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * 命令到期到开始执行的平均等待时间(ms)
+     */
+    public long getAverageWaitTime() {
+        long count = executedCount.get();
+        return count == 0 ? 0 : totalWaitTime.get() / count;
+    }
+
+    /**
+     * 命令到期到开始执行的最大等待时间(ms)
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * 命令平均执行耗时(ms)
+     */
+    public long getAverageExecuteTime() {
+        long count = executedCount.get();
+        return count == 0 ? 0 : totalExecuteTime.get() / count;
     }
 
     @Getter
-    private static class DuplicateScheduleConfig {
+    private static class ScheduledCommand implements Delayed {
+
+        private final Command command;
 
         /**
          * 什么时间运行
@@ -180,11 +322,27 @@ public class SchedulerImpl implements Scheduler {
         /**
          * 有重复命令时如何处理
          */
-        DuplicateSheduleBehaviour behaviour;
+        private final DuplicateSheduleBehaviour behaviour;
+
+        /**
+         * 是否在等待相同命令运行结束
+         */
+        private boolean waiting;
 
-        private DuplicateScheduleConfig(long time, DuplicateSheduleBehaviour behaviour) {
+        private ScheduledCommand(Command command, long time, DuplicateSheduleBehaviour behaviour) {
+            this.command = command;
             this.time = time;
             this.behaviour = behaviour;
         }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(time, ((ScheduledCommand) o).time);
+        }
     }
 }
@@ -22,6 +22,7 @@ import io.github.future0923.debug.tools.base.trace.MethodTrace;
 import io.github.future0923.debug.tools.hotswap.core.annotation.LoadEvent;
 import io.github.future0923.debug.tools.hotswap.core.annotation.OnClassLoadEvent;
 import io.github.future0923.debug.tools.hotswap.core.annotation.Plugin;
+import io.github.future0923.debug.tools.hotswap.core.annotation.handler.ClassTransformSession;
 import io.github.future0923.debug.tools.hotswap.core.annotation.handler.PluginClassFileTransformer;
 import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
 import lombok.Getter;
@@ -32,6 +33,9 @@ import java.lang.instrument.IllegalClassFormatException;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -94,6 +98,16 @@ public class HotswapTransformer implements ClassFileTransformer {
      */
     protected Map<String, RegisteredTransformersRecord> otherTransformers = new LinkedHashMap<>();
 
+    /**
+     * {@link #redefinitionTransformers}的索引快照，注册或移除transformer时重新构建
+     */
+    private volatile TransformerIndex redefinitionIndex = TransformerIndex.EMPTY;
+
+    /**
+     * {@link #otherTransformers}的索引快照，注册或移除transformer时重新构建
+     */
+    private volatile TransformerIndex otherIndex = TransformerIndex.EMPTY;
+
     /**
      * Transformer与ClassLoader之间的映射
      */
@@ -133,15 +147,28 @@ public class HotswapTransformer implements ClassFileTransformer {
             return null;
         }
         // 非插件类文件Transformer的集合
-        List<ClassFileTransformer> toApply = new ArrayList<>();
+        List<ClassFileTransformer> toApply = null;
         // 插件类文件Transformer的集合
-        List<PluginClassFileTransformer> pluginTransformers = new ArrayList<>();
+        List<PluginClassFileTransformer> pluginTransformers = null;
         try {
             // 调用关注非define类型的transformer
-            for (RegisteredTransformersRecord transformerRecord : new ArrayList<>(otherTransformers.values())) {
-                if ((className != null && transformerRecord.pattern.matcher(className).matches()) ||
-                        (redefiningClass != null && transformerRecord.pattern.matcher(redefiningClass.getName()).matches())) {
-                    for (ClassFileTransformer transformer : new ArrayList<ClassFileTransformer>(transformerRecord.transformerList)) {
+            List<IndexedRecord> matched = otherIndex.match(className, redefiningClass);
+            // 调用关注redefine类型的transformer
+            if (redefiningClass != null && className != null) {
+                List<IndexedRecord> redefinitionMatched = redefinitionIndex.match(className, null);
+                if (redefinitionMatched != null) {
+                    if (matched == null) {
+                        matched = redefinitionMatched;
+                    } else {
+                        matched.addAll(redefinitionMatched);
+                    }
+                }
+            }
+            if (matched != null) {
+                toApply = new ArrayList<>();
+                pluginTransformers = new ArrayList<>();
+                for (IndexedRecord transformerRecord : matched) {
+                    for (ClassFileTransformer transformer : transformerRecord.transformers) {
                         if (transformer instanceof PluginClassFileTransformer) {
                             PluginClassFileTransformer pluginClassFileTransformer = (PluginClassFileTransformer) transformer;
                             if (!pluginClassFileTransformer.isPluginDisabled(classLoader)) {
@@ -153,28 +180,11 @@ public class HotswapTransformer implements ClassFileTransformer {
                     }
                 }
             }
-            // 调用关注redefine类型的transformer
-            if (redefiningClass != null && className != null) {
-                for (RegisteredTransformersRecord transformerRecord : new ArrayList<RegisteredTransformersRecord>(redefinitionTransformers.values())) {
-                    if (transformerRecord.pattern.matcher(className).matches()) {
-                        for (ClassFileTransformer transformer : new ArrayList<ClassFileTransformer>(transformerRecord.transformerList)) {
-                            if (transformer instanceof PluginClassFileTransformer) {
-                                PluginClassFileTransformer pluginClassFileTransformer = (PluginClassFileTransformer) transformer;
-                                if (!pluginClassFileTransformer.isPluginDisabled(classLoader)) {
-                                    pluginTransformers.add(pluginClassFileTransformer);
-                                }
-                            } else {
-                                toApply.add(transformer);
-                            }
-                        }
-                    }
-                }
-            }
         } catch (Throwable t) {
             LOGGER.error("Error transforming class '" + className + "'.", t);
         }
 
-        if (!pluginTransformers.isEmpty()) {
+        if (pluginTransformers != null && !pluginTransformers.isEmpty()) {
             pluginTransformers = reduce(classLoader, pluginTransformers, className);
         }
 
@@ -184,17 +194,21 @@ public class HotswapTransformer implements ClassFileTransformer {
             return null;
         }
 
-        if (toApply.isEmpty() && pluginTransformers.isEmpty()) {
+        if (toApply == null || (toApply.isEmpty() && pluginTransformers.isEmpty())) {
             return null;
         }
 
         try {
             byte[] result = bytes;
 
-            // 调用插件的Transformer
-            for (ClassFileTransformer transformer : pluginTransformers) {
-                LOGGER.trace("Transforming class '" + className + "' with transformer '" + transformer + "' " + "@ClassLoader" + classLoader + ".");
-                result = transformer.transform(classLoader, className, redefiningClass, protectionDomain, result);
+            // 调用插件的Transformer，共享同一个转换会话，字节码只解析和生成一次
+            if (!pluginTransformers.isEmpty()) {
+                ClassTransformSession session = new ClassTransformSession(classLoader, result);
+                for (PluginClassFileTransformer transformer : pluginTransformers) {
+                    LOGGER.trace("Transforming class '" + className + "' with transformer '" + transformer + "' " + "@ClassLoader" + classLoader + ".");
+                    transformer.transform(session, classLoader, className, redefiningClass, protectionDomain);
+                }
+                result = session.finish();
             }
 
             // 调用非插件的Transformer
@@ -212,7 +226,7 @@ public class HotswapTransformer implements ClassFileTransformer {
     /**
      * 注册 transformer
      */
-    public void registerTransformer(ClassLoader classLoader, String classNameRegexp, HaClassFileTransformer transformer) {
+    public synchronized void registerTransformer(ClassLoader classLoader, String classNameRegexp, HaClassFileTransformer transformer) {
         LOGGER.debug("Registering transformer for class regexp '{}'.", classNameRegexp);
 
         String normalizeRegexp = normalizeTypeRegexp(classNameRegexp);
@@ -233,6 +247,7 @@ public class HotswapTransformer implements ClassFileTransformer {
         if (classLoader != null) {
             classLoaderTransformers.put(transformer, classLoader);
         }
+        rebuildIndex();
     }
 
     private Map<String, RegisteredTransformersRecord> getTransformerMap(HaClassFileTransformer transformer) {
@@ -248,19 +263,28 @@ public class HotswapTransformer implements ClassFileTransformer {
      * @param classNameRegexp regexp to match fully qualified class name.
      * @param transformer     currently registered transformer
      */
-    public void removeTransformer(String classNameRegexp, HaClassFileTransformer transformer) {
+    public synchronized void removeTransformer(String classNameRegexp, HaClassFileTransformer transformer) {
         String normalizeRegexp = normalizeTypeRegexp(classNameRegexp);
         Map<String, RegisteredTransformersRecord> transformersMap = getTransformerMap(transformer);
         RegisteredTransformersRecord transformerRecord = transformersMap.get(normalizeRegexp);
         if (transformerRecord != null) {
             transformerRecord.transformerList.remove(transformer);
         }
+        rebuildIndex();
+    }
+
+    /**
+     * 重新构建transformer索引快照
+     */
+    private void rebuildIndex() {
+        redefinitionIndex = new TransformerIndex(redefinitionTransformers.values());
+        otherIndex = new TransformerIndex(otherTransformers.values());
     }
 
     /**
      * 移除类加载器中所有的transformer
      */
-    public void closeClassLoader(ClassLoader classLoader) {
+    public synchronized void closeClassLoader(ClassLoader classLoader) {
         for (Iterator<Map.Entry<ClassFileTransformer, ClassLoader>> entryIterator = classLoaderTransformers.entrySet().iterator();
              entryIterator.hasNext(); ) {
             Map.Entry<ClassFileTransformer, ClassLoader> entry = entryIterator.next();
@@ -274,6 +298,7 @@ public class HotswapTransformer implements ClassFileTransformer {
                 }
             }
         }
+        rebuildIndex();
 
         LOGGER.debug("All transformers removed for classLoader {}", classLoader);
     }
@@ -317,21 +342,21 @@ public class HotswapTransformer implements ClassFileTransformer {
      * 每个类加载器都应该确定被初始化，热重载需要将插件加载到每一个类加载器中才能重载。
      */
     protected boolean ensureClassLoaderInitialized(final ClassLoader classLoader, final ProtectionDomain protectionDomain) {
-        if (!seenClassLoaders.containsKey(classLoader)) {
-
-            if (classLoader == null) {
-                PluginManager.getInstance().initClassLoader(null, protectionDomain);
-            } else {
-                if (shouldScheduleClassLoader(classLoader)) {
-                    PluginManager.getInstance().initClassLoader(classLoader, protectionDomain);
-                } else {
-                    seenClassLoaders.put(classLoader, false);
-                    return false;
-                }
+        boolean initialize;
+        // 检查和标记在同一个锁内完成，只有第一个线程会初始化
+        synchronized (seenClassLoaders) {
+            Boolean seen = seenClassLoaders.get(classLoader);
+            if (seen != null) {
+                return seen;
             }
-            seenClassLoaders.put(classLoader, true);
+            initialize = classLoader == null || shouldScheduleClassLoader(classLoader);
+            seenClassLoaders.put(classLoader, initialize);
         }
-        return seenClassLoaders.get(classLoader) != null && seenClassLoaders.get(classLoader);
+        // 初始化时不持有锁，初始化过程中会加载类并再次进入转换器，此时已被标记不会重复初始化
+        if (initialize) {
+            PluginManager.getInstance().initClassLoader(classLoader, protectionDomain);
+        }
+        return initialize;
     }
 
     /**
@@ -380,4 +405,147 @@ public class HotswapTransformer implements ClassFileTransformer {
         return regexp;
     }
 
+    /**
+     * 索引中的transformer记录
+     */
+    static class IndexedRecord {
+
+        /**
+         * 注册顺序，多个记录匹配时按注册顺序调用
+         */
+        final int order;
+
+        final Pattern pattern;
+
+        final ClassFileTransformer[] transformers;
+
+        IndexedRecord(int order, RegisteredTransformersRecord record) {
+            this.order = order;
+            this.pattern = record.pattern;
+            this.transformers = record.transformerList.toArray(new ClassFileTransformer[0]);
+        }
+    }
+
+    /**
+     * transformer索引，构建后不再修改
+     * <p>
+     * 完整类名直接按Map查找，{@code xxx.*}形式的包前缀放入前缀树，只有其他真正的正则表达式才逐个匹配。
+     * 类名中的{@code /}和{@code .}视为相同，没有匹配时不创建任何对象。
+     */
+    static class TransformerIndex {
+
+        static final TransformerIndex EMPTY = new TransformerIndex(Collections.emptyList());
+
+        /**
+         * 只包含类名字符的正则，{@code .}也视为类名分隔符
+         */
+        private static final Pattern LITERAL_PATTERN = Pattern.compile("[A-Za-z0-9_.]*");
+
+        /**
+         * 完整类名（以/分隔）对应的记录
+         */
+        private final Map<String, List<IndexedRecord>> exactMap = new HashMap<>();
+
+        /**
+         * 包前缀树
+         */
+        private final PrefixNode prefixRoot = new PrefixNode();
+
+        /**
+         * 需要正则匹配的记录
+         */
+        private final List<IndexedRecord> regexRecords = new ArrayList<>();
+
+        TransformerIndex(Collection<RegisteredTransformersRecord> records) {
+            int order = 0;
+            for (RegisteredTransformersRecord record : records) {
+                order++;
+                if (record.transformerList.isEmpty()) {
+                    continue;
+                }
+                IndexedRecord indexedRecord = new IndexedRecord(order, record);
+                String regexp = record.pattern.pattern();
+                String body = regexp.substring(regexp.startsWith("^") ? 1 : 0, regexp.endsWith("$") ? regexp.length() - 1 : regexp.length());
+                if (LITERAL_PATTERN.matcher(body).matches()) {
+                    exactMap.computeIfAbsent(body.replace('.', '/'), k -> new ArrayList<>()).add(indexedRecord);
+                } else if (body.endsWith(".*") && LITERAL_PATTERN.matcher(body.substring(0, body.length() - 2)).matches()) {
+                    prefixRoot.put(body.substring(0, body.length() - 2), indexedRecord);
+                } else {
+                    regexRecords.add(indexedRecord);
+                }
+            }
+        }
+
+        /**
+         * 查找匹配的记录
+         *
+         * @return 匹配的记录，没有时返回null
+         */
+        List<IndexedRecord> match(String className, Class<?> redefiningClass) {
+            String name = className != null ? className : (redefiningClass != null ? redefiningClass.getName() : null);
+            if (name == null) {
+                return null;
+            }
+            List<IndexedRecord> result = null;
+            List<IndexedRecord> exact = exactMap.isEmpty() ? null : exactMap.get(className != null ? className : name.replace('.', '/'));
+            if (exact != null) {
+                result = new ArrayList<>(exact);
+            }
+            result = prefixRoot.match(name, result);
+            for (IndexedRecord record : regexRecords) {
+                if ((className != null && record.pattern.matcher(className).matches())
+                        || (redefiningClass != null && record.pattern.matcher(redefiningClass.getName()).matches())) {
+                    if (result == null) {
+                        result = new ArrayList<>();
+                    }
+                    result.add(record);
+                }
+            }
+            if (result != null && result.size() > 1) {
+                result.sort(Comparator.comparingInt(record -> record.order));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 包前缀树节点，按字符逐级查找
+     */
+    static class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+
+        private final List<IndexedRecord> records = new ArrayList<>();
+
+        void put(String prefix, IndexedRecord record) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(normalize(prefix.charAt(i)), k -> new PrefixNode());
+            }
+            node.records.add(record);
+        }
+
+        List<IndexedRecord> match(String name, List<IndexedRecord> result) {
+            PrefixNode node = this;
+            for (int i = 0; ; i++) {
+                if (!node.records.isEmpty()) {
+                    if (result == null) {
+                        result = new ArrayList<>();
+                    }
+                    result.addAll(node.records);
+                }
+                if (i == name.length() || node.children.isEmpty()) {
+                    return result;
+                }
+                node = node.children.get(normalize(name.charAt(i)));
+                if (node == null) {
+                    return result;
+                }
+            }
+        }
+
+        private static char normalize(char c) {
+            return c == '/' ? '.' : c;
+        }
+    }
 }
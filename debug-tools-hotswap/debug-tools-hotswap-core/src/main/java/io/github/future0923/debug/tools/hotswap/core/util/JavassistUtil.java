@@ -24,15 +24,33 @@ import javassist.LoaderClassPath;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author future0923
  */
 public class JavassistUtil {
 
-    private static final Map<ClassLoader, ClassPool> CLASS_POOL_MAP = new ConcurrentHashMap<>();
+    /**
+     * 每个ClassPool最多缓存的CtClass数量
+     */
+    public static final int MAX_CACHED_CLASSES = 4096;
+
+    /**
+     * 类加载器 -> ClassPool，弱引用类加载器，类加载器被回收后ClassPool随之释放（{@link LoaderClassPath}也是弱引用类加载器）
+     */
+    private static final Map<ClassLoader, BoundedClassPool> CLASS_POOL_MAP = new WeakHashMap<>();
+
+    /**
+     * 被淘汰的CtClass数量
+     */
+    private static final AtomicLong EVICTION_COUNT = new AtomicLong();
 
     /**
      * 获取javassist ClassPool
@@ -41,12 +59,45 @@ public class JavassistUtil {
         if (classLoader == null) {
             return ClassPool.getDefault();
         }
-        return CLASS_POOL_MAP.computeIfAbsent(classLoader, cl -> {
-            ClassPool cp = new ClassPool();
-            cp.appendSystemPath();
-            cp.appendClassPath(new LoaderClassPath(cl));
-            return cp;
-        });
+        synchronized (CLASS_POOL_MAP) {
+            return CLASS_POOL_MAP.computeIfAbsent(classLoader, cl -> {
+                BoundedClassPool cp = new BoundedClassPool(MAX_CACHED_CLASSES);
+                cp.appendSystemPath();
+                cp.appendClassPath(new LoaderClassPath(cl));
+                return cp;
+            });
+        }
+    }
+
+    /**
+     * 当前ClassPool的数量
+     */
+    public static int getClassPoolCount() {
+        synchronized (CLASS_POOL_MAP) {
+            return CLASS_POOL_MAP.size();
+        }
+    }
+
+    /**
+     * 所有ClassPool缓存的CtClass数量
+     */
+    public static int getCachedClassCount() {
+        List<BoundedClassPool> pools;
+        synchronized (CLASS_POOL_MAP) {
+            pools = new ArrayList<>(CLASS_POOL_MAP.values());
+        }
+        int count = 0;
+        for (BoundedClassPool pool : pools) {
+            count += pool.getCachedCount();
+        }
+        return count;
+    }
+
+    /**
+     * 超出上限被淘汰的CtClass数量
+     */
+    public static long getEvictionCount() {
+        return EVICTION_COUNT.get();
     }
 
     /**
@@ -77,4 +128,63 @@ public class JavassistUtil {
         getClassPool(classLoader).insertClassPath(new ByteArrayClassPath(name, classFile));
     }
 
+    /**
+     * 按最近最少使用淘汰缓存CtClass的ClassPool
+     * <p>修改中（已修改且未冻结）的CtClass不会被淘汰，淘汰后再次获取时重新从类路径读取
+     */
+    private static class BoundedClassPool extends ClassPool {
+
+        private final int maxCachedClasses;
+
+        /**
+         * 缓存的类名，按访问顺序排列
+         */
+        private final LinkedHashMap<String, Boolean> accessOrder = new LinkedHashMap<>(64, 0.75f, true);
+
+        private BoundedClassPool(int maxCachedClasses) {
+            this.maxCachedClasses = maxCachedClasses;
+        }
+
+        @Override
+        protected synchronized CtClass getCached(String className) {
+            CtClass ctClass = super.getCached(className);
+            if (ctClass != null) {
+                accessOrder.get(className);
+            }
+            return ctClass;
+        }
+
+        @Override
+        protected synchronized void cacheCtClass(String className, CtClass ctClass, boolean dynamic) {
+            super.cacheCtClass(className, ctClass, dynamic);
+            accessOrder.put(className, Boolean.TRUE);
+            if (accessOrder.size() > maxCachedClasses) {
+                evict();
+            }
+        }
+
+        @Override
+        protected synchronized CtClass removeCached(String className) {
+            accessOrder.remove(className);
+            return super.removeCached(className);
+        }
+
+        private synchronized int getCachedCount() {
+            return accessOrder.size();
+        }
+
+        private void evict() {
+            Iterator<String> iterator = accessOrder.keySet().iterator();
+            while (accessOrder.size() > maxCachedClasses && iterator.hasNext()) {
+                String className = iterator.next();
+                CtClass ctClass = (CtClass) classes.get(className);
+                if (ctClass != null && ctClass.isModified() && !ctClass.isFrozen()) {
+                    continue;
+                }
+                iterator.remove();
+                classes.remove(className);
+                EVICTION_COUNT.incrementAndGet();
+            }
+        }
+    }
 }
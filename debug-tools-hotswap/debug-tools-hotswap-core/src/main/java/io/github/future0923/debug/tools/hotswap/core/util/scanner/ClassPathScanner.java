@@ -18,13 +18,35 @@ package io.github.future0923.debug.tools.hotswap.core.util.scanner;
 
 import io.github.future0923.debug.tools.base.logging.Logger;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -32,6 +54,9 @@ import java.util.jar.JarFile;
  * 扫描 classpath 目录，每个文件都会调用 ScannerVisitor。
  * <p/>
  * 使用线程上下文类加载器进行扫描。
+ * <p/>
+ * jar中的class文件通过{@link JarEntryIndex}查找，目录通过{@link Files#walkFileTree}遍历。文件较多时由线程池并行读取，
+ * ScannerVisitor仍然在调用线程中按顺序访问，不需要线程安全。
  */
 public class ClassPathScanner implements Scanner {
     private static final Logger LOGGER = Logger.getLogger(ClassPathScanner.class);
@@ -42,32 +67,60 @@ public class ClassPathScanner implements Scanner {
     public static final String ZIP_URL_PREFIX = "zip:";
     public static final String FILE_URL_PREFIX = "file:";
 
+    /**
+     * 文件数量达到该值时并行读取
+     */
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    /**
+     * 并行读取时最多提前读取的文件数量
+     */
+    private static final int READ_AHEAD = 64;
+
+    private static final int READ_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final AtomicLong SCAN_COUNT = new AtomicLong();
+
+    private static final AtomicLong SCANNED_FILE_COUNT = new AtomicLong();
+
+    private static final AtomicLong SCAN_TIME_NANOS = new AtomicLong();
+
+    private static final AtomicLong JAR_INDEX_COUNT = new AtomicLong();
 
     @Override
     public void scan(ClassLoader classLoader, String path, ScannerVisitor visitor) throws IOException {
         LOGGER.trace("Scanning path {}", path);
-        // 查找所有目录 - classpath 目录或 JAR
-        Enumeration<URL> en = classLoader == null ? ClassLoader.getSystemResources(path) : classLoader.getResources(path);
-        while (en.hasMoreElements()) {
-            URL pluginDirURL = en.nextElement();
-            File pluginDir = new File(pluginDirURL.getFile());
-            if (pluginDir.isDirectory()) {
-                scanDirectory(pluginDir, visitor);
-            } else {
-                // JAR file
-                String uri;
-                try {
-                    uri = pluginDirURL.toURI().toString();
-                } catch (URISyntaxException e) {
-                    throw new IOException("Illegal directory URI " + pluginDirURL, e);
-                }
-                if (uri.startsWith(JAR_URL_PREFIX) || uri.startsWith(ZIP_URL_PREFIX)) {
-                    String jarFile = uri.substring(uri.indexOf(':') + 1); // remove the prefix
-                    scanJar(jarFile, visitor);
+        long start = System.nanoTime();
+        long files = SCANNED_FILE_COUNT.get();
+        try {
+            // 查找所有目录 - classpath 目录或 JAR
+            Enumeration<URL> en = classLoader == null ? ClassLoader.getSystemResources(path) : classLoader.getResources(path);
+            while (en.hasMoreElements()) {
+                URL pluginDirURL = en.nextElement();
+                File pluginDir = new File(pluginDirURL.getFile());
+                if (pluginDir.isDirectory()) {
+                    scanDirectory(pluginDir, visitor);
                 } else {
-                    LOGGER.warning("Unknown resource type of file " + uri);
+                    // JAR file
+                    String uri;
+                    try {
+                        uri = pluginDirURL.toURI().toString();
+                    } catch (URISyntaxException e) {
+                        throw new IOException("Illegal directory URI " + pluginDirURL, e);
+                    }
+                    if (uri.startsWith(JAR_URL_PREFIX) || uri.startsWith(ZIP_URL_PREFIX)) {
+                        String jarFile = uri.substring(uri.indexOf(':') + 1); // remove the prefix
+                        scanJar(jarFile, visitor);
+                    } else {
+                        LOGGER.warning("Unknown resource type of file " + uri);
+                    }
                 }
             }
+        } finally {
+            long cost = System.nanoTime() - start;
+            SCAN_COUNT.incrementAndGet();
+            SCAN_TIME_NANOS.addAndGet(cost);
+            LOGGER.debug("Scanned path {}, {} files in {} ms", path, SCANNED_FILE_COUNT.get() - files, TimeUnit.NANOSECONDS.toMillis(cost));
         }
     }
 
@@ -76,17 +129,23 @@ public class ClassPathScanner implements Scanner {
      */
     protected void scanDirectory(File pluginDir, ScannerVisitor visitor) throws IOException {
         LOGGER.trace("Scanning directory " + pluginDir.getName());
-        File[] files = pluginDir.listFiles();
-        if (files == null) {
-            return;
-        }
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDirectory(file, visitor);
-            } else if (file.isFile() && file.getName().endsWith(".class")) {
-                visitor.visit(new FileInputStream(file));
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(pluginDir.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".class")) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
             }
-        }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                LOGGER.trace("Unable to visit file {}", exc, file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        visitAll(files, Files::readAllBytes, visitor);
     }
 
     /**
@@ -101,54 +160,111 @@ public class ClassPathScanner implements Scanner {
         LOGGER.trace("Scanning JAR file '{}'", urlFile);
 
         int separatorIndex = urlFile.indexOf(JAR_URL_SEPARATOR);
-        JarFile jarFile = null;
+        File file;
         String rootEntryPath;
+        if (separatorIndex != -1) {
+            file = toFile(urlFile.substring(0, separatorIndex));
+            rootEntryPath = urlFile.substring(separatorIndex + JAR_URL_SEPARATOR.length());
+        } else {
+            file = new File(urlFile);
+            rootEntryPath = "";
+        }
+        if (!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")) {
+            rootEntryPath = rootEntryPath + "/";
+        }
 
-        try {
-            if (separatorIndex != -1) {
-                String jarFileUrl = urlFile.substring(0, separatorIndex);
-                rootEntryPath = urlFile.substring(separatorIndex + JAR_URL_SEPARATOR.length());
-                jarFile = getJarFile(jarFileUrl);
-            } else {
-                rootEntryPath = "";
-                jarFile = new JarFile(urlFile);
-            }
+        JarEntryIndex index = JarEntryIndex.getIndex(file);
+        JAR_INDEX_COUNT.incrementAndGet();
+        List<String> entryPaths = index.getClassEntries(rootEntryPath);
+        if (entryPaths.isEmpty()) {
+            return;
+        }
+        try (JarFile jarFile = new JarFile(file)) {
+            visitAll(entryPaths, entryPath -> {
+                LOGGER.trace("Visiting JAR entry {}", entryPath);
+                JarEntry entry = jarFile.getJarEntry(entryPath);
+                if (entry == null) {
+                    throw new IOException("Entry " + entryPath + " not found in " + file);
+                }
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    return readAllBytes(inputStream);
+                }
+            }, visitor);
+        }
+    }
 
-            if (!rootEntryPath.isEmpty() && !rootEntryPath.endsWith("/")) {
-                rootEntryPath = rootEntryPath + "/";
+    /**
+     * 读取所有文件并按顺序访问，文件较多时并行读取
+     */
+    private <T> void visitAll(List<T> files, FileReader<T> reader, ScannerVisitor visitor) throws IOException {
+        SCANNED_FILE_COUNT.addAndGet(files.size());
+        if (files.size() < PARALLEL_THRESHOLD) {
+            for (T file : files) {
+                visitor.visit(new ByteArrayInputStream(reader.read(file)));
             }
-
-            for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
-                JarEntry entry = entries.nextElement();
-                String entryPath = entry.getName();
-
-                // class files inside entry
-                if (entryPath.startsWith(rootEntryPath) && entryPath.endsWith(".class")) {
-                    LOGGER.trace("Visiting JAR entry {}", entryPath);
-                    visitor.visit(jarFile.getInputStream(entry));
+            return;
+        }
+        ExecutorService executor = ReadExecutorHolder.EXECUTOR;
+        Deque<Future<byte[]>> window = new ArrayDeque<>(READ_AHEAD);
+        int next = 0;
+        try {
+            while (next < files.size() && window.size() < READ_AHEAD) {
+                T file = files.get(next++);
+                window.add(executor.submit(() -> reader.read(file)));
+            }
+            while (!window.isEmpty()) {
+                byte[] bytes = await(window.poll());
+                if (next < files.size()) {
+                    T file = files.get(next++);
+                    window.add(executor.submit(() -> reader.read(file)));
                 }
+                visitor.visit(new ByteArrayInputStream(bytes));
             }
         } finally {
-            if (jarFile != null) {
-                jarFile.close();
+            for (Future<byte[]> future : window) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning class path");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
+            throw new IOException(cause);
         }
     }
 
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] data = new byte[8192];
+        int readBytes;
+        while ((readBytes = inputStream.read(data, 0, data.length)) != -1) {
+            buffer.write(data, 0, readBytes);
+        }
+        return buffer.toByteArray();
+    }
+
     /**
-     * 将给定的 jar 文件 URL 解析为 JarFile 对象。
+     * 将给定的 jar 文件 URL 解析为 File 对象。
      */
-    protected JarFile getJarFile(String jarFileUrl) throws IOException {
-        LOGGER.trace("Opening JAR file " + jarFileUrl);
+    protected File toFile(String jarFileUrl) {
         if (jarFileUrl.startsWith(FILE_URL_PREFIX)) {
             try {
-                return new JarFile(toURI(jarFileUrl).getSchemeSpecificPart());
+                return new File(toURI(jarFileUrl).getSchemeSpecificPart());
             } catch (URISyntaxException ex) {
                 // Fallback for URLs that are not valid URIs (should hardly ever happen).
-                return new JarFile(jarFileUrl.substring(FILE_URL_PREFIX.length()));
+                return new File(jarFileUrl.substring(FILE_URL_PREFIX.length()));
             }
         } else {
-            return new JarFile(jarFileUrl);
+            return new File(jarFileUrl);
         }
     }
 
@@ -158,4 +274,60 @@ public class ClassPathScanner implements Scanner {
     public static URI toURI(String location) throws URISyntaxException {
         return new URI(location.replace(" ", "%20"));
     }
+
+    /**
+     * 扫描次数
+     */
+    public static long getScanCount() {
+        return SCAN_COUNT.get();
+    }
+
+    /**
+     * 扫描的class文件总数
+     */
+    public static long getScannedFileCount() {
+        return SCANNED_FILE_COUNT.get();
+    }
+
+    /**
+     * 扫描总耗时(ms)
+     */
+    public static long getScanTime() {
+        return TimeUnit.NANOSECONDS.toMillis(SCAN_TIME_NANOS.get());
+    }
+
+    /**
+     * 通过索引扫描jar的次数
+     */
+    public static long getJarIndexCount() {
+        return JAR_INDEX_COUNT.get();
+    }
+
+    /**
+     * 读取文件内容
+     */
+    private interface FileReader<T> {
+
+        byte[] read(T file) throws IOException;
+    }
+
+    /**
+     * 并行读取文件的线程池，第一次并行读取时创建，空闲时线程退出
+     */
+    private static class ReadExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            AtomicInteger threadIndex = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(READ_THREADS, READ_THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r);
+                t.setName("DebugTools-ClassPathScanner-" + threadIndex.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
 }
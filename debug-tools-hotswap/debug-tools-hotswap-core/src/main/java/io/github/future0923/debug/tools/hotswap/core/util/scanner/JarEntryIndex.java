@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.util.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * jar中class文件的索引
+ * <p>
+ * 按jar文件路径缓存最近使用的{@link #MAX_CACHED_INDEXES}个，jar的修改时间或大小变化时重新构建。索引中的entry名称有序，可以按路径前缀二分查找，
+ * 重复扫描同一个jar时不需要再遍历所有entry。
+ */
+public class JarEntryIndex {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * 最多缓存的jar索引数量
+     */
+    public static final int MAX_CACHED_INDEXES = 512;
+
+    /**
+     * 淘汰的索引数量
+     */
+    private static final AtomicLong EVICTION_COUNT = new AtomicLong();
+
+    /**
+     * jar绝对路径 -> 索引，按访问顺序淘汰最久未使用的
+     */
+    private static final Map<String, JarEntryIndex> INDEXES = new LinkedHashMap<String, JarEntryIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JarEntryIndex> eldest) {
+            if (size() > MAX_CACHED_INDEXES) {
+                EVICTION_COUNT.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final File file;
+
+    private final long lastModified;
+
+    private final long length;
+
+    /**
+     * 有序的class文件entry名称
+     */
+    private final String[] classEntries;
+
+    private JarEntryIndex(File file, long lastModified, long length, String[] classEntries) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.classEntries = classEntries;
+    }
+
+    /**
+     * 获取jar的索引，没有或者jar已经变化时重新构建
+     */
+    public static JarEntryIndex getIndex(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        JarEntryIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES.get(key);
+        }
+        if (index != null && index.isValid()) {
+            return index;
+        }
+        // 构建时不持有锁，并发构建同一个jar时后放入的覆盖先放入的
+        index = build(file);
+        synchronized (INDEXES) {
+            INDEXES.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * 缓存的索引数量
+     */
+    public static int getCachedIndexCount() {
+        synchronized (INDEXES) {
+            return INDEXES.size();
+        }
+    }
+
+    /**
+     * 淘汰的索引数量
+     */
+    public static long getEvictionCount() {
+        return EVICTION_COUNT.get();
+    }
+
+    private static JarEntryIndex build(File file) throws IOException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        List<String> names = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(file)) {
+            for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(CLASS_FILE_EXTENSION)) {
+                    names.add(name);
+                }
+            }
+        }
+        String[] classEntries = names.toArray(new String[0]);
+        Arrays.sort(classEntries);
+        return new JarEntryIndex(file, lastModified, length, classEntries);
+    }
+
+    /**
+     * jar文件没有变化
+     */
+    public boolean isValid() {
+        return file.lastModified() == lastModified && file.length() == length;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 获取路径前缀下所有的class文件entry名称
+     *
+     * @param rootEntryPath 路径前缀，空字符串表示全部
+     */
+    public List<String> getClassEntries(String rootEntryPath) {
+        if (rootEntryPath == null || rootEntryPath.isEmpty()) {
+            return Collections.unmodifiableList(Arrays.asList(classEntries));
+        }
+        int from = Arrays.binarySearch(classEntries, rootEntryPath);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < classEntries.length && classEntries[to].startsWith(rootEntryPath)) {
+            to++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(classEntries).subList(from, to));
+    }
+}
@@ -21,6 +21,11 @@ import io.github.future0923.debug.tools.hotswap.core.util.JavassistUtil;
 import javassist.ClassPool;
 import javassist.CtClass;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
 /**
  * 解析Class是否需要进行Bean重新加载{@link #isReloadNeeded}
  * <p>
@@ -32,6 +37,11 @@ public class ClassChangesAnalyzer {
 
     private static final Logger LOGGER = Logger.getLogger(ClassChangesAnalyzer.class);
 
+    /**
+     * 已加载类最近一次redefine的签名指纹，Class对象已经区分了类加载器，弱引用不阻止类卸载
+     */
+    private static final Map<Class<?>, Fingerprint> FINGERPRINTS = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static boolean isReloadNeeded(Class<?> classBeingRedefined, byte[] classfileBuffer, ClassLoader classLoader) {
         // jvm合成的类不需要
         if (classBeingRedefined.isSynthetic() || isSyntheticClass(classBeingRedefined)) {
@@ -40,14 +50,32 @@ public class ClassChangesAnalyzer {
         return classChangeNeedsReload(classBeingRedefined, classfileBuffer, classLoader);
     }
 
+    /**
+     * 先比较缓存的签名指纹，相同时不需要重新加载；不同或者没有缓存时再用{@link ClassSignatureComparer}完整比较
+     */
     private static boolean classChangeNeedsReload(Class<?> classBeingRedefined, byte[] classfileBuffer, ClassLoader classLoader) {
+        Fingerprint fingerprint = null;
+        try {
+            fingerprint = new Fingerprint(ClassSignatureComparer.getFingerprint(classfileBuffer), classfileBuffer);
+            Fingerprint cached = FINGERPRINTS.get(classBeingRedefined);
+            if (cached != null && cached.signature == fingerprint.signature) {
+                // 同一次redefine中多个插件用相同的字节码调用时返回相同的结果，其它情况签名没有变化
+                boolean reloadNeeded = cached.bytes == fingerprint.bytes && cached.reloadNeeded;
+                fingerprint.reloadNeeded = reloadNeeded;
+                FINGERPRINTS.put(classBeingRedefined, fingerprint);
+                return reloadNeeded;
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Error computing fingerprint of class {}, fallback to full comparison.", e, classBeingRedefined.getName());
+        }
+        boolean reloadNeeded = true;
         ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
         Thread.currentThread().setContextClassLoader(classLoader);
         CtClass makeClass = null;
         try {
             ClassPool classPool = JavassistUtil.getClassPool(classLoader);
             makeClass = JavassistUtil.createCtClass(classPool, classfileBuffer);
-            return ClassSignatureComparer.isPoolClassDifferent(classBeingRedefined, classPool);
+            reloadNeeded = ClassSignatureComparer.isPoolClassDifferent(classBeingRedefined, classPool);
         } catch (Exception e) {
             LOGGER.error("Error analyzing class {} for reload necessity. Defaulting to yes.", e, classBeingRedefined.getName());
         } finally {
@@ -56,7 +84,11 @@ public class ClassChangesAnalyzer {
                 makeClass.detach();
             }
         }
-        return true;
+        if (fingerprint != null) {
+            fingerprint.reloadNeeded = reloadNeeded;
+            FINGERPRINTS.put(classBeingRedefined, fingerprint);
+        }
+        return reloadNeeded;
     }
 
     protected static boolean isSyntheticClass(Class<?> classBeingRedefined) {
@@ -68,4 +100,31 @@ public class ClassChangesAnalyzer {
                 ;
     }
 
-}
\ No newline at end of file
+    /**
+     * 类签名指纹
+     */
+    private static class Fingerprint {
+
+        /**
+         * 签名的指纹
+         */
+        private final long signature;
+
+        /**
+         * 整个字节码的校验值，用于识别同一次redefine
+         */
+        private final long bytes;
+
+        /**
+         * 对应的比较结果
+         */
+        private boolean reloadNeeded;
+
+        private Fingerprint(long signature, byte[] classfileBuffer) {
+            this.signature = signature;
+            CRC32 crc32 = new CRC32();
+            crc32.update(classfileBuffer, 0, classfileBuffer.length);
+            this.bytes = ((long) classfileBuffer.length << 32) ^ crc32.getValue();
+        }
+    }
+}
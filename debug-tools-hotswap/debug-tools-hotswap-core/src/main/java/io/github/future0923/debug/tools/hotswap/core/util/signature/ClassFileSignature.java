@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.util.signature;
+
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ExceptionsAttribute;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.ParameterAnnotationsAttribute;
+import javassist.bytecode.annotation.Annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 字节码类签名
+ * <p>
+ * 直接从字节码中读取，不需要ClassPool和类加载器，也不解析方法体。只用于同一种签名之间比较，结果与{@link CtClassSignature}、{@link JavaClassSignature}的格式不同。
+ */
+public class ClassFileSignature extends ClassSignatureBase {
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    private static final String STATIC_INITIALIZER_NAME = "<clinit>";
+
+    private final ClassFile classFile;
+
+    public ClassFileSignature(byte[] classfileBuffer) throws IOException {
+        this.classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(classfileBuffer)));
+    }
+
+    @Override
+    public String getValue() throws Exception {
+        List<String> strings = new ArrayList<>();
+
+        boolean useMethod = hasElement(ClassSignatureElement.METHOD);
+        boolean useConstructor = hasElement(ClassSignatureElement.CONSTRUCTOR);
+        if (useMethod || useConstructor) {
+            boolean usePrivateMethod = hasElement(ClassSignatureElement.METHOD_PRIVATE);
+            boolean useStaticMethod = hasElement(ClassSignatureElement.METHOD_STATIC);
+            boolean usePrivateConstructor = hasElement(ClassSignatureElement.CONSTRUCTOR_PRIVATE);
+            for (MethodInfo method : classFile.getMethods()) {
+                String name = method.getName();
+                int modifiers = AccessFlag.toModifier(method.getAccessFlags());
+                if (CONSTRUCTOR_NAME.equals(name)) {
+                    if (!useConstructor || (!usePrivateConstructor && Modifier.isPrivate(modifiers))) {
+                        continue;
+                    }
+                } else {
+                    if (!useMethod || STATIC_INITIALIZER_NAME.equals(name)) {
+                        continue;
+                    }
+                    if (!usePrivateMethod && Modifier.isPrivate(modifiers)) {
+                        continue;
+                    }
+                    if (!useStaticMethod && Modifier.isStatic(modifiers)) {
+                        continue;
+                    }
+                    if (name.startsWith(SWITCH_TABLE_METHOD_PREFIX) || name.startsWith(CLASS_CLINIT_METHOD_NAME)) {
+                        continue;
+                    }
+                }
+                strings.add(getMethodString(method, modifiers));
+            }
+        }
+
+        if (hasElement(ClassSignatureElement.CLASS_ANNOTATION)) {
+            strings.add(annotationsToString((AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.visibleTag)));
+        }
+
+        if (hasElement(ClassSignatureElement.INTERFACES)) {
+            Collections.addAll(strings, classFile.getInterfaces());
+        }
+
+        if (hasElement(ClassSignatureElement.SUPER_CLASS)) {
+            String superclassName = classFile.getSuperclass();
+            if (superclassName != null && !superclassName.equals(Object.class.getName()))
+                strings.add(superclassName);
+        }
+
+        if (hasElement(ClassSignatureElement.FIELD)) {
+            boolean useStaticField = hasElement(ClassSignatureElement.FIELD_STATIC);
+            boolean useFieldAnnotation = hasElement(ClassSignatureElement.FIELD_ANNOTATION);
+            for (FieldInfo field : classFile.getFields()) {
+                if (!useStaticField && Modifier.isStatic(AccessFlag.toModifier(field.getAccessFlags()))) {
+                    continue;
+                }
+                if (field.getName().startsWith(SWITCH_TABLE_METHOD_PREFIX)) {
+                    continue;
+                }
+                String fieldSignature = field.getDescriptor() + " " + field.getName();
+                if (useFieldAnnotation) {
+                    fieldSignature += annotationsToString((AnnotationsAttribute) field.getAttribute(AnnotationsAttribute.visibleTag));
+                }
+                strings.add(fieldSignature + ";");
+            }
+        }
+        Collections.sort(strings);
+        StringBuilder strBuilder = new StringBuilder();
+        for (String string : strings) {
+            strBuilder.append(string);
+        }
+        return strBuilder.toString();
+    }
+
+    /**
+     * 签名的64位指纹，用于缓存比较
+     */
+    public long getFingerprint() throws Exception {
+        String value = getValue();
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private String getMethodString(MethodInfo method, int modifiers) {
+        StringBuilder strBuilder = new StringBuilder();
+        strBuilder.append(Modifier.toString(modifiers)).append(" ");
+        strBuilder.append(method.getName()).append(method.getDescriptor());
+        if (hasElement(ClassSignatureElement.METHOD_ANNOTATION)) {
+            strBuilder.append(annotationsToString((AnnotationsAttribute) method.getAttribute(AnnotationsAttribute.visibleTag)));
+        }
+        if (hasElement(ClassSignatureElement.METHOD_PARAM_ANNOTATION)) {
+            ParameterAnnotationsAttribute attribute = (ParameterAnnotationsAttribute) method.getAttribute(ParameterAnnotationsAttribute.visibleTag);
+            if (attribute != null) {
+                for (Annotation[] annotations : attribute.getAnnotations()) {
+                    strBuilder.append(annotationsToString(annotations));
+                }
+            }
+        }
+        if (hasElement(ClassSignatureElement.METHOD_EXCEPTION)) {
+            ExceptionsAttribute attribute = method.getExceptionsAttribute();
+            if (attribute != null) {
+                String[] exceptions = attribute.getExceptions();
+                if (exceptions != null) {
+                    exceptions = exceptions.clone();
+                    Arrays.sort(exceptions);
+                    strBuilder.append(Arrays.toString(exceptions));
+                }
+            }
+        }
+        strBuilder.append(";");
+        return strBuilder.toString();
+    }
+
+    private String annotationsToString(AnnotationsAttribute attribute) {
+        return attribute == null ? "[]" : annotationsToString(attribute.getAnnotations());
+    }
+
+    private String annotationsToString(Annotation[] annotations) {
+        String[] strings = new String[annotations.length];
+        for (int i = 0; i < annotations.length; i++) {
+            strings[i] = annotations[i].toString();
+        }
+        Arrays.sort(strings);
+        return Arrays.toString(strings);
+    }
+}
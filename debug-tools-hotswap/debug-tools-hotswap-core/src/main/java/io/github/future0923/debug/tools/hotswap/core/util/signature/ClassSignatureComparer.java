@@ -39,6 +39,15 @@ public class ClassSignatureComparer {
             ClassSignatureElement.FIELD_ANNOTATION
     };
 
+    /**
+     * 计算字节码的签名指纹，与{@link #isPoolClassDifferent}比较相同的签名元素
+     */
+    public static long getFingerprint(byte[] classfileBuffer) throws Exception {
+        ClassFileSignature signature = new ClassFileSignature(classfileBuffer);
+        signature.addSignatureElements(SIGNATURE_ELEMENTS);
+        return signature.getFingerprint();
+    }
+
     /**
      * 在ClassPool中是否变化
      *
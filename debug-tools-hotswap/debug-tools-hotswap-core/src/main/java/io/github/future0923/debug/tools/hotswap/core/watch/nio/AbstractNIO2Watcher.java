@@ -23,6 +23,7 @@ import io.github.future0923.debug.tools.base.utils.DebugToolsStringUtils;
 import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
 import io.github.future0923.debug.tools.hotswap.core.config.PluginConfiguration;
 import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
+import io.github.future0923.debug.tools.hotswap.core.watch.HotswapAgentWatchEvent;
 import io.github.future0923.debug.tools.hotswap.core.watch.WatchEventListener;
 import io.github.future0923.debug.tools.hotswap.core.watch.Watcher;
 
@@ -46,6 +47,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
@@ -63,6 +65,11 @@ public abstract class AbstractNIO2Watcher implements Watcher {
 
     protected final static WatchEvent.Kind<?>[] KINDS = new WatchEvent.Kind<?>[] { ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY };
 
+    /**
+     * 事件溢出后重新扫描时，文件修改时间向前多比较的时间(ms)，兼容文件系统修改时间的精度
+     */
+    private static final long RESCAN_MARGIN = 2000;
+
     /**
      * 文件观察服务
      */
@@ -73,6 +80,11 @@ public abstract class AbstractNIO2Watcher implements Watcher {
      */
     protected final Map<WatchKey, Path> keys;
 
+    /**
+     * WatchKey上次处理事件的时间，事件溢出时重新扫描这之后修改的文件
+     */
+    private final Map<WatchKey, Long> processTimes = new ConcurrentHashMap<>();
+
     /**
      * PATH变动的监听者
      */
@@ -137,9 +149,12 @@ public abstract class AbstractNIO2Watcher implements Watcher {
         Path key = Paths.get(pathPrefix);
         List<WatchEventListener> list = listeners.computeIfAbsent(key, k -> new ArrayList<>());
 
-        if (!list.contains(listener)) {
-            list.add(listener);
+        synchronized (list) {
+            if (!list.contains(listener)) {
+                list.add(listener);
+            }
         }
+        dispatcher.listenersChanged();
 
         if (classLoader != null) {
             classLoaderListeners.put(listener, classLoader);
@@ -183,7 +198,9 @@ public abstract class AbstractNIO2Watcher implements Watcher {
                         List<WatchEventListener> l = pathListenerEntry.getValue();
 
                         if (l != null) {
-                            l.remove(entry.getKey());
+                            synchronized (l) {
+                                l.remove(entry.getKey());
+                            }
                         }
 
                         if (l == null || l.isEmpty()) {
@@ -219,6 +236,7 @@ public abstract class AbstractNIO2Watcher implements Watcher {
                 LOGGER.error("Ooops", e);
             }
         }
+        dispatcher.listenersChanged();
         LOGGER.debug("All watch listeners removed for classLoader {}", classLoader);
     }
 
@@ -252,10 +270,15 @@ public abstract class AbstractNIO2Watcher implements Watcher {
             LOGGER.warning("WatchKey '{}' not recognized", key);
             return true;
         }
+        long processTime = System.currentTimeMillis();
+        Long lastProcessTime = processTimes.put(key, processTime);
         for (WatchEvent<?> event : key.pollEvents()) {
             WatchEvent.Kind<?> kind = event.kind();
             if (kind == OVERFLOW) {
-                LOGGER.warning("WatchKey '{}' overflowed", key);
+                dispatcher.overflow();
+                LOGGER.warning("WatchKey '{}' overflowed, rescanning {}", key, dir);
+                long since = lastProcessTime == null ? 0 : lastProcessTime - RESCAN_MARGIN;
+                PluginManager.getInstance().getScheduler().scheduleCommand(() -> rescan(dir, since));
                 continue;
             }
             WatchEvent<Path> ev = cast(event);
@@ -277,6 +300,7 @@ public abstract class AbstractNIO2Watcher implements Watcher {
         if (!valid) {
             LOGGER.debug("Watcher on {} not valid, removing path=", keys.get(key));
             keys.remove(key);
+            processTimes.remove(key);
             // 所有目录都无法访问
             if (keys.isEmpty()) {
                 return false;
@@ -294,6 +318,33 @@ public abstract class AbstractNIO2Watcher implements Watcher {
         return true;
     }
 
+    /**
+     * 事件溢出后重新扫描目录，注册新建的子目录，{@code since}之后修改的文件按修改事件分发
+     */
+    private void rescan(Path dir, long since) {
+        registerAll(dir);
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() >= since) {
+                        dispatcher.add(new HotswapAgentWatchEvent<>(ENTRY_MODIFY, file.getFileName()), file);
+                    }
+                } catch (IOException e) {
+                    LOGGER.debug("Unable to read last modified time of {}", e, file);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("Unable to rescan directory {}", e, dir);
+        }
+    }
+
+    /**
+     * 事件分发器
+     */
+    public EventDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     private void registerAll(Path child) {
         try {
             if (Files.isDirectory(child, NOFOLLOW_LINKS) && Files.exists(child, NOFOLLOW_LINKS)) {
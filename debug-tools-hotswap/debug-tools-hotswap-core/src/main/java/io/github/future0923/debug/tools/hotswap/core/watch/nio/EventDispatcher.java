@@ -22,32 +22,84 @@ import io.github.future0923.debug.tools.hotswap.core.watch.WatchFileEvent;
 
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Event分发器
+ * <p>
+ * 分发线程阻塞等待事件，同一路径连续相同类型的事件在防抖时间内合并为一个，
+ * 监听者通过以监听路径构建的前缀树查找。
  */
 public class EventDispatcher implements Runnable {
 
     private static final Logger LOGGER = Logger.getLogger(EventDispatcher.class);
 
+    /**
+     * 事件队列容量
+     */
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    /**
+     * 防抖时间(ns)，事件入队后至少等待该时间再分发
+     */
+    private static final long DEBOUNCE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
     /**
      * PATH变动的监听者
      */
     private final Map<Path, List<WatchEventListener>> listeners;
 
     /**
-     * 工作队列。事件队列{@link #eventQueue}调用drainTo后，所有待处理的事件都添加到此列表中
+     * 待分发的事件
      */
-    private final ArrayList<Event> working = new ArrayList<>();
+    private final LinkedBlockingQueue<Event> eventQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
 
     /**
-     * 待分发的事件
+     * 等待防抖时间结束的事件，按入队顺序
+     */
+    private final ArrayDeque<Event> pending = new ArrayDeque<>();
+
+    /**
+     * 每个路径最后一个等待分发的事件
+     */
+    private final Map<Path, Event> lastPendingByPath = new HashMap<>();
+
+    /**
+     * 监听者前缀树，监听者变化后重新构建
+     */
+    private volatile ListenerTrie listenerTrie;
+
+    /**
+     * 监听者是否有变化
+     */
+    private volatile boolean listenersChanged = true;
+
+    /**
+     * 队列已满丢弃的事件数量
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * WatchService 溢出的次数
+     */
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    /**
+     * 合并掉的重复事件数量
      */
-    private final ArrayBlockingQueue<Event> eventQueue = new ArrayBlockingQueue<>(500);
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * 已分发的事件数量
+     */
+    private final AtomicLong dispatchedCount = new AtomicLong();
 
     /**
      * 分发线程
@@ -61,33 +113,53 @@ public class EventDispatcher implements Runnable {
 
     @Override
     public void run() {
-        while (true) {
-            // 如果工作队列中有未处理的先处理
-            for (Event e : working) {
-                callListeners(e.event, e.path);
-                if (Thread.interrupted()) {
-                    return;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Event event;
+                if (pending.isEmpty()) {
+                    event = eventQueue.take();
+                } else {
+                    long waitNanos = pending.peekFirst().due - System.nanoTime();
+                    event = waitNanos > 0 ? eventQueue.poll(waitNanos, TimeUnit.NANOSECONDS) : eventQueue.poll();
                 }
-                Thread.yield();
-            }
-            // 取出事件方法working
-            eventQueue.drainTo(working);
-
-            // 处理新drainTo到工作队列中的事件
-            for (Event e : working) {
-                callListeners(e.event, e.path);
-                if (Thread.interrupted()) {
-                    return;
+                while (event != null) {
+                    addPending(event);
+                    event = eventQueue.poll();
                 }
-                Thread.yield();
+                dispatchDueEvents();
             }
+        } catch (InterruptedException ignored) {
+        }
+    }
 
-            // 处理完清空工作队列
-            working.clear();
+    /**
+     * 加入等待分发的事件，同一路径上一个事件类型相同时合并
+     */
+    private void addPending(Event event) {
+        Event last = lastPendingByPath.get(event.path);
+        if (last != null && last.event.kind() == event.event.kind()) {
+            coalescedCount.incrementAndGet();
+            return;
+        }
+        event.due = System.nanoTime() + DEBOUNCE_NANOS;
+        pending.addLast(event);
+        lastPendingByPath.put(event.path, event);
+    }
 
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e1) {
+    /**
+     * 分发防抖时间已结束的事件
+     */
+    private void dispatchDueEvents() {
+        long now = System.nanoTime();
+        Event event;
+        while ((event = pending.peekFirst()) != null && event.due - now <= 0) {
+            pending.pollFirst();
+            if (lastPendingByPath.get(event.path) == event) {
+                lastPendingByPath.remove(event.path);
+            }
+            callListeners(event.event, event.path);
+            dispatchedCount.incrementAndGet();
+            if (Thread.currentThread().isInterrupted()) {
                 return;
             }
         }
@@ -97,30 +169,97 @@ public class EventDispatcher implements Runnable {
      * 添加待分发的事件到事件队列
      */
     public void add(WatchEvent<Path> event, Path path) {
-        eventQueue.offer(new Event(event, path));
+        if (!eventQueue.offer(new Event(event, path))) {
+            if (droppedCount.getAndIncrement() == 0) {
+                LOGGER.warning("Watch event queue is full, events are dropped. path '{}'", path);
+            }
+        }
+    }
+
+    /**
+     * WatchService 事件溢出，部分文件变化已丢失
+     */
+    public void overflow() {
+        overflowCount.incrementAndGet();
+    }
+
+    /**
+     * 监听者发生变化，下次分发时重新构建前缀树
+     */
+    public void listenersChanged() {
+        listenersChanged = true;
     }
 
     /**
      * 调用监听者
      */
     private void callListeners(final WatchEvent<?> event, final Path path) {
-        boolean matchedOne = false;
-        for (Map.Entry<Path, List<WatchEventListener>> list : listeners.entrySet()) {
-            if (path.startsWith(list.getKey())) {
-                matchedOne = true;
-                for (WatchEventListener listener : new ArrayList<>(list.getValue())) {
-                    WatchFileEvent agentEvent = new HotswapWatchFileEvent(event, path);
-                    try {
-                        listener.onEvent(agentEvent);
-                    } catch (Throwable e) {
-                         LOGGER.error("Error in watch event '{}' listener'{}'", e, agentEvent, listener);
-                    }
-                }
+        List<WatchEventListener> matched = getListenerTrie().match(path);
+        if (matched.isEmpty()) {
+            LOGGER.error("No match for  watch event '{}',  path '{}'", event, path);
+            return;
+        }
+        WatchFileEvent agentEvent = new HotswapWatchFileEvent(event, path);
+        for (WatchEventListener listener : matched) {
+            try {
+                listener.onEvent(agentEvent);
+            } catch (Throwable e) {
+                LOGGER.error("Error in watch event '{}' listener'{}'", e, agentEvent, listener);
             }
         }
-        if (!matchedOne) {
-            LOGGER.error("No match for  watch event '{}',  path '{}'", event, path);
+    }
+
+    /**
+     * 获取监听者前缀树，监听者变化时重新构建
+     */
+    private ListenerTrie getListenerTrie() {
+        if (listenersChanged || listenerTrie == null) {
+            listenersChanged = false;
+            ListenerTrie trie = new ListenerTrie();
+            for (Map.Entry<Path, List<WatchEventListener>> entry : listeners.entrySet()) {
+                List<WatchEventListener> list = entry.getValue();
+                synchronized (list) {
+                    trie.put(entry.getKey(), new ArrayList<>(list));
+                }
+            }
+            listenerTrie = trie;
         }
+        return listenerTrie;
+    }
+
+    /**
+     * 队列已满丢弃的事件数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * WatchService 溢出的次数
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * 合并掉的重复事件数量
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * 已分发的事件数量
+     */
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    /**
+     * 等待分发的事件数量
+     */
+    public int getQueueSize() {
+        return eventQueue.size();
     }
 
     /**
@@ -159,10 +298,64 @@ public class EventDispatcher implements Runnable {
          */
         final Path path;
 
+        /**
+         * 分发时间(ns)
+         */
+        long due;
+
         public Event(WatchEvent<Path> event, Path path) {
             super();
             this.event = event;
             this.path = path;
         }
     }
+
+    /**
+     * 按路径元素构建的监听者前缀树，查找时返回所有前缀路径上的监听者
+     */
+    static class ListenerTrie {
+
+        private final Node root = new Node();
+
+        void put(Path path, List<WatchEventListener> listenerList) {
+            Node node = root.child(String.valueOf(path.getRoot()), true);
+            for (Path name : path) {
+                node = node.child(name.toString(), true);
+            }
+            node.listeners.addAll(listenerList);
+        }
+
+        List<WatchEventListener> match(Path path) {
+            List<WatchEventListener> result = new ArrayList<>();
+            Node node = root.child(String.valueOf(path.getRoot()), false);
+            if (node == null) {
+                return result;
+            }
+            result.addAll(node.listeners);
+            for (Path name : path) {
+                node = node.child(name.toString(), false);
+                if (node == null) {
+                    break;
+                }
+                result.addAll(node.listeners);
+            }
+            return result;
+        }
+
+        private static class Node {
+
+            private final Map<String, Node> children = new HashMap<>();
+
+            private final List<WatchEventListener> listeners = new ArrayList<>();
+
+            private Node child(String name, boolean create) {
+                Node node = children.get(name);
+                if (node == null && create) {
+                    node = new Node();
+                    children.put(name, node);
+                }
+                return node;
+            }
+        }
+    }
 }
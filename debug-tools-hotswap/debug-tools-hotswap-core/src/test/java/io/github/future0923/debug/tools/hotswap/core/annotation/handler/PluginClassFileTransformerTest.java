@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.annotation.handler;
+
+import io.github.future0923.debug.tools.hotswap.core.annotation.OnClassLoadEvent;
+import io.github.future0923.debug.tools.hotswap.core.annotation.Plugin;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.FieldInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author future0923
+ */
+class PluginClassFileTransformerTest {
+
+    private static final String CLASS_NAME = "test/rollback/Foo";
+
+    @Test
+    void pluginsShareOneParseAndSerialize() throws Exception {
+        ClassTransformSession session = new ClassTransformSession(null, newClass());
+        transform(session, "addFirst");
+        transform(session, "readName");
+        transform(session, "addThird");
+        assertEquals(Arrays.asList("first", "third"), fieldNames(session.finish()));
+        assertEquals(1, session.getParseCount());
+        assertEquals(1, session.getSerializeCount());
+    }
+
+    @Test
+    void readOnlyPluginsDoNotSerialize() throws Exception {
+        byte[] original = newClass();
+        ClassTransformSession session = new ClassTransformSession(null, original);
+        transform(session, "readName");
+        transform(session, "readName");
+        assertSame(original, session.finish());
+        assertEquals(1, session.getParseCount());
+        assertEquals(0, session.getSerializeCount());
+    }
+
+    @Test
+    void failedPluginIsRolledBack() throws Exception {
+        ClassTransformSession session = new ClassTransformSession(null, newClass());
+        transform(session, "addFirstToBytes");
+        transform(session, "addSecondAndFail");
+        transform(session, "addThird");
+        assertEquals(Arrays.asList("first", "third"), fieldNames(session.finish()));
+        assertEquals(2, session.getParseCount());
+        assertEquals(1, session.getSerializeCount());
+    }
+
+    @Test
+    void failedPluginDropsUnserializedEdits() throws Exception {
+        ClassTransformSession session = new ClassTransformSession(null, newClass());
+        transform(session, "addFirst");
+        transform(session, "addSecondAndFail");
+        transform(session, "addThird");
+        assertEquals(Arrays.asList("third"), fieldNames(session.finish()));
+        assertEquals(2, session.getParseCount());
+        assertEquals(1, session.getSerializeCount());
+    }
+
+    @Test
+    void firstPluginFailing() throws Exception {
+        byte[] original = newClass();
+        ClassTransformSession session = new ClassTransformSession(null, original);
+        transform(session, "addSecondAndFail");
+        assertSame(original, session.finish());
+        assertEquals(1, session.getParseCount());
+        assertEquals(0, session.getSerializeCount());
+    }
+
+    private static void transform(ClassTransformSession session, String methodName) throws NoSuchMethodException {
+        Method method = TestPlugin.class.getMethod(methodName, methodName.endsWith("Bytes") ? byte[].class : CtClass.class);
+        PluginAnnotation<OnClassLoadEvent> annotation = new PluginAnnotation<>(TestPlugin.class, new TestPlugin(), method.getAnnotation(OnClassLoadEvent.class), method);
+        PluginClassFileTransformer.transform(null, annotation, session, null, CLASS_NAME, null, null);
+    }
+
+    private static byte[] newClass() throws Exception {
+        return new ClassPool(true).makeClass(CLASS_NAME.replace('/', '.')).toBytecode();
+    }
+
+    private static List<String> fieldNames(byte[] bytes) throws IOException {
+        ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+        List<String> names = new ArrayList<>();
+        for (FieldInfo field : classFile.getFields()) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+
+    @Plugin(name = "RollbackTest", testedVersions = {})
+    public static class TestPlugin {
+
+        @OnClassLoadEvent(classNameRegexp = ".*")
+        public static void addFirst(CtClass ctClass) throws Exception {
+            ctClass.addField(CtField.make("public int first;", ctClass));
+        }
+
+        @OnClassLoadEvent(classNameRegexp = ".*")
+        public static byte[] addFirstToBytes(byte[] bytes) throws Exception {
+            CtClass ctClass = new ClassPool(true).makeClass(new ByteArrayInputStream(bytes));
+            ctClass.addField(CtField.make("public int first;", ctClass));
+            return ctClass.toBytecode();
+        }
+
+        @OnClassLoadEvent(classNameRegexp = ".*")
+        public static void readName(CtClass ctClass) {
+            ctClass.getName();
+        }
+
+        @OnClassLoadEvent(classNameRegexp = ".*")
+        public static void addSecondAndFail(CtClass ctClass) throws Exception {
+            ctClass.addField(CtField.make("public int second;", ctClass));
+            throw new IllegalStateException("fail after partial edit");
+        }
+
+        @OnClassLoadEvent(classNameRegexp = ".*")
+        public static void addThird(CtClass ctClass) throws Exception {
+            ctClass.addField(CtField.make("public int third;", ctClass));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.command.impl;
+
+import io.github.future0923.debug.tools.hotswap.core.command.Command;
+import io.github.future0923.debug.tools.hotswap.core.command.MergeableCommand;
+import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class SchedulerImplTest {
+
+    private SchedulerImpl scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new SchedulerImpl();
+        scheduler.run();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void mergeEqualCommands() throws InterruptedException {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.scheduleCommand(new NamedCommand("a", "1", executed, latch), 100);
+        scheduler.scheduleCommand(new NamedCommand("a", "2", executed, latch), 100);
+        scheduler.scheduleCommand(new NamedCommand("a", "3", executed, latch), 100);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // 保留第一次投递的命令对象，后面的合并进来
+        assertEquals(Collections.singletonList("1[2, 3]"), executed);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    void differentCommandsRunSeparately() throws InterruptedException {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+        scheduler.scheduleCommand(new NamedCommand("a", "1", executed, latch), 10);
+        scheduler.scheduleCommand(new NamedCommand("b", "2", executed, latch), 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executed.size());
+    }
+
+    @Test
+    void rescheduleRestartsTimer() throws InterruptedException {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.currentTimeMillis();
+        scheduler.scheduleCommand(new NamedCommand("a", "1", executed, latch), 200);
+        Thread.sleep(100);
+        scheduler.scheduleCommand(new NamedCommand("a", "2", executed, latch), 200);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(1, executed.size());
+    }
+
+    @Test
+    void waitAndRunAfterRunningDuplicate() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        Command command = new BlockingCommand(running, maxRunning, started, finished);
+        scheduler.scheduleCommand(command, 0, Scheduler.DuplicateSheduleBehaviour.WAIT_AND_RUN_AFTER);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.scheduleCommand(command, 0, Scheduler.DuplicateSheduleBehaviour.WAIT_AND_RUN_AFTER);
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        Thread.sleep(100);
+        assertEquals(2, scheduler.getExecutedCount());
+    }
+
+    @Test
+    void skipRunningDuplicate() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        Command command = new BlockingCommand(running, maxRunning, started, finished);
+        scheduler.scheduleCommand(command, 0);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.scheduleCommand(command, 0);
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(1, scheduler.getExecutedCount());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    /**
+     * 按key判断相等的可合并命令
+     */
+    private static class NamedCommand extends MergeableCommand {
+
+        private final String key;
+
+        private final String name;
+
+        private final List<String> executed;
+
+        private final CountDownLatch latch;
+
+        private NamedCommand(String key, String name, List<String> executed, CountDownLatch latch) {
+            this.key = key;
+            this.name = name;
+            this.executed = executed;
+            this.latch = latch;
+        }
+
+        @Override
+        public void executeCommand() {
+            List<String> merged = new ArrayList<>();
+            for (Command command : popMergedCommands()) {
+                merged.add(((NamedCommand) command).name);
+            }
+            executed.add(name + merged);
+            latch.countDown();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NamedCommand && key.equals(((NamedCommand) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key);
+        }
+    }
+
+    /**
+     * 第一次执行时等待100ms，记录同时运行的最大数量
+     */
+    private static class BlockingCommand implements Command {
+
+        private final AtomicInteger running;
+
+        private final AtomicInteger maxRunning;
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch finished;
+
+        private BlockingCommand(AtomicInteger running, AtomicInteger maxRunning, CountDownLatch started, CountDownLatch finished) {
+            this.running = running;
+            this.maxRunning = maxRunning;
+            this.started = started;
+            this.finished = finished;
+        }
+
+        @Override
+        public void executeCommand() {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                finished.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author future0923
+ */
+class TransformerIndexTest {
+
+    private final List<HotswapTransformer.RegisteredTransformersRecord> records = new ArrayList<>();
+
+    @Test
+    void exactName() {
+        add("com.example.Foo", "foo");
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertEquals("[foo]", names(index.match("com/example/Foo", null)));
+        assertNull(index.match("com/example/FooBar", null));
+        // 字面量中的.只作为包分隔符，不匹配任意字符
+        assertNull(index.match("com/example$Foo", null));
+    }
+
+    @Test
+    void packagePrefix() {
+        add("com.example.*", "pkg");
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertEquals("[pkg]", names(index.match("com/example/Foo", null)));
+        assertEquals("[pkg]", names(index.match("com/example/sub/Bar", null)));
+        assertNull(index.match("com/other/Foo", null));
+    }
+
+    @Test
+    void regex() {
+        add("com.example.Foo\\$\\$.*", "proxy");
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertEquals("[proxy]", names(index.match("com/example/Foo$$Proxy", null)));
+        assertNull(index.match("com/example/Foo", null));
+    }
+
+    @Test
+    void redefiningClassWithoutName() {
+        add("io.github.future0923.debug.tools.hotswap.core.util.HotswapTransformer", "exact");
+        add("io.github.future0923.debug.tools.*", "pkg");
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertEquals("[exact, pkg]", names(index.match(null, HotswapTransformer.class)));
+    }
+
+    @Test
+    void registrationOrderAcrossBuckets() {
+        add("com.example.*", "first");
+        add(".*Foo", "second");
+        add("com.example.Foo", "third");
+        add("com.*", "fourth");
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertEquals("[first, second, third, fourth]", names(index.match("com/example/Foo", null)));
+    }
+
+    @Test
+    void emptyRecordIsIgnored() {
+        HotswapTransformer.RegisteredTransformersRecord record = new HotswapTransformer.RegisteredTransformersRecord();
+        record.pattern = Pattern.compile("^com.example.Foo$");
+        records.add(record);
+        HotswapTransformer.TransformerIndex index = new HotswapTransformer.TransformerIndex(records);
+        assertNull(index.match("com/example/Foo", null));
+    }
+
+    private void add(String regexp, String name) {
+        HotswapTransformer.RegisteredTransformersRecord record = new HotswapTransformer.RegisteredTransformersRecord();
+        record.pattern = Pattern.compile("^" + regexp + "$");
+        record.transformerList.add(new NamedTransformer(name));
+        records.add(record);
+    }
+
+    private static String names(List<HotswapTransformer.IndexedRecord> matched) {
+        if (matched == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (HotswapTransformer.IndexedRecord record : matched) {
+            for (ClassFileTransformer transformer : record.transformers) {
+                names.add(transformer.toString());
+            }
+        }
+        return names.toString();
+    }
+
+    private static class NamedTransformer implements HaClassFileTransformer {
+
+        private final String name;
+
+        private NamedTransformer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean isForRedefinitionOnly() {
+            return false;
+        }
+
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.util.scanner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class JarEntryIndexTest {
+
+    private File jar;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jar = File.createTempFile("jar-entry-index", ".jar");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jar.delete();
+    }
+
+    @Test
+    void classEntriesUnderPrefix() throws IOException {
+        writeJar(jar, "com/b/B.class", "com/a/A.class", "com/a/sub/C.class", "com/ab/D.class", "com/a/readme.txt", "com/a/");
+        JarEntryIndex index = JarEntryIndex.getIndex(jar);
+        assertEquals(Arrays.asList("com/a/A.class", "com/a/sub/C.class"), index.getClassEntries("com/a/"));
+        assertEquals(Collections.singletonList("com/b/B.class"), index.getClassEntries("com/b/"));
+        assertTrue(index.getClassEntries("org/").isEmpty());
+        assertEquals(4, index.getClassEntries("").size());
+    }
+
+    @Test
+    void rebuildWhenJarChanges() throws IOException {
+        writeJar(jar, "com/a/A.class");
+        JarEntryIndex index = JarEntryIndex.getIndex(jar);
+        assertSame(index, JarEntryIndex.getIndex(jar));
+        writeJar(jar, "com/a/A.class", "com/a/B.class");
+        jar.setLastModified(index.getFile().lastModified() + 2000);
+        JarEntryIndex rebuilt = JarEntryIndex.getIndex(jar);
+        assertNotSame(index, rebuilt);
+        assertEquals(2, rebuilt.getClassEntries("com/a/").size());
+    }
+
+    @Test
+    void cacheIsBounded() throws IOException {
+        writeJar(jar, "com/a/A.class");
+        File[] jars = new File[JarEntryIndex.MAX_CACHED_INDEXES + 1];
+        try {
+            for (int i = 0; i < jars.length; i++) {
+                jars[i] = File.createTempFile("jar-entry-index", ".jar");
+                writeJar(jars[i], "com/a/A.class");
+                JarEntryIndex.getIndex(jars[i]);
+            }
+            assertTrue(JarEntryIndex.getCachedIndexCount() <= JarEntryIndex.MAX_CACHED_INDEXES);
+            assertTrue(JarEntryIndex.getEvictionCount() > 0);
+        } finally {
+            for (File file : jars) {
+                if (file != null) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private static void writeJar(File file, String... names) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String name : names) {
+                out.putNextEntry(new JarEntry(name));
+                if (!name.endsWith("/")) {
+                    out.write(new byte[]{1, 2, 3});
+                }
+                out.closeEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.util.signature;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewMethod;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * @author future0923
+ */
+class ClassFileSignatureTest {
+
+    private static final String METHOD_A = "public int a() { return 1; }";
+
+    private static final String METHOD_B = "public String b(String s) { return s; }";
+
+    @Test
+    void methodBodyIsIgnored() throws Exception {
+        assertEquals(fingerprint(METHOD_A), fingerprint("public int a() { return 2; }"));
+    }
+
+    @Test
+    void declarationOrderIsIgnored() throws Exception {
+        assertEquals(fingerprint(METHOD_A, METHOD_B), fingerprint(METHOD_B, METHOD_A));
+    }
+
+    @Test
+    void addedMethodChangesSignature() throws Exception {
+        assertNotEquals(fingerprint(METHOD_A), fingerprint(METHOD_A, METHOD_B));
+    }
+
+    @Test
+    void changedDescriptorChangesSignature() throws Exception {
+        assertNotEquals(fingerprint(METHOD_A), fingerprint("public long a() { return 1L; }"));
+    }
+
+    @Test
+    void privateMethodIsIgnored() throws Exception {
+        assertEquals(fingerprint(METHOD_A), fingerprint(METHOD_A, "private void c() { }"));
+    }
+
+    @Test
+    void staticMethodIsUsed() throws Exception {
+        assertNotEquals(fingerprint(METHOD_A), fingerprint(METHOD_A, "public static void c() { }"));
+    }
+
+    @Test
+    void methodAnnotationChangesSignature() throws Exception {
+        ClassPool classPool = new ClassPool(true);
+        CtClass ctClass = classPool.makeClass("test.signature.Foo");
+        CtMethod method = CtNewMethod.make(METHOD_A, ctClass);
+        ConstPool constPool = ctClass.getClassFile().getConstPool();
+        AnnotationsAttribute attribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+        attribute.addAnnotation(new Annotation(Deprecated.class.getName(), constPool));
+        method.getMethodInfo().addAttribute(attribute);
+        ctClass.addMethod(method);
+        assertNotEquals(fingerprint(METHOD_A), ClassSignatureComparer.getFingerprint(ctClass.toBytecode()));
+    }
+
+    @Test
+    void fieldChangesSignature() throws Exception {
+        ClassPool classPool = new ClassPool(true);
+        CtClass ctClass = classPool.makeClass("test.signature.Foo");
+        ctClass.addMethod(CtNewMethod.make(METHOD_A, ctClass));
+        ctClass.addField(CtField.make("private static String name;", ctClass));
+        assertNotEquals(fingerprint(METHOD_A), ClassSignatureComparer.getFingerprint(ctClass.toBytecode()));
+    }
+
+    @Test
+    void valueMatchesSelectedElements() throws Exception {
+        ClassPool classPool = new ClassPool(true);
+        CtClass ctClass = classPool.makeClass("test.signature.Foo");
+        ctClass.addMethod(CtNewMethod.make(METHOD_A, ctClass));
+        ctClass.addField(CtField.make("private String name;", ctClass));
+        ClassFileSignature signature = new ClassFileSignature(ctClass.toBytecode());
+        signature.addSignatureElements(new ClassSignatureElement[]{ClassSignatureElement.METHOD, ClassSignatureElement.FIELD});
+        assertEquals("Ljava/lang/String; name;public a()I;", signature.getValue());
+    }
+
+    private static long fingerprint(String... methods) throws Exception {
+        ClassPool classPool = new ClassPool(true);
+        CtClass ctClass = classPool.makeClass("test.signature.Foo");
+        for (String method : methods) {
+            ctClass.addMethod(CtNewMethod.make(method, ctClass));
+        }
+        return ClassSignatureComparer.getFingerprint(ctClass.toBytecode());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.watch.nio;
+
+import io.github.future0923.debug.tools.hotswap.core.annotation.FileEvent;
+import io.github.future0923.debug.tools.hotswap.core.watch.WatchEventListener;
+import io.github.future0923.debug.tools.hotswap.core.watch.WatchFileEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class EventDispatcherTest {
+
+    @Test
+    void trieMatchesAllPrefixes() {
+        WatchEventListener root = event -> {
+        };
+        WatchEventListener module = event -> {
+        };
+        WatchEventListener sibling = event -> {
+        };
+        EventDispatcher.ListenerTrie trie = new EventDispatcher.ListenerTrie();
+        trie.put(Paths.get("/project"), Collections.singletonList(root));
+        trie.put(Paths.get("/project/module"), Collections.singletonList(module));
+        trie.put(Paths.get("/project/module2"), Collections.singletonList(sibling));
+
+        assertEquals(Arrays.asList(root, module), trie.match(Paths.get("/project/module/A.class")));
+        assertEquals(Arrays.asList(root, sibling), trie.match(Paths.get("/project/module2/B.class")));
+        assertEquals(Collections.singletonList(root), trie.match(Paths.get("/project/other/C.class")));
+        assertTrue(trie.match(Paths.get("/other/project/module/A.class")).isEmpty());
+    }
+
+    @Test
+    void trieMatchesPathSegmentsNotStringPrefix() {
+        WatchEventListener listener = event -> {
+        };
+        EventDispatcher.ListenerTrie trie = new EventDispatcher.ListenerTrie();
+        trie.put(Paths.get("/project/mod"), Collections.singletonList(listener));
+
+        assertTrue(trie.match(Paths.get("/project/module/A.class")).isEmpty());
+        assertEquals(Collections.singletonList(listener), trie.match(Paths.get("/project/mod/A.class")));
+    }
+
+    @Test
+    void coalesceSameKindOnSamePath() throws InterruptedException {
+        List<FileEvent> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+        Map<Path, List<WatchEventListener>> listeners = new ConcurrentHashMap<>();
+        listeners.put(Paths.get("/project"), Collections.synchronizedList(new ArrayList<>(Collections.singletonList((WatchFileEvent event) -> {
+            received.add(event.getEventType());
+            latch.countDown();
+        }))));
+        EventDispatcher dispatcher = new EventDispatcher(listeners);
+        dispatcher.start();
+        try {
+            Path path = Paths.get("/project/A.class");
+            dispatcher.add(new TestWatchEvent(StandardWatchEventKinds.ENTRY_MODIFY), path);
+            dispatcher.add(new TestWatchEvent(StandardWatchEventKinds.ENTRY_MODIFY), path);
+            dispatcher.add(new TestWatchEvent(StandardWatchEventKinds.ENTRY_MODIFY), path);
+            dispatcher.add(new TestWatchEvent(StandardWatchEventKinds.ENTRY_DELETE), path);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.stop();
+        }
+        // 类型不同的事件不合并，顺序保持不变
+        assertEquals(Arrays.asList(FileEvent.MODIFY, FileEvent.DELETE), received);
+        assertEquals(2, dispatcher.getCoalescedCount());
+        assertEquals(2, dispatcher.getDispatchedCount());
+    }
+
+    private static class TestWatchEvent implements WatchEvent<Path> {
+
+        private final Kind<Path> kind;
+
+        private TestWatchEvent(Kind<Path> kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        @Override
+        public Path context() {
+            return null;
+        }
+    }
+}
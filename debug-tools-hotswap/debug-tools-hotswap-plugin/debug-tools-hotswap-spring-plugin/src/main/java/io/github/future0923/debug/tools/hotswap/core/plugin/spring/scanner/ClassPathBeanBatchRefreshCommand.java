@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.hotswap.core.command.Command;
+import io.github.future0923.debug.tools.hotswap.core.command.MergeableCommand;
+import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量刷新SpringBean命令
+ * <p>
+ * 同一个类加载器的{@link ClassPathBeanRefreshCommand}在调度器中合并为一个批量命令（一次热部署请求或一批文件变动），
+ * 执行时调用{@link ClassPathBeanDefinitionScannerAgent#refreshClasses(String[], byte[][], String[])}，
+ * 所有bean重新定义后Spring缓存只刷新一次。
+ *
+ * @author future0923
+ */
+public class ClassPathBeanBatchRefreshCommand extends MergeableCommand {
+
+    private static final Logger logger = Logger.getLogger(ClassPathBeanBatchRefreshCommand.class);
+
+    private final ClassLoader appClassLoader;
+
+    /**
+     * className -> 刷新命令，同一个类的命令合并为一个
+     */
+    private final Map<String, ClassPathBeanRefreshCommand> refreshCommands = new LinkedHashMap<>();
+
+    public ClassPathBeanBatchRefreshCommand(ClassPathBeanRefreshCommand refreshCommand) {
+        this.appClassLoader = refreshCommand.getAppClassLoader();
+        this.refreshCommands.put(refreshCommand.getClassName(), refreshCommand);
+    }
+
+    /**
+     * 投递刷新命令，正在执行的批次结束后再执行新的批次，避免丢失变动
+     */
+    public static void schedule(Scheduler scheduler, ClassPathBeanRefreshCommand refreshCommand, int timeout) {
+        scheduler.scheduleCommand(new ClassPathBeanBatchRefreshCommand(refreshCommand), timeout, Scheduler.DuplicateSheduleBehaviour.WAIT_AND_RUN_AFTER);
+    }
+
+    @Override
+    public Command merge(Command other) {
+        ClassPathBeanBatchRefreshCommand batch = (ClassPathBeanBatchRefreshCommand) other;
+        synchronized (refreshCommands) {
+            for (ClassPathBeanRefreshCommand command : batch.refreshCommands.values()) {
+                ClassPathBeanRefreshCommand exist = refreshCommands.get(command.getClassName());
+                if (exist == null) {
+                    refreshCommands.put(command.getClassName(), command);
+                } else {
+                    exist.merge(command);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 反射调用{@link ClassPathBeanDefinitionScannerAgent#refreshClasses(String[], byte[][], String[])}批量刷新spring bean class
+     */
+    @Override
+    public void executeCommand() {
+        List<ClassPathBeanRefreshCommand> commands;
+        synchronized (refreshCommands) {
+            commands = new ArrayList<>(refreshCommands.values());
+            refreshCommands.clear();
+        }
+        List<String> basePackages = new ArrayList<>(commands.size());
+        List<byte[]> classDefinitions = new ArrayList<>(commands.size());
+        List<String> paths = new ArrayList<>(commands.size());
+        for (ClassPathBeanRefreshCommand command : commands) {
+            byte[] classDefinition = command.resolveClassDefinition();
+            if (classDefinition != null) {
+                basePackages.add(command.getBasePackage());
+                classDefinitions.add(classDefinition);
+                paths.add(command.getPath());
+            }
+        }
+        if (classDefinitions.isEmpty()) {
+            return;
+        }
+        try {
+            logger.debug("Executing ClassPathBeanDefinitionScannerAgent.refreshClasses() for {} classes", classDefinitions.size());
+            Class<?> clazz = Class.forName("io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanDefinitionScannerAgent", true, appClassLoader);
+            Method method = clazz.getDeclaredMethod("refreshClasses", String[].class, byte[][].class, String[].class);
+            method.invoke(null, basePackages.toArray(new String[0]), classDefinitions.toArray(new byte[0][]), paths.toArray(new String[0]));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Plugin error, method not found", e);
+        } catch (InvocationTargetException e) {
+            logger.error("Error refreshing classes {} in classLoader {}", e, commands, appClassLoader);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Plugin error, illegal access", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Plugin error, Spring class not found in application classloader", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ClassPathBeanBatchRefreshCommand that = (ClassPathBeanBatchRefreshCommand) o;
+
+        return appClassLoader.equals(that.appClassLoader);
+    }
+
+    @Override
+    public int hashCode() {
+        return appClassLoader.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (refreshCommands) {
+            return "ClassPathBeanBatchRefreshCommand{" +
+                    "appClassLoader=" + appClassLoader +
+                    ", classNames=" + refreshCommands.keySet() +
+                    '}';
+        }
+    }
+}
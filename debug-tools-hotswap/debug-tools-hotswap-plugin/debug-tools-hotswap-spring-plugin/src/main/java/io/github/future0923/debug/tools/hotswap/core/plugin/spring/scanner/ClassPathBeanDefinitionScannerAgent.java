@@ -16,6 +16,7 @@
  */
 package io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner;
 
+import io.github.future0923.debug.tools.base.context.BeanRefreshContext;
 import io.github.future0923.debug.tools.base.hutool.core.util.StrUtil;
 import io.github.future0923.debug.tools.base.logging.Logger;
 import javassist.ClassPool;
@@ -61,6 +62,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -273,6 +275,7 @@ public class ClassPathBeanDefinitionScannerAgent {
                 }
             }
         }
+        BeanRefreshContext.refresh();
     }
 
     /**
@@ -280,6 +283,7 @@ public class ClassPathBeanDefinitionScannerAgent {
      */
     public static void addDeleteBeanNameSet(Set<String> beanNameSet) {
         deleteBeanNameSet.addAll(beanNameSet);
+        BeanRefreshContext.refresh();
     }
 
     /**
@@ -298,7 +302,7 @@ public class ClassPathBeanDefinitionScannerAgent {
     }
 
     /**
-     * {@link ClassPathBeanRefreshCommand}执行时会调用这里刷新class文件
+     * 刷新单个class文件
      *
      * @param basePackage     base package on witch the transformer was registered, used to obtain associated scanner.
      * @param classDefinition new class definition
@@ -306,11 +310,65 @@ public class ClassPathBeanDefinitionScannerAgent {
      * @throws IOException error working with classDefinition
      */
     public static void refreshClass(String basePackage, byte[] classDefinition, String path) throws IOException, ClassNotFoundException {
+        refreshClasses(new String[]{basePackage}, new byte[][]{classDefinition}, new String[]{path});
+    }
+
+    /**
+     * {@link ClassPathBeanBatchRefreshCommand}执行时会调用这里批量刷新class文件
+     * <p>
+     * 先重新定义所有变动的bean，最后每个容器只刷新一次Spring缓存（静态缓存、RequestMapping、BeanPostProcessor、代理），
+     * 而不是每个bean刷新一次。
+     *
+     * @param basePackages     每个class对应的base package
+     * @param classDefinitions 每个class新的字节码
+     * @param paths            每个class的文件路径，可以为null
+     */
+    public static void refreshClasses(String[] basePackages, byte[][] classDefinitions, String[] paths) throws IOException, ClassNotFoundException {
         ResetSpringStaticCaches.reset();
+        Set<ClassPathBeanDefinitionScannerAgent> definedAgents = new LinkedHashSet<>();
+        try {
+            for (int i = 0; i < classDefinitions.length; i++) {
+                // 单个class失败不影响批次中的其他class
+                try {
+                    ClassPathBeanDefinitionScannerAgent scannerAgent = resolveAndDefineBean(basePackages[i], classDefinitions[i], paths[i]);
+                    if (scannerAgent != null) {
+                        definedAgents.add(scannerAgent);
+                    }
+                } catch (Throwable e) {
+                    logger.error("Failed to refresh spring bean class, path '{}', base package '{}'", e, paths[i], basePackages[i]);
+                }
+            }
+        } finally {
+            if (!definedAgents.isEmpty()) {
+                synchronized (ClassPathBeanDefinitionScannerAgent.class) {
+                    for (ClassPathBeanDefinitionScannerAgent scannerAgent : definedAgents) {
+                        DefaultListableBeanFactory bf = scannerAgent.maybeRegistryToBeanFactory();
+                        if (bf != null) {
+                            ResetBeanPostProcessorCaches.reset(bf);
+                            ResetRequestMappingCaches.reset(bf);
+                        }
+                    }
+                    ProxyReplacer.clearAllProxies();
+                    for (ClassPathBeanDefinitionScannerAgent scannerAgent : definedAgents) {
+                        scannerAgent.freezeConfiguration();
+                    }
+                }
+            }
+            reloadFlag = false;
+            BeanRefreshContext.refresh();
+        }
+    }
+
+    /**
+     * 解析class并重新定义bean，不刷新缓存
+     *
+     * @return 定义了bean的ClassPathBeanDefinitionScannerAgent，没有定义时返回null
+     */
+    private static ClassPathBeanDefinitionScannerAgent resolveAndDefineBean(String basePackage, byte[] classDefinition, String path) throws IOException, ClassNotFoundException {
         List<ClassPathBeanDefinitionScannerAgent> scannerAgents = getInstances(basePackage);
         if (scannerAgents.isEmpty()) {
             logger.error("basePackage '{}' not associated with any scannerAgent", basePackage);
-            return;
+            return null;
         }
         for (ClassPathBeanDefinitionScannerAgent scannerAgent : scannerAgents) {
             BeanDefinition beanDefinition = scannerAgent.resolveBeanDefinition(classDefinition);
@@ -320,10 +378,9 @@ public class ClassPathBeanDefinitionScannerAgent {
             String beanName = scannerAgent.getBeanName(beanDefinition);
             Class<?> beanClass = ((AbstractBeanDefinition) beanDefinition).resolveBeanClass(ClassPathBeanDefinitionScannerAgent.class.getClassLoader());
             assemblingSpringBean(beanName, beanClass);
-            scannerAgent.defineBean(beanDefinition, path);
-            break;
+            return scannerAgent.registerBean(beanDefinition, path, false) ? scannerAgent : null;
         }
-        reloadFlag = false;
+        return null;
     }
 
     private static void assemblingSpringBean(String beanName, Class<?> beanClass) {
@@ -369,6 +426,16 @@ public class ClassPathBeanDefinitionScannerAgent {
      * @param candidate 要重载的BeanDefinition
      */
     public void defineBean(BeanDefinition candidate, String path) {
+        registerBean(candidate, path, true);
+    }
+
+    /**
+     * 注册BeanDefinition
+     *
+     * @param flushCaches 是否立即刷新Spring缓存，批量刷新时由调用方在最后统一刷新
+     * @return 返回true表示注册成功
+     */
+    private boolean registerBean(BeanDefinition candidate, String path, boolean flushCaches) {
         synchronized (ClassPathBeanDefinitionScannerAgent.class) {
             ScopeMetadata scopeMetadata = this.scopeMetadataResolver.resolveScopeMetadata(candidate);
             candidate.setScope(scopeMetadata.getScopeName());
@@ -379,7 +446,7 @@ public class ClassPathBeanDefinitionScannerAgent {
             if (candidate instanceof AnnotatedBeanDefinition) {
                 processCommonDefinitionAnnotations((AnnotatedBeanDefinition) candidate);
             }
-            removeIfExists(beanName);
+            removeIfExists(beanName, flushCaches);
             if (checkCandidate(beanName, candidate)) {
                 if (StrUtil.isNotBlank(path)) {
                     resolvePath(path, beanName);
@@ -388,34 +455,39 @@ public class ClassPathBeanDefinitionScannerAgent {
                 BeanDefinitionHolder definitionHolder = new BeanDefinitionHolder(candidate, beanName);
                 definitionHolder = applyScopedProxyMode(scopeMetadata, definitionHolder, registry);
                 registerBeanDefinition(definitionHolder, registry);
-                DefaultListableBeanFactory bf = maybeRegistryToBeanFactory();
-                if (bf != null) {
-                    ResetRequestMappingCaches.reset(bf);
+                if (flushCaches) {
+                    DefaultListableBeanFactory bf = maybeRegistryToBeanFactory();
+                    if (bf != null) {
+                        ResetRequestMappingCaches.reset(bf);
+                    }
+                    ProxyReplacer.clearAllProxies();
+                    freezeConfiguration();
                 }
-                ProxyReplacer.clearAllProxies();
-                freezeConfiguration();
                 logger.reload("Registered Spring bean '{}'", beanName);
+                return true;
             }
+            return false;
         }
-
-
     }
 
     /**
      * If registry contains the bean, remove it first (destroying existing singletons).
      *
-     * @param beanName name of the bean
+     * @param beanName    name of the bean
+     * @param flushCaches 是否立即刷新Spring缓存
      */
-    private void removeIfExists(String beanName) {
+    private void removeIfExists(String beanName, boolean flushCaches) {
         if (registry.containsBeanDefinition(beanName)) {
             logger.debug("Removing bean definition '{}'", beanName);
-            DefaultListableBeanFactory bf = maybeRegistryToBeanFactory();
+            DefaultListableBeanFactory bf = flushCaches ? maybeRegistryToBeanFactory() : null;
             if (bf != null) {
                 ResetRequestMappingCaches.reset(bf);
             }
             registry.removeBeanDefinition(beanName);
 
-            ResetSpringStaticCaches.reset();
+            if (flushCaches) {
+                ResetSpringStaticCaches.reset();
+            }
             if (bf != null) {
                 ResetBeanPostProcessorCaches.reset(bf);
             }
@@ -19,6 +19,7 @@ package io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner;
 
 import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.hotswap.core.annotation.FileEvent;
+import io.github.future0923.debug.tools.hotswap.core.command.Command;
 import io.github.future0923.debug.tools.hotswap.core.command.EventMergeableCommand;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.transformer.SpringBeanClassFileTransformer;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.transformer.SpringBeanWatchEventListener;
@@ -75,30 +76,20 @@ public class ClassPathBeanRefreshCommand extends EventMergeableCommand<ClassPath
 
     /**
      * 反射调用{@link ClassPathBeanDefinitionScannerAgent#refreshClass(String, byte[], String)}刷新spring bean class
+     * <p>
+     * 插件中通过{@link ClassPathBeanBatchRefreshCommand}合并后批量刷新，不会单独执行
      */
     @Override
     public void executeCommand() {
-        if (isDeleteEvent()) {
-            logger.trace("Skip Spring reload for delete event on class '{}'", className);
+        byte[] bytes = resolveClassDefinition();
+        if (bytes == null) {
             return;
         }
         try {
-            if (classDefinition == null) {
-                try {
-                    this.classDefinition = IOUtils.toByteArray(event.getURI());
-                } catch (IllegalArgumentException e) {
-                    logger.debug("File {} not found on filesystem (deleted?). Unable to refresh associated Spring bean.", event.getURI());
-                    return;
-                }
-            }
             logger.debug("Executing ClassPathBeanDefinitionScannerAgent.refreshClass('{}')", className);
             Class<?> clazz = Class.forName("io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanDefinitionScannerAgent", true, appClassLoader);
             Method method = clazz.getDeclaredMethod("refreshClass", String.class, byte[].class, String.class);
-            String path = null;
-            if (event != null) {
-                path = event.getURI().getPath();
-            }
-            method.invoke(null, basePackage, classDefinition, path);
+            method.invoke(null, basePackage, bytes, getPath());
         } catch (NoSuchMethodException e) {
             throw new IllegalStateException("Plugin error, method not found", e);
         } catch (InvocationTargetException e) {
@@ -111,6 +102,55 @@ public class ClassPathBeanRefreshCommand extends EventMergeableCommand<ClassPath
 
     }
 
+    /**
+     * 获取要刷新的字节码
+     *
+     * @return 删除事件或者文件不存在时返回null
+     */
+    byte[] resolveClassDefinition() {
+        if (isDeleteEvent()) {
+            logger.trace("Skip Spring reload for delete event on class '{}'", className);
+            return null;
+        }
+        if (classDefinition == null) {
+            try {
+                this.classDefinition = IOUtils.toByteArray(event.getURI());
+            } catch (IllegalArgumentException e) {
+                logger.debug("File {} not found on filesystem (deleted?). Unable to refresh associated Spring bean.", event.getURI());
+                return null;
+            }
+        }
+        return classDefinition;
+    }
+
+    /**
+     * 合并同一个类的新命令，保留最新的字节码
+     */
+    @Override
+    public Command merge(Command other) {
+        ClassPathBeanRefreshCommand command = (ClassPathBeanRefreshCommand) other;
+        if (command.classDefinition != null) {
+            this.classDefinition = command.classDefinition;
+        }
+        return super.merge(other);
+    }
+
+    ClassLoader getAppClassLoader() {
+        return appClassLoader;
+    }
+
+    String getBasePackage() {
+        return basePackage;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getPath() {
+        return event == null ? null : event.getURI().getPath();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
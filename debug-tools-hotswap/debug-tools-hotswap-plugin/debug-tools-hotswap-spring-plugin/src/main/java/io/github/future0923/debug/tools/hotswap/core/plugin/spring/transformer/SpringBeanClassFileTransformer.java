@@ -19,6 +19,7 @@ package io.github.future0923.debug.tools.hotswap.core.plugin.spring.transformer;
 
 import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
+import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanBatchRefreshCommand;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanRefreshCommand;
 import io.github.future0923.debug.tools.hotswap.core.util.HaClassFileTransformer;
 import io.github.future0923.debug.tools.hotswap.core.util.signature.ClassChangesAnalyzer;
@@ -35,6 +36,11 @@ public class SpringBeanClassFileTransformer implements HaClassFileTransformer {
 
     private static final Logger logger = Logger.getLogger(SpringBeanClassFileTransformer.class);
 
+    /**
+     * 合并延迟执行时间，同一批redefine的类合并为一次刷新
+     */
+    private static final int WAIT_ON_REDEFINE = 500;
+
     private final ClassLoader appClassLoader;
     private final Scheduler scheduler;
     private final String basePackage;
@@ -50,7 +56,7 @@ public class SpringBeanClassFileTransformer implements HaClassFileTransformer {
         if (classBeingRedefined != null) {
             className = className.replace("/", ".");
             if (ClassChangesAnalyzer.isReloadNeeded(classBeingRedefined, classfileBuffer, appClassLoader)) {
-                scheduler.scheduleCommand(new ClassPathBeanRefreshCommand(classBeingRedefined.getClassLoader(), basePackage, className, classfileBuffer));
+                ClassPathBeanBatchRefreshCommand.schedule(scheduler, new ClassPathBeanRefreshCommand(classBeingRedefined.getClassLoader(), basePackage, className, classfileBuffer), WAIT_ON_REDEFINE);
             }
         }
         return classfileBuffer;
@@ -21,6 +21,7 @@ import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.hotswap.core.annotation.FileEvent;
 import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanDefinitionScannerAgent;
+import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanBatchRefreshCommand;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.ClassPathBeanRefreshCommand;
 import io.github.future0923.debug.tools.hotswap.core.plugin.spring.scanner.RemoveBeanDefinitionCommand;
 import io.github.future0923.debug.tools.hotswap.core.util.IOUtils;
@@ -32,7 +33,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 /**
- * SpringBean监听者Watch到新增的class新文件，创建{@link ClassPathBeanRefreshCommand}调用{@link ClassPathBeanDefinitionScannerAgent#refreshClass(String, byte[])}进行Spring环境class重载
+ * SpringBean监听者Watch到新增的class新文件，创建{@link ClassPathBeanRefreshCommand}合并到{@link ClassPathBeanBatchRefreshCommand}调用{@link ClassPathBeanDefinitionScannerAgent#refreshClasses(String[], byte[][], String[])}进行Spring环境class重载
  *
  * @author future0923
  */
@@ -80,7 +81,7 @@ public class SpringBeanWatchEventListener implements WatchEventListener {
                 if (!ClassLoaderHelper.isClassLoaded(appClassLoader, className)) {
                     logger.debug("watch add class event, start reloading spring bean, class name:{}", className);
                     // 只刷新spring中新产生的classes
-                    scheduler.scheduleCommand(new ClassPathBeanRefreshCommand(appClassLoader, basePackage, className, event), WAIT_ON_CREATE);
+                    ClassPathBeanBatchRefreshCommand.schedule(scheduler, new ClassPathBeanRefreshCommand(appClassLoader, basePackage, className, event), WAIT_ON_CREATE);
                 }
             }
         }
@@ -22,10 +22,13 @@ import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.base.utils.DebugToolsIOUtils;
 import io.github.future0923.debug.tools.base.utils.DebugToolsJvmUtils;
 import io.github.future0923.debug.tools.base.utils.DebugToolsStringUtils;
+import io.github.future0923.debug.tools.server.compiler.ClassRedefinitionListener;
 import io.github.future0923.debug.tools.server.config.ServerConfig;
+import io.github.future0923.debug.tools.server.groovy.GroovyScriptCache;
 import io.github.future0923.debug.tools.server.http.DebugToolsHttpServer;
 import io.github.future0923.debug.tools.server.netty.DebugToolsTcpServer;
 import io.github.future0923.debug.tools.server.utils.DebugToolsEnvUtils;
+import io.github.future0923.debug.tools.server.utils.DebugToolsResultStore;
 import io.github.future0923.debug.tools.vm.JvmToolsUtils;
 import lombok.Getter;
 
@@ -57,6 +60,9 @@ public class DebugToolsBootstrap {
 
     private DebugToolsBootstrap(Instrumentation instrumentation) {
         this.instrumentation = instrumentation;
+        if (instrumentation != null) {
+            instrumentation.addTransformer(ClassRedefinitionListener.INSTANCE);
+        }
         JvmToolsUtils.init();
     }
 
@@ -73,6 +79,8 @@ public class DebugToolsBootstrap {
         serverConfig.setApplicationName(getApplicationName(agentArgs));
         serverConfig.setTcpPort(tcpPort);
         serverConfig.setHttpPort(httpPort);
+        serverConfig.setResultPreviewLength(agentArgs.getResultPreviewLength() == null || agentArgs.getResultPreviewLength() <= 0 ? ServerConfig.DEFAULT_RESULT_PREVIEW_LENGTH : agentArgs.getResultPreviewLength());
+        DebugToolsResultStore.INSTANCE.configure(agentArgs.getResultCacheMaxEntries(), agentArgs.getResultCacheMaxMb(), agentArgs.getResultCacheTtlSeconds(), agentArgs.getResultCacheRetention());
         startTcpServer(tcpPort);
         startHttpServer(httpPort);
         started = true;
@@ -135,6 +143,8 @@ public class DebugToolsBootstrap {
             httpServer.close();
             httpServer = null;
         }
+        // 释放编译的脚本类和持有的应用类加载器
+        GroovyScriptCache.INSTANCE.clear();
         started = false;
         logger.info("stop successful");
     }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.compiler;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+
+/**
+ * 监听JVM中类的重新定义，清除依赖被重新定义类的{@link DynamicCompilerCache}编译结果
+ * <p>
+ * 不修改字节码，只在{@code classBeingRedefined}不为空时通知缓存。
+ *
+ * @author future0923
+ */
+public class ClassRedefinitionListener implements ClassFileTransformer {
+
+    public static final ClassRedefinitionListener INSTANCE = new ClassRedefinitionListener();
+
+    private ClassRedefinitionListener() {
+
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (classBeingRedefined != null) {
+            DynamicCompilerCache.classesRedefined(loader, Collections.singletonList(classBeingRedefined.getName()));
+        }
+        return null;
+    }
+}
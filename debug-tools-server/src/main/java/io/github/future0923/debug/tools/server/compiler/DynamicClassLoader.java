@@ -39,6 +39,13 @@ public class DynamicClassLoader extends ClassLoader {
         byteCodes.put(byteCode.getClassName(), byteCode);
     }
 
+    /**
+     * 注册缓存的字节码
+     */
+    public void registerCompiledByteCode(String className, byte[] byteCode) {
+        byteCodes.put(className, new MemoryByteCode(className, byteCode));
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
         MemoryByteCode byteCode = byteCodes.get(name);
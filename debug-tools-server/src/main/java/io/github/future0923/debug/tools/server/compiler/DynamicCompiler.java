@@ -51,10 +51,15 @@ public class DynamicCompiler {
     private final JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
 
     /**
-     * 动态编译时java源文件类文件等管理器
+     * 动态编译时java源文件类文件等管理器，相同编译参数共用，编译时需要加锁
      */
     private final StandardJavaFileManager standardFileManager;
 
+    /**
+     * 要编译的代码所在的类加载器
+     */
+    private final ClassLoader classLoader;
+
     /**
      * 编译参数
      */
@@ -86,7 +91,6 @@ public class DynamicCompiler {
                     "Can not load JavaCompiler from javax.tools.ToolProvider#getSystemJavaCompiler(),"
                             + " please confirm the application running in JDK not JRE.");
         }
-        standardFileManager = javaCompiler.getStandardFileManager(null, null, null);
         // 生成调试信息。
         // 告诉编译器为生成的 .class 文件包含调试信息（如变量名、行号等）。
         // 让你在调试或热重载时可以看到源码级别调试（断点、变量）
@@ -110,6 +114,8 @@ public class DynamicCompiler {
             options.add("-classpath");
             options.add(System.getProperty("java.class.path") + File.pathSeparator + pluginConfiguration.getLombokJarPath());
         }
+        standardFileManager = DynamicCompilerCache.getFileManager(javaCompiler, options);
+        this.classLoader = classLoader;
         dynamicClassLoader = new DynamicClassLoader(classLoader);
     }
 
@@ -149,16 +155,27 @@ public class DynamicCompiler {
     }
 
     /**
-     * 编译
+     * 编译，相同的源码直接使用缓存的字节码
      */
     public void build() {
         errors.clear();
         warnings.clear();
+        if (compilationUnits.isEmpty()) {
+            return;
+        }
+        String cacheKey = DynamicCompilerCache.getCacheKey(options, compilationUnits);
+        Map<String, byte[]> cachedByteCodes = cacheKey == null ? null : DynamicCompilerCache.getByteCodes(classLoader, cacheKey);
+        if (cachedByteCodes != null) {
+            logger.debug("Use cached byte codes of {}", cachedByteCodes.keySet());
+            cachedByteCodes.forEach(dynamicClassLoader::registerCompiledByteCode);
+            compilationUnits.clear();
+            return;
+        }
         JavaFileManager fileManager = new DynamicJavaFileManager(standardFileManager, dynamicClassLoader);
         DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
-        JavaCompiler.CompilationTask task = javaCompiler.getTask(null, fileManager, collector, options, null, compilationUnits);
         try {
-            if (!compilationUnits.isEmpty()) {
+            synchronized (standardFileManager) {
+                JavaCompiler.CompilationTask task = javaCompiler.getTask(null, fileManager, collector, options, null, compilationUnits);
                 boolean result = task.call();
                 if (!result || !collector.getDiagnostics().isEmpty()) {
                     for (Diagnostic<? extends JavaFileObject> diagnostic : collector.getDiagnostics()) {
@@ -184,6 +201,9 @@ public class DynamicCompiler {
                     }
                 }
             }
+            if (cacheKey != null) {
+                DynamicCompilerCache.putByteCodes(classLoader, cacheKey, dynamicClassLoader.getByteCodes());
+            }
         } catch (Throwable e) {
             throw new DynamicCompilerException(e, errors);
         } finally {
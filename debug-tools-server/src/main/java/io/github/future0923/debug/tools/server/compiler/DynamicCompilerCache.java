@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.compiler;
+
+import io.github.future0923.debug.tools.base.hutool.core.util.HexUtil;
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.hotswap.core.config.PluginConfiguration;
+import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
+import io.github.future0923.debug.tools.hotswap.core.watch.Watcher;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 动态编译缓存
+ * <ul>
+ * <li>相同编译参数共用一个{@link StandardJavaFileManager}，打开的jar和平台类不需要每次重新加载
+ * <li>每个类加载器缓存包下的class文件列表，classpath变化时失效
+ * <li>每个类加载器按源码hash缓存编译后的字节码，相同的源码不再调用javac
+ * </ul>
+ * 通过Watcher监听extraClasspath，热部署写入class文件时清除受影响的缓存；JVM中任何类被重新定义时，
+ * 依赖它的编译结果也会被清除（见{@link ClassRedefinitionListener}）。
+ *
+ * @author future0923
+ */
+public class DynamicCompilerCache {
+
+    private static final Logger logger = Logger.getLogger(DynamicCompilerCache.class);
+
+    /**
+     * 每个类加载器最多缓存的编译结果数量
+     */
+    private static final int MAX_BYTE_CODE_ENTRIES = 64;
+
+    /**
+     * 最多缓存的文件管理器数量
+     */
+    private static final int MAX_FILE_MANAGERS = 8;
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * 编译参数 -> 文件管理器，LRU淘汰，淘汰时关闭
+     */
+    private static final Map<List<String>, StandardJavaFileManager> FILE_MANAGERS = new LinkedHashMap<List<String>, StandardJavaFileManager>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, StandardJavaFileManager> eldest) {
+            if (size() > MAX_FILE_MANAGERS) {
+                closeFileManager(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * 类加载器 -> 缓存
+     */
+    private static final Map<ClassLoader, ClassLoaderCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private DynamicCompilerCache() {
+    }
+
+    /**
+     * 获取编译参数对应的文件管理器，使用时需要对返回的对象加锁
+     */
+    static StandardJavaFileManager getFileManager(JavaCompiler javaCompiler, List<String> options) {
+        synchronized (FILE_MANAGERS) {
+            return FILE_MANAGERS.computeIfAbsent(new ArrayList<>(options), k -> javaCompiler.getStandardFileManager(null, null, null));
+        }
+    }
+
+    /**
+     * 关闭被淘汰的文件管理器，正在编译时等待编译结束
+     */
+    private static void closeFileManager(StandardJavaFileManager fileManager) {
+        synchronized (fileManager) {
+            try {
+                fileManager.close();
+            } catch (Exception e) {
+                logger.debug("Unable to close evicted file manager", e);
+            }
+        }
+    }
+
+    /**
+     * 计算编译结果的缓存key
+     *
+     * @return 无法读取源码时返回null
+     */
+    static String getCacheKey(List<String> options, Collection<JavaFileObject> compilationUnits) {
+        try {
+            List<JavaFileObject> units = new ArrayList<>(compilationUnits);
+            units.sort(Comparator.comparing(unit -> unit.toUri().toString()));
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.join("\0", options).getBytes(StandardCharsets.UTF_8));
+            for (JavaFileObject unit : units) {
+                digest.update((byte) 0);
+                digest.update(unit.toUri().toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(unit.getCharContent(true).toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexUtil.encodeHexStr(digest.digest());
+        } catch (Exception e) {
+            logger.debug("Unable to compute compilation cache key", e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取缓存的字节码
+     *
+     * @return 没有缓存时返回null
+     */
+    static Map<String, byte[]> getByteCodes(ClassLoader classLoader, String cacheKey) {
+        ClassLoaderCache cache = getCache(classLoader);
+        synchronized (cache.byteCodes) {
+            Map<String, byte[]> byteCodes = cache.byteCodes.get(cacheKey);
+            return byteCodes == null ? null : new HashMap<>(byteCodes);
+        }
+    }
+
+    /**
+     * 缓存编译后的字节码
+     */
+    static void putByteCodes(ClassLoader classLoader, String cacheKey, Map<String, byte[]> byteCodes) {
+        ClassLoaderCache cache = getCache(classLoader);
+        synchronized (cache.byteCodes) {
+            cache.byteCodes.put(cacheKey, new HashMap<>(byteCodes));
+        }
+    }
+
+    /**
+     * 获取缓存的包下class文件列表
+     *
+     * @return 没有缓存时返回null
+     */
+    static List<JavaFileObject> getPackage(ClassLoader classLoader, String packageName) {
+        return getCache(classLoader).packages.get(packageName);
+    }
+
+    /**
+     * 缓存包下class文件列表
+     */
+    static void putPackage(ClassLoader classLoader, String packageName, List<JavaFileObject> fileObjects) {
+        getCache(classLoader).packages.put(packageName, Collections.unmodifiableList(fileObjects));
+    }
+
+    /**
+     * class文件发生变化
+     * <p>
+     * 清除包列表缓存，只保留生成了所有变化类的编译结果，其它编译结果可能依赖变化的类，全部清除
+     *
+     * @param classNames 变化的类名
+     */
+    public static void classesChanged(ClassLoader classLoader, Collection<String> classNames) {
+        ClassLoaderCache cache;
+        synchronized (CACHES) {
+            cache = CACHES.get(classLoader);
+        }
+        if (cache == null) {
+            return;
+        }
+        cache.packages.clear();
+        removeDependentByteCodes(cache, classNames);
+    }
+
+    /**
+     * 类被重新定义
+     * <p>
+     * class文件列表不变，只清除可能依赖变化类的编译结果，生成了所有变化类的编译结果保留
+     *
+     * @param classNames 重新定义的类名
+     */
+    public static void classesRedefined(ClassLoader classLoader, Collection<String> classNames) {
+        ClassLoaderCache cache;
+        synchronized (CACHES) {
+            if (CACHES.isEmpty()) {
+                return;
+            }
+            cache = CACHES.get(classLoader);
+        }
+        if (cache != null) {
+            removeDependentByteCodes(cache, classNames);
+        }
+    }
+
+    private static void removeDependentByteCodes(ClassLoaderCache cache, Collection<String> classNames) {
+        synchronized (cache.byteCodes) {
+            cache.byteCodes.values().removeIf(byteCodes -> !byteCodes.keySet().containsAll(classNames));
+        }
+    }
+
+    /**
+     * 清除类加载器的包列表缓存
+     */
+    public static void packagesChanged(ClassLoader classLoader) {
+        ClassLoaderCache cache;
+        synchronized (CACHES) {
+            cache = CACHES.get(classLoader);
+        }
+        if (cache != null) {
+            cache.packages.clear();
+        }
+    }
+
+    private static ClassLoaderCache getCache(ClassLoader classLoader) {
+        ClassLoaderCache cache;
+        synchronized (CACHES) {
+            cache = CACHES.get(classLoader);
+            if (cache != null) {
+                return cache;
+            }
+            cache = new ClassLoaderCache();
+            CACHES.put(classLoader, cache);
+        }
+        watchExtraClasspath(classLoader);
+        return cache;
+    }
+
+    /**
+     * 监听extraClasspath中class文件的变化
+     */
+    private static void watchExtraClasspath(ClassLoader classLoader) {
+        Watcher watcher = PluginManager.getInstance().getWatcher();
+        PluginConfiguration pluginConfiguration = PluginManager.getInstance().getPluginConfiguration(classLoader);
+        if (watcher == null || pluginConfiguration == null) {
+            return;
+        }
+        for (URL url : pluginConfiguration.getExtraClasspath()) {
+            try {
+                URI root = url.toURI();
+                watcher.addEventListener(classLoader, root, event -> {
+                    String path = event.getURI().getPath();
+                    String rootPath = root.getPath();
+                    if (event.isFile() && path != null && path.startsWith(rootPath) && path.endsWith(CLASS_FILE_EXTENSION)) {
+                        String className = path.substring(rootPath.length(), path.length() - CLASS_FILE_EXTENSION.length())
+                                .replace('/', '.');
+                        if (className.startsWith(".")) {
+                            className = className.substring(1);
+                        }
+                        classesChanged(classLoader, Collections.singletonList(className));
+                    } else {
+                        packagesChanged(classLoader);
+                    }
+                });
+            } catch (Exception e) {
+                logger.debug("Unable to watch extraClasspath {} for compilation cache", e, url);
+            }
+        }
+    }
+
+    /**
+     * 类加载器的缓存
+     */
+    private static class ClassLoaderCache {
+
+        /**
+         * 包名 -> class文件列表
+         */
+        private final Map<String, List<JavaFileObject>> packages = new ConcurrentHashMap<>();
+
+        /**
+         * 源码hash -> 编译后的字节码，LRU淘汰
+         */
+        private final Map<String, Map<String, byte[]>> byteCodes = new LinkedHashMap<String, Map<String, byte[]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, byte[]>> eldest) {
+                return size() > MAX_BYTE_CODE_ENTRIES;
+            }
+        };
+    }
+}
@@ -50,7 +50,8 @@ public class DynamicJavaFileManager extends ForwardingJavaFileManager<JavaFileMa
     public DynamicJavaFileManager(JavaFileManager fileManager, DynamicClassLoader classLoader) {
         super(fileManager);
         this.classLoader = classLoader;
-        this.finder = new PackageInternalsFinder(classLoader);
+        // 使用应用类加载器查找，包列表可以在多次编译之间缓存
+        this.finder = new PackageInternalsFinder(classLoader.getParent());
     }
 
     /**
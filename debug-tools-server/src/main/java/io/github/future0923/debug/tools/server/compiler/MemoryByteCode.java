@@ -46,6 +46,12 @@ public class MemoryByteCode extends SimpleJavaFileObject {
         this.byteArrayOutputStream = byteArrayOutputStream;
     }
 
+    public MemoryByteCode(String className, byte[] byteCode) {
+        this(className);
+        this.byteArrayOutputStream = new ByteArrayOutputStream(byteCode.length);
+        this.byteArrayOutputStream.write(byteCode, 0, byteCode.length);
+    }
+
     @Override
     public OutputStream openOutputStream() throws IOException {
         if (byteArrayOutputStream == null) {
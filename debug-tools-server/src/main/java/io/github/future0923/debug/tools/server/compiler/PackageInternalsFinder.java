@@ -16,6 +16,7 @@
  */
 package io.github.future0923.debug.tools.server.compiler;
 
+import io.github.future0923.debug.tools.hotswap.core.util.scanner.JarEntryIndex;
 
 import javax.tools.JavaFileObject;
 import java.io.File;
@@ -53,6 +54,10 @@ public class PackageInternalsFinder {
      */
     private static final String CLASS_FILE_EXTENSION = ".class";
 
+    private static final String JAR_URI_PREFIX = "jar:";
+
+    private static final String FILE_URI_PREFIX = "file:";
+
     /**
      * 缓存
      * key jar的uri地址
@@ -74,11 +79,16 @@ public class PackageInternalsFinder {
      * 1. 将 Java 包名转换为文件路径格式（com.example → com/example）。
      * 2. 获取所有资源 URL（可能是目录或 JAR）。
      * 3. 调用 {@link #listUnder(String, URL)} 方法，获取该路径下的所有 .class 文件。
+     * 4. 结果缓存在{@link DynamicCompilerCache}中，classpath变化时失效。
      *
      * @param packageName 指定包名
      * @return class文件对应的CustomJavaFileObject集合
      */
     public List<JavaFileObject> find(String packageName) throws IOException {
+        List<JavaFileObject> cached = DynamicCompilerCache.getPackage(classLoader, packageName);
+        if (cached != null) {
+            return cached;
+        }
         String javaPackageName = packageName.replaceAll("\\.", "/");
         List<JavaFileObject> result = new ArrayList<>();
         Enumeration<URL> urlEnumeration = classLoader.getResources(javaPackageName);
@@ -86,6 +96,7 @@ public class PackageInternalsFinder {
             URL packageFolderURL = urlEnumeration.nextElement();
             result.addAll(listUnder(packageName, packageFolderURL));
         }
+        DynamicCompilerCache.putPackage(classLoader, packageName, result);
         return result;
     }
 
@@ -105,7 +116,7 @@ public class PackageInternalsFinder {
         try {
             String jarUri = packageFolderURL.toExternalForm().substring(0, packageFolderURL.toExternalForm().lastIndexOf("!/"));
             JarFileIndex jarFileIndex = INDEX_MAPPING.get(jarUri);
-            if (jarFileIndex == null) {
+            if (jarFileIndex == null || !jarFileIndex.isValid()) {
                 jarFileIndex = new JarFileIndex(jarUri, URI.create(jarUri + "!/"));
                 INDEX_MAPPING.put(jarUri, jarFileIndex);
             }
@@ -209,16 +220,31 @@ public class PackageInternalsFinder {
          */
         private final Map<String, List<ClassUriWrapper>> packages = new HashMap<>();
 
+        /**
+         * 本地jar文件的class entry索引，与{@link io.github.future0923.debug.tools.hotswap.core.util.scanner.ClassPathScanner}共用。嵌套的jar为null
+         */
+        private final JarEntryIndex entryIndex;
+
         public JarFileIndex(String jarUri, URI uri) throws IOException {
             this.jarUri = jarUri;
             this.uri = uri;
-            loadIndex();
+            this.entryIndex = loadIndex();
         }
 
         /**
          * 载入jar索引
+         *
+         * @return 本地jar文件的class entry索引，嵌套的jar返回null
          */
-        private void loadIndex() throws IOException {
+        private JarEntryIndex loadIndex() throws IOException {
+            String fileUri = jarUri.startsWith(JAR_URI_PREFIX) ? jarUri.substring(JAR_URI_PREFIX.length()) : null;
+            if (fileUri != null && fileUri.startsWith(FILE_URI_PREFIX) && !fileUri.contains("!/")) {
+                JarEntryIndex index = JarEntryIndex.getIndex(new File(URI.create(fileUri)));
+                for (String entryName : index.getClassEntries("")) {
+                    addEntry("", entryName);
+                }
+                return index;
+            }
             JarURLConnection jarConn = (JarURLConnection) uri.toURL().openConnection();
             String rootEntryName = jarConn.getEntryName() == null ? "" : jarConn.getEntryName();
             Enumeration<JarEntry> entryEnum = jarConn.getJarFile().entries();
@@ -226,23 +252,35 @@ public class PackageInternalsFinder {
                 JarEntry jarEntry = entryEnum.nextElement();
                 String entryName = jarEntry.getName();
                 if (entryName.startsWith(rootEntryName) && entryName.endsWith(CLASS_FILE_EXTENSION)) {
-                    String className = entryName
-                            .substring(0, entryName.length() - CLASS_FILE_EXTENSION.length())
-                            .replace(rootEntryName, "")
-                            .replace("/", ".");
-                    if (className.startsWith(".")) {
-                        className = className.substring(1);
-                    }
-                    if (className.equals("package-info")
-                            || className.equals("module-info")
-                            || className.lastIndexOf(".") == -1) {
-                        continue;
-                    }
-                    String packageName = className.substring(0, className.lastIndexOf("."));
-                    List<ClassUriWrapper> classes = packages.computeIfAbsent(packageName, k -> new ArrayList<>());
-                    classes.add(new ClassUriWrapper(className, URI.create(jarUri + "!/" + entryName)));
+                    addEntry(rootEntryName, entryName);
                 }
             }
+            return null;
+        }
+
+        private void addEntry(String rootEntryName, String entryName) {
+            String className = entryName
+                    .substring(0, entryName.length() - CLASS_FILE_EXTENSION.length())
+                    .replace(rootEntryName, "")
+                    .replace("/", ".");
+            if (className.startsWith(".")) {
+                className = className.substring(1);
+            }
+            if (className.equals("package-info")
+                    || className.equals("module-info")
+                    || className.lastIndexOf(".") == -1) {
+                return;
+            }
+            String packageName = className.substring(0, className.lastIndexOf("."));
+            List<ClassUriWrapper> classes = packages.computeIfAbsent(packageName, k -> new ArrayList<>());
+            classes.add(new ClassUriWrapper(className, URI.create(jarUri + "!/" + entryName)));
+        }
+
+        /**
+         * jar文件是否没有变化，嵌套的jar无法判断，始终有效
+         */
+        public boolean isValid() {
+            return entryIndex == null || entryIndex.isValid();
         }
 
         /**
@@ -33,4 +33,11 @@ public class ServerConfig {
     private int tcpPort;
 
     private int httpPort;
+
+    /**
+     * 运行结果printResult最多返回的字符数，超出时截断，完整内容按需分包获取
+     */
+    private int resultPreviewLength = DEFAULT_RESULT_PREVIEW_LENGTH;
+
+    public static final int DEFAULT_RESULT_PREVIEW_LENGTH = 64 * 1024;
 }
@@ -52,6 +52,28 @@ public abstract class DebugToolsGroovyScript extends Script {
         return BeanInstanceUtils.getInstances(targetClass);
     }
 
+    /**
+     * 获取JVM中指定Class的实例，找到limit个后停止
+     *
+     * @param targetClass 要获取的class对象
+     * @param limit       最多获取的数量，小于0时不限制，等于0时返回空数组
+     * @param <T>         具体的类型
+     * @return 实例数组
+     */
+    public <T> T[] getInstances(Class<T> targetClass, int limit) {
+        return BeanInstanceUtils.getInstances(targetClass, limit);
+    }
+
+    /**
+     * 统计JVM中指定Class存活实例的个数
+     *
+     * @param targetClass 要统计的class对象
+     * @return 实例个数
+     */
+    public long countInstances(Class<?> targetClass) {
+        return BeanInstanceUtils.countInstances(targetClass);
+    }
+
     /**
      * 获取Spring容器中指定Bean的所有实例
      *
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.groovy;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import io.github.future0923.debug.tools.base.classloader.GroovyScriptClassLoader;
+import io.github.future0923.debug.tools.base.hutool.core.util.HexUtil;
+import io.github.future0923.debug.tools.server.http.handler.AllClassLoaderHttpHandler;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Groovy脚本编译缓存
+ * <p>
+ * 每个应用类加载器共用一个 {@link ScriptClassLoader}（相当于共用一个GroovyShell），应用类加载器作为弱引用key，编译后的脚本类按(脚本hash, 类加载器)
+ * 放入LRU缓存，相同脚本重复执行时不再编译。每次执行都创建新的脚本实例和 {@link Binding}，变量通过Binding传入，执行之间互不影响。
+ * 被淘汰的脚本类会从Groovy类加载器的缓存中移除，使其可以被回收。
+ *
+ * @author future0923
+ */
+public class GroovyScriptCache {
+
+    public static final GroovyScriptCache INSTANCE = new GroovyScriptCache();
+
+    /**
+     * 最多缓存的脚本类数量
+     */
+    private static final int MAX_SCRIPTS = 128;
+
+    private static final String SCRIPT_CLASS_PREFIX = "DebugToolsScript_";
+
+    private static final String SCRIPT_CODE_BASE = "/groovy/script";
+
+    /**
+     * 应用类加载器 -> 脚本类加载器，脚本类加载器只弱引用应用类加载器
+     */
+    private final Map<ClassLoader, ScriptClassLoader> classLoaders = new WeakHashMap<>();
+
+    /**
+     * (脚本hash, 脚本类加载器) -> 编译后的脚本类
+     */
+    private final Map<ScriptKey, Class<?>> scripts = new LinkedHashMap<ScriptKey, Class<?>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ScriptKey, Class<?>> eldest) {
+            if (size() > MAX_SCRIPTS) {
+                eldest.getKey().classLoader.removeClass(eldest.getValue().getName());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private GroovyScriptCache() {
+
+    }
+
+    /**
+     * 获取应用类加载器对应的脚本类加载器
+     *
+     * @param defaultClassLoader 应用的类加载器
+     */
+    public synchronized ScriptClassLoader getClassLoader(ClassLoader defaultClassLoader) {
+        ScriptClassLoader classLoader = classLoaders.get(defaultClassLoader);
+        if (classLoader == null) {
+            CompilerConfiguration configuration = new CompilerConfiguration();
+            configuration.setScriptBaseClass(DebugToolsGroovyScript.class.getName());
+            GroovyScriptClassLoader groovyScriptClassLoader = GroovyScriptClassLoader.newInstance(AllClassLoaderHttpHandler.getDebugToolsClassLoader(), defaultClassLoader);
+            classLoader = new ScriptClassLoader(groovyScriptClassLoader, configuration);
+            classLoaders.put(defaultClassLoader, classLoader);
+        }
+        return classLoader;
+    }
+
+    /**
+     * 执行脚本，未编译过的脚本先编译并缓存
+     *
+     * @param classLoader 脚本类加载器
+     * @param script      脚本内容
+     * @param bindings    绑定的变量
+     * @return 脚本执行结果
+     */
+    public Object run(ScriptClassLoader classLoader, String script, Map<String, Object> bindings) {
+        Binding binding = bindings == null ? new Binding() : new Binding(new HashMap<>(bindings));
+        return InvokerHelper.createScript(getScriptClass(classLoader, script), binding).run();
+    }
+
+    /**
+     * 获取编译后的脚本类
+     */
+    private Class<?> getScriptClass(ScriptClassLoader classLoader, String script) {
+        ScriptKey key = new ScriptKey(hash(script), classLoader);
+        synchronized (this) {
+            Class<?> scriptClass = scripts.get(key);
+            if (scriptClass != null) {
+                return scriptClass;
+            }
+        }
+        Class<?> scriptClass;
+        synchronized (classLoader) {
+            synchronized (this) {
+                Class<?> cached = scripts.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            String className = SCRIPT_CLASS_PREFIX + key.hash.substring(0, 16);
+            classLoader.removeClass(className);
+            scriptClass = classLoader.parseClass(new GroovyCodeSource(script, className + ".groovy", SCRIPT_CODE_BASE), false);
+        }
+        synchronized (this) {
+            scripts.put(key, scriptClass);
+        }
+        return scriptClass;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        for (ScriptClassLoader classLoader : classLoaders.values()) {
+            classLoader.clearCache();
+        }
+        scripts.clear();
+        classLoaders.clear();
+    }
+
+    private static String hash(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexUtil.encodeHexStr(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 脚本类加载器，可以移除单个脚本类的缓存
+     */
+    public static class ScriptClassLoader extends GroovyClassLoader {
+
+        private final GroovyScriptClassLoader groovyScriptClassLoader;
+
+        private ScriptClassLoader(GroovyScriptClassLoader groovyScriptClassLoader, CompilerConfiguration configuration) {
+            super(groovyScriptClassLoader, configuration);
+            this.groovyScriptClassLoader = groovyScriptClassLoader;
+        }
+
+        public GroovyScriptClassLoader getGroovyScriptClassLoader() {
+            return groovyScriptClassLoader;
+        }
+
+        private void removeClass(String className) {
+            removeClassCacheEntry(className);
+        }
+    }
+
+    private static class ScriptKey {
+
+        private final String hash;
+
+        private final ScriptClassLoader classLoader;
+
+        private ScriptKey(String hash, ScriptClassLoader classLoader) {
+            this.hash = hash;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ScriptKey)) {
+                return false;
+            }
+            ScriptKey that = (ScriptKey) o;
+            return hash.equals(that.hash) && classLoader == that.classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode() * 31 + System.identityHashCode(classLoader);
+        }
+    }
+}
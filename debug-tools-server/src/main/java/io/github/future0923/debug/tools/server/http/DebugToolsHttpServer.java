@@ -20,12 +20,19 @@ import com.sun.net.httpserver.HttpServer;
 import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.server.http.handler.AllClassLoaderHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.ChangePrintSqlTypeHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.ClassPathScanStatsHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.ClassPoolStatsHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.GetApplicationNameHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.GetPrintSqlTypeHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.IndexHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.ProfilerResultHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.ResultCacheStatsHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.RunResultDetailHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.RunResultTraceHttpHandler;
 import io.github.future0923.debug.tools.server.http.handler.RunResultTypeHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.SchedulerStatsHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.SqlPrintStatusHttpHandler;
+import io.github.future0923.debug.tools.server.http.handler.WatchEventStatsHttpHandler;
 import lombok.Getter;
 
 import java.io.IOException;
@@ -63,6 +70,13 @@ public class DebugToolsHttpServer {
         httpServer.createContext(RunResultTraceHttpHandler.PATH, RunResultTraceHttpHandler.INSTANCE);
         httpServer.createContext(GetPrintSqlTypeHttpHandler.PATH, GetPrintSqlTypeHttpHandler.INSTANCE);
         httpServer.createContext(ChangePrintSqlTypeHttpHandler.PATH, ChangePrintSqlTypeHttpHandler.INSTANCE);
+        httpServer.createContext(ProfilerResultHttpHandler.PATH, ProfilerResultHttpHandler.INSTANCE);
+        httpServer.createContext(SqlPrintStatusHttpHandler.PATH, SqlPrintStatusHttpHandler.INSTANCE);
+        httpServer.createContext(ResultCacheStatsHttpHandler.PATH, ResultCacheStatsHttpHandler.INSTANCE);
+        httpServer.createContext(ClassPoolStatsHttpHandler.PATH, ClassPoolStatsHttpHandler.INSTANCE);
+        httpServer.createContext(SchedulerStatsHttpHandler.PATH, SchedulerStatsHttpHandler.INSTANCE);
+        httpServer.createContext(ClassPathScanStatsHttpHandler.PATH, ClassPathScanStatsHttpHandler.INSTANCE);
+        httpServer.createContext(WatchEventStatsHttpHandler.PATH, WatchEventStatsHttpHandler.INSTANCE);
     }
 
     public void start() {
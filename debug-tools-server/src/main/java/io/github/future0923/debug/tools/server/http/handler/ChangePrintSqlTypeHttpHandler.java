@@ -19,6 +19,7 @@ package io.github.future0923.debug.tools.server.http.handler;
 import com.sun.net.httpserver.Headers;
 import io.github.future0923.debug.tools.base.hutool.core.util.StrUtil;
 import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.sql.SqlPrintByteCodeEnhance;
 import io.github.future0923.debug.tools.sql.SqlPrintInterceptor;
 
 /**
@@ -41,7 +42,7 @@ public class ChangePrintSqlTypeHttpHandler extends BaseHttpHandler<String, Strin
         if (StrUtil.isBlank(printSqlType)) {
             return "";
         }
-        SqlPrintInterceptor.setPrintSqlType(printSqlType);
+        SqlPrintByteCodeEnhance.changePrintSqlType(printSqlType);
         String type = SqlPrintInterceptor.printSqlType.getType();
         logger.info("change printSqlType to {}", type);
         return type;
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.ClassPathScanStatsRes;
+import io.github.future0923.debug.tools.hotswap.core.util.scanner.ClassPathScanner;
+import io.github.future0923.debug.tools.hotswap.core.util.scanner.JarEntryIndex;
+
+/**
+ * 获取类路径扫描统计
+ *
+ * @author future0923
+ */
+public class ClassPathScanStatsHttpHandler extends BaseHttpHandler<Void, ClassPathScanStatsRes> {
+
+    public static final ClassPathScanStatsHttpHandler INSTANCE = new ClassPathScanStatsHttpHandler();
+
+    public static final String PATH = "/classPathScanStats";
+
+    private ClassPathScanStatsHttpHandler() {
+
+    }
+
+    @Override
+    protected ClassPathScanStatsRes doHandle(Void req, Headers responseHeaders) {
+        ClassPathScanStatsRes res = new ClassPathScanStatsRes();
+        res.setScanCount(ClassPathScanner.getScanCount());
+        res.setScannedFileCount(ClassPathScanner.getScannedFileCount());
+        res.setScanTime(ClassPathScanner.getScanTime());
+        res.setJarIndexCount(ClassPathScanner.getJarIndexCount());
+        res.setCachedJarIndexCount(JarEntryIndex.getCachedIndexCount());
+        res.setMaxCachedJarIndexes(JarEntryIndex.MAX_CACHED_INDEXES);
+        res.setJarIndexEvictionCount(JarEntryIndex.getEvictionCount());
+        return res;
+    }
+}
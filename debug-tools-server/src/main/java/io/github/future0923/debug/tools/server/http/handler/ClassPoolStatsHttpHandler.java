@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.ClassPoolStatsRes;
+import io.github.future0923.debug.tools.hotswap.core.util.JavassistUtil;
+
+/**
+ * 获取Javassist ClassPool统计
+ *
+ * @author future0923
+ */
+public class ClassPoolStatsHttpHandler extends BaseHttpHandler<Void, ClassPoolStatsRes> {
+
+    public static final ClassPoolStatsHttpHandler INSTANCE = new ClassPoolStatsHttpHandler();
+
+    public static final String PATH = "/classPoolStats";
+
+    private ClassPoolStatsHttpHandler() {
+
+    }
+
+    @Override
+    protected ClassPoolStatsRes doHandle(Void req, Headers responseHeaders) {
+        ClassPoolStatsRes res = new ClassPoolStatsRes();
+        res.setPoolCount(JavassistUtil.getClassPoolCount());
+        res.setCachedClassCount(JavassistUtil.getCachedClassCount());
+        res.setMaxCachedClasses(JavassistUtil.MAX_CACHED_CLASSES);
+        res.setEvictionCount(JavassistUtil.getEvictionCount());
+        return res;
+    }
+}
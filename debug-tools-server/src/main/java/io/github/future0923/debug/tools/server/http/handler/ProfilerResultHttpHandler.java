@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.dto.ProfilerResultDTO;
+import io.github.future0923.debug.tools.server.profiler.SamplingProfiler;
+
+/**
+ * 获取采样分析器结果
+ *
+ * @author future0923
+ */
+public class ProfilerResultHttpHandler extends BaseHttpHandler<Void, ProfilerResultDTO> {
+
+    public static final ProfilerResultHttpHandler INSTANCE = new ProfilerResultHttpHandler();
+
+    public static final String PATH = "/profiler/result";
+
+    private ProfilerResultHttpHandler() {
+
+    }
+
+    @Override
+    protected ProfilerResultDTO doHandle(Void req, Headers responseHeaders) {
+        return SamplingProfiler.INSTANCE.getResult();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.ResultCacheStatsRes;
+import io.github.future0923.debug.tools.server.utils.DebugToolsResultStore;
+
+/**
+ * 获取运行结果存储统计
+ *
+ * @author future0923
+ */
+public class ResultCacheStatsHttpHandler extends BaseHttpHandler<Void, ResultCacheStatsRes> {
+
+    public static final ResultCacheStatsHttpHandler INSTANCE = new ResultCacheStatsHttpHandler();
+
+    public static final String PATH = "/resultCacheStats";
+
+    private ResultCacheStatsHttpHandler() {
+
+    }
+
+    @Override
+    protected ResultCacheStatsRes doHandle(Void req, Headers responseHeaders) {
+        return DebugToolsResultStore.INSTANCE.getStats();
+    }
+}
@@ -37,8 +37,11 @@ public class RunResultDetailHttpHandler extends BaseHttpHandler<RunResultDetailR
     }
     @Override
     protected List<RunResultDTO> doHandle(RunResultDetailReq req, Headers responseHeaders) {
-        String offsetPath = req.getOffsetPath();
+        String[] pageOffsetPath = DebugToolsResultUtils.parsePageOffsetPath(req.getOffsetPath());
+        String offsetPath = pageOffsetPath[0];
+        int offset = req.getOffset() != null ? req.getOffset() : pageOffsetPath[1] != null ? Integer.parseInt(pageOffsetPath[1]) : 0;
+        int limit = req.getLimit() != null ? req.getLimit() : DebugToolsResultUtils.DEFAULT_PAGE_SIZE;
         Object valueByOffset = DebugToolsResultUtils.getValueByOffset(offsetPath);
-        return DebugToolsResultUtils.convertRunResultDTO(valueByOffset, offsetPath);
+        return DebugToolsResultUtils.convertRunResultDTO(valueByOffset, offsetPath, offset, limit);
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.SchedulerStatsRes;
+import io.github.future0923.debug.tools.hotswap.core.command.Scheduler;
+import io.github.future0923.debug.tools.hotswap.core.command.impl.SchedulerImpl;
+import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
+
+/**
+ * 获取热部署命令调度器统计
+ *
+ * @author future0923
+ */
+public class SchedulerStatsHttpHandler extends BaseHttpHandler<Void, SchedulerStatsRes> {
+
+    public static final SchedulerStatsHttpHandler INSTANCE = new SchedulerStatsHttpHandler();
+
+    public static final String PATH = "/schedulerStats";
+
+    private SchedulerStatsHttpHandler() {
+
+    }
+
+    @Override
+    protected SchedulerStatsRes doHandle(Void req, Headers responseHeaders) {
+        SchedulerStatsRes res = new SchedulerStatsRes();
+        Scheduler scheduler = PluginManager.getInstance().getScheduler();
+        if (!(scheduler instanceof SchedulerImpl)) {
+            return res;
+        }
+        SchedulerImpl schedulerImpl = (SchedulerImpl) scheduler;
+        res.setEnabled(true);
+        res.setPendingCount(schedulerImpl.getPendingCount());
+        res.setRunningCount(schedulerImpl.getRunningCount());
+        res.setExecutorQueueSize(schedulerImpl.getExecutorQueueSize());
+        res.setExecutedCount(schedulerImpl.getExecutedCount());
+        res.setAverageWaitTime(schedulerImpl.getAverageWaitTime());
+        res.setMaxWaitTime(schedulerImpl.getMaxWaitTime());
+        res.setAverageExecuteTime(schedulerImpl.getAverageExecuteTime());
+        return res;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.SqlPrintStatusRes;
+import io.github.future0923.debug.tools.sql.SqlPrintByteCodeEnhance;
+import io.github.future0923.debug.tools.sql.SqlPrintInterceptor;
+
+/**
+ * 获取SQL打印增强状态
+ *
+ * @author future0923
+ */
+public class SqlPrintStatusHttpHandler extends BaseHttpHandler<Void, SqlPrintStatusRes> {
+
+    public static final SqlPrintStatusHttpHandler INSTANCE = new SqlPrintStatusHttpHandler();
+
+    public static final String PATH = "/sqlPrintStatus";
+
+    private SqlPrintStatusHttpHandler() {
+
+    }
+
+    @Override
+    protected SqlPrintStatusRes doHandle(Void req, Headers responseHeaders) {
+        SqlPrintStatusRes res = new SqlPrintStatusRes();
+        res.setPrintSqlType(SqlPrintInterceptor.printSqlType.getType());
+        res.setInstalled(SqlPrintByteCodeEnhance.isInstalled());
+        res.setEnhancedClasses(SqlPrintByteCodeEnhance.getEnhancedClasses());
+        return res;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.http.handler;
+
+import com.sun.net.httpserver.Headers;
+import io.github.future0923.debug.tools.common.protocal.http.WatchEventStatsRes;
+import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
+import io.github.future0923.debug.tools.hotswap.core.watch.Watcher;
+import io.github.future0923.debug.tools.hotswap.core.watch.nio.AbstractNIO2Watcher;
+import io.github.future0923.debug.tools.hotswap.core.watch.nio.EventDispatcher;
+
+/**
+ * 获取文件监听事件统计
+ *
+ * @author future0923
+ */
+public class WatchEventStatsHttpHandler extends BaseHttpHandler<Void, WatchEventStatsRes> {
+
+    public static final WatchEventStatsHttpHandler INSTANCE = new WatchEventStatsHttpHandler();
+
+    public static final String PATH = "/watchEventStats";
+
+    private WatchEventStatsHttpHandler() {
+
+    }
+
+    @Override
+    protected WatchEventStatsRes doHandle(Void req, Headers responseHeaders) {
+        WatchEventStatsRes res = new WatchEventStatsRes();
+        Watcher watcher = PluginManager.getInstance().getWatcher();
+        if (!(watcher instanceof AbstractNIO2Watcher)) {
+            return res;
+        }
+        EventDispatcher dispatcher = ((AbstractNIO2Watcher) watcher).getDispatcher();
+        res.setWatching(true);
+        res.setDispatchedCount(dispatcher.getDispatchedCount());
+        res.setCoalescedCount(dispatcher.getCoalescedCount());
+        res.setDroppedCount(dispatcher.getDroppedCount());
+        res.setOverflowCount(dispatcher.getOverflowCount());
+        res.setQueueSize(dispatcher.getQueueSize());
+        return res;
+    }
+}
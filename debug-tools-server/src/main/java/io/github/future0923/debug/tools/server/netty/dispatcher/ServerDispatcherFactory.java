@@ -20,18 +20,22 @@ import io.github.future0923.debug.tools.common.protocal.packet.request.ChangeTra
 import io.github.future0923.debug.tools.common.protocal.packet.request.ClearRunResultRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.HeartBeatRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.LocalCompilerHotDeployRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.request.ProfilerRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RemoteCompilerHotDeployRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.ResourceHotDeployRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RunGroovyScriptRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.request.RunResultContentRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RunTargetMethodRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.request.ServerCloseRequestPacket;
 import io.github.future0923.debug.tools.server.netty.handler.ChangeTraceMethodRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.ClearRunResultRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.HeartBeatRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.LocalCompilerHotDeployRequestHandler;
+import io.github.future0923.debug.tools.server.netty.handler.ProfilerRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.RemoteCompilerHotDeployRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.ResourceHotDeployRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.RunGroovyScriptRequestHandler;
+import io.github.future0923.debug.tools.server.netty.handler.RunResultContentRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.ServerCloseRequestHandler;
 import io.github.future0923.debug.tools.server.netty.handler.RunTargetMethodRequestHandler;
 
@@ -58,6 +62,8 @@ public final class ServerDispatcherFactory {
         dispatcher.register(RemoteCompilerHotDeployRequestPacket.class, RemoteCompilerHotDeployRequestHandler.INSTANCE);
         dispatcher.register(ResourceHotDeployRequestPacket.class, ResourceHotDeployRequestHandler.INSTANCE);
         dispatcher.register(ChangeTraceMethodRequestPacket.class, ChangeTraceMethodRequestHandler.INSTANCE);
+        dispatcher.register(ProfilerRequestPacket.class, ProfilerRequestHandler.INSTANCE);
+        dispatcher.register(RunResultContentRequestPacket.class, RunResultContentRequestHandler.INSTANCE);
         return dispatcher;
     }
 }
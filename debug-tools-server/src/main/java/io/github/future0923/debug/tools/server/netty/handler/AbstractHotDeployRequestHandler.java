@@ -27,6 +27,7 @@ import io.github.future0923.debug.tools.hotswap.core.config.PluginConfiguration;
 import io.github.future0923.debug.tools.hotswap.core.config.PluginManager;
 import io.github.future0923.debug.tools.hotswap.core.util.classloader.ClassLoaderHelper;
 import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
+import io.github.future0923.debug.tools.server.compiler.DynamicCompilerCache;
 import io.github.future0923.debug.tools.common.handler.PacketHandler;
 import io.netty.channel.ChannelHandlerContext;
 
@@ -76,6 +77,7 @@ public abstract class AbstractHotDeployRequestHandler<T extends Packet> implemen
             return;
         }
         writeFile(defaultClassLoader, byteCodesMap);
+        DynamicCompilerCache.classesChanged(defaultClassLoader, byteCodesMap.keySet());
         List<ClassDefinition> definitions = new ArrayList<>();
         for (Map.Entry<String, byte[]> entry : byteCodesMap.entrySet()) {
             if (ClassLoaderHelper.isClassLoaded(defaultClassLoader, entry.getKey())) {
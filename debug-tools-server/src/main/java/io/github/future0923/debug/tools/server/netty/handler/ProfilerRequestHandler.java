@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.netty.handler;
+
+import io.github.future0923.debug.tools.common.dto.ProfilerResultDTO;
+import io.github.future0923.debug.tools.common.enums.ProfilerAction;
+import io.github.future0923.debug.tools.common.handler.PacketHandler;
+import io.github.future0923.debug.tools.common.protocal.packet.request.ProfilerRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.response.ProfilerResponsePacket;
+import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
+import io.github.future0923.debug.tools.server.profiler.SamplingProfiler;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * 采样分析器请求
+ *
+ * @author future0923
+ */
+public class ProfilerRequestHandler implements PacketHandler<ProfilerRequestPacket> {
+
+    public static final ProfilerRequestHandler INSTANCE = new ProfilerRequestHandler();
+
+    private ProfilerRequestHandler() {}
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, ProfilerRequestPacket packet) throws Exception {
+        SamplingProfiler profiler = SamplingProfiler.INSTANCE;
+        ProfilerAction action = packet.getAction() == null ? ProfilerAction.FETCH : packet.getAction();
+        switch (action) {
+            case START:
+                profiler.start(packet.getInterval(), packet.getMaxDepth(), packet.getOnlyRunnable());
+                break;
+            case STOP:
+                profiler.stop();
+                break;
+            case RESET:
+                profiler.reset();
+                break;
+            default:
+                break;
+        }
+        ProfilerResultDTO result = profiler.getResult();
+        ctx.writeAndFlush(ProfilerResponsePacket.of(result, DebugToolsBootstrap.serverConfig.getApplicationName()));
+    }
+}
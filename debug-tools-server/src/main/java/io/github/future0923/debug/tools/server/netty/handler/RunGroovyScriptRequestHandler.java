@@ -16,8 +16,6 @@
  */
 package io.github.future0923.debug.tools.server.netty.handler;
 
-import groovy.lang.GroovyShell;
-import io.github.future0923.debug.tools.base.classloader.GroovyScriptClassLoader;
 import io.github.future0923.debug.tools.base.exception.DefaultClassLoaderException;
 import io.github.future0923.debug.tools.base.hutool.core.convert.Convert;
 import io.github.future0923.debug.tools.base.hutool.core.util.ClassUtil;
@@ -26,12 +24,11 @@ import io.github.future0923.debug.tools.common.enums.ResultClassType;
 import io.github.future0923.debug.tools.common.protocal.packet.request.RunGroovyScriptRequestPacket;
 import io.github.future0923.debug.tools.common.protocal.packet.response.RunGroovyScriptResponsePacket;
 import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
-import io.github.future0923.debug.tools.server.groovy.DebugToolsGroovyScript;
+import io.github.future0923.debug.tools.server.groovy.GroovyScriptCache;
 import io.github.future0923.debug.tools.server.http.handler.AllClassLoaderHttpHandler;
 import io.github.future0923.debug.tools.common.handler.PacketHandler;
 import io.github.future0923.debug.tools.server.utils.DebugToolsResultUtils;
 import io.netty.channel.ChannelHandlerContext;
-import org.codehaus.groovy.control.CompilerConfiguration;
 
 /**
  * 执行 Groovy 脚本
@@ -48,15 +45,13 @@ public class RunGroovyScriptRequestHandler implements PacketHandler<RunGroovyScr
 
     @Override
     public void handle(ChannelHandlerContext ctx, RunGroovyScriptRequestPacket packet) {
-        CompilerConfiguration configuration = new CompilerConfiguration();
-        configuration.setScriptBaseClass(DebugToolsGroovyScript.class.getName());
         String applicationName = DebugToolsBootstrap.serverConfig.getApplicationName();
-        GroovyScriptClassLoader groovyScriptClassLoader = GroovyScriptClassLoader.init(AllClassLoaderHttpHandler.getDebugToolsClassLoader());
         ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+        GroovyScriptCache.ScriptClassLoader scriptClassLoader;
         try {
             ClassLoader defaultClassLoader = AllClassLoaderHttpHandler.getClassLoader(packet.getIdentity());
-            groovyScriptClassLoader.setDefaultClassLoader(defaultClassLoader);
-            Thread.currentThread().setContextClassLoader(groovyScriptClassLoader);
+            scriptClassLoader = GroovyScriptCache.INSTANCE.getClassLoader(defaultClassLoader);
+            Thread.currentThread().setContextClassLoader(scriptClassLoader.getGroovyScriptClassLoader());
         } catch (DefaultClassLoaderException e) {
             Thread.currentThread().setContextClassLoader(oldContextClassLoader);
             String offsetPath = RunResultDTO.genOffsetPathRandom(e);
@@ -64,10 +59,9 @@ public class RunGroovyScriptRequestHandler implements PacketHandler<RunGroovyScr
             ctx.writeAndFlush(RunGroovyScriptResponsePacket.of(e, offsetPath, applicationName));
             return;
         }
-        GroovyShell groovyShell = new GroovyShell(groovyScriptClassLoader, configuration);
         Object evaluateResult;
         try {
-            evaluateResult = groovyShell.evaluate(packet.getScript());
+            evaluateResult = GroovyScriptCache.INSTANCE.run(scriptClassLoader, packet.getScript(), packet.getBindings());
         } catch (Exception e) {
             Thread.currentThread().setContextClassLoader(oldContextClassLoader);
             String offsetPath = RunResultDTO.genOffsetPathRandom(e);
@@ -83,10 +77,19 @@ public class RunGroovyScriptRequestHandler implements PacketHandler<RunGroovyScr
             responsePacket.setPrintResult("NULL");
         } else if (ClassUtil.isSimpleValueType(evaluateResult.getClass())) {
             responsePacket.setResultClassType(ResultClassType.SIMPLE);
-            responsePacket.setPrintResult(Convert.toStr(evaluateResult));
+            String printResult = Convert.toStr(evaluateResult);
+            responsePacket.setPrintResult(DebugToolsResultUtils.preview(printResult));
+            responsePacket.setPrintResultLength(DebugToolsResultUtils.truncatedLength(printResult));
+            if (responsePacket.getPrintResultLength() != null) {
+                String offsetPath = RunResultDTO.genOffsetPathRandom(evaluateResult);
+                responsePacket.setOffsetPath(offsetPath);
+                DebugToolsResultUtils.putCache(offsetPath, evaluateResult);
+            }
         } else {
             responsePacket.setResultClassType(ResultClassType.OBJECT);
-            responsePacket.setPrintResult(evaluateResult.toString());
+            String printResult = evaluateResult.toString();
+            responsePacket.setPrintResult(DebugToolsResultUtils.preview(printResult));
+            responsePacket.setPrintResultLength(DebugToolsResultUtils.truncatedLength(printResult));
             String offsetPath = RunResultDTO.genOffsetPathRandom(evaluateResult);
             responsePacket.setOffsetPath(offsetPath);
             DebugToolsResultUtils.putCache(offsetPath, evaluateResult);
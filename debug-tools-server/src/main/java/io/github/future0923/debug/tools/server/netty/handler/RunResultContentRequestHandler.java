@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.netty.handler;
+
+import io.github.future0923.debug.tools.common.handler.PacketHandler;
+import io.github.future0923.debug.tools.common.protocal.packet.request.RunResultContentRequestPacket;
+import io.github.future0923.debug.tools.common.protocal.packet.response.RunResultContentResponsePacket;
+import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
+import io.github.future0923.debug.tools.server.utils.DebugToolsResultUtils;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * 获取完整运行结果内容
+ * <p>
+ * 内容按 {@link #DEFAULT_CHUNK_SIZE} 个字符分包发送，通道写缓冲超过高水位（不可写）时等待上一个包写出后再继续，
+ * 避免整个内容堆积在发送缓冲区中。
+ *
+ * @author future0923
+ */
+public class RunResultContentRequestHandler implements PacketHandler<RunResultContentRequestPacket> {
+
+    public static final RunResultContentRequestHandler INSTANCE = new RunResultContentRequestHandler();
+
+    /**
+     * 默认每个包的字符数
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * 每个包最多的字符数，JSON转义后也要小于帧大小上限
+     */
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private RunResultContentRequestHandler() {}
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, RunResultContentRequestPacket packet) throws Exception {
+        String applicationName = DebugToolsBootstrap.serverConfig.getApplicationName();
+        String offsetPath = packet.getOffsetPath();
+        Object value = DebugToolsResultUtils.getValueByOffset(offsetPath);
+        if (value == null) {
+            ctx.writeAndFlush(RunResultContentResponsePacket.fail(offsetPath, "Result not found or expired", applicationName));
+            return;
+        }
+        String content = DebugToolsResultUtils.toPrintResult(value);
+        int chunkSize = packet.getChunkSize() == null || packet.getChunkSize() <= 0 ? DEFAULT_CHUNK_SIZE : Math.min(packet.getChunkSize(), MAX_CHUNK_SIZE);
+        int offset = packet.getOffset() == null ? 0 : Math.max(0, Math.min(packet.getOffset(), content.length()));
+        Channel channel = ctx.channel();
+        do {
+            int end = (int) Math.min(content.length(), (long) offset + chunkSize);
+            RunResultContentResponsePacket responsePacket = new RunResultContentResponsePacket();
+            responsePacket.setApplicationName(applicationName);
+            responsePacket.setOffsetPath(offsetPath);
+            responsePacket.setOffset(offset);
+            responsePacket.setContent(content.substring(offset, end));
+            responsePacket.setTotalLength(content.length());
+            responsePacket.setLast(end == content.length());
+            ChannelFuture future = ctx.writeAndFlush(responsePacket);
+            offset = end;
+            // 业务线程池满时会在IO线程中执行，IO线程中不能等待
+            if (!channel.isWritable() && !channel.eventLoop().inEventLoop()) {
+                future.awaitUninterruptibly();
+            }
+            if (!channel.isActive()) {
+                return;
+            }
+        } while (offset < content.length());
+    }
+}
@@ -20,6 +20,7 @@ import io.github.future0923.debug.tools.base.around.RunMethodAround;
 import io.github.future0923.debug.tools.base.context.RunMethodContext;
 import io.github.future0923.debug.tools.base.exception.DefaultClassLoaderException;
 import io.github.future0923.debug.tools.base.hutool.core.convert.Convert;
+import io.github.future0923.debug.tools.base.hutool.core.util.BooleanUtil;
 import io.github.future0923.debug.tools.base.hutool.core.util.ClassUtil;
 import io.github.future0923.debug.tools.base.hutool.core.util.ReflectUtil;
 import io.github.future0923.debug.tools.base.hutool.core.util.StrUtil;
@@ -213,26 +214,27 @@ public class RunTargetMethodRequestHandler implements PacketHandler<RunTargetMet
             InvocationHandler invocationHandler = Proxy.getInvocationHandler(instance);
             if (DebugToolsEnvUtils.isAopProxy(invocationHandler)) {
                 try {
-                    long start = System.currentTimeMillis();
+                    long start = System.nanoTime();
                     Object result = invocationHandler.invoke(instance, bridgedMethod, targetMethodArgs);
-                    long end = System.currentTimeMillis();
+                    long end = System.nanoTime();
                     printResult(result, end - start, runDTO, ctx, voidType, traceMethod);
                     return result;
                 } catch (Throwable ignored) {
                 }
             }
         }
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Object result = bridgedMethod.invoke(instance, targetMethodArgs);
-        long end = System.currentTimeMillis();
+        long end = System.nanoTime();
         printResult(result, end - start, runDTO, ctx, voidType, traceMethod);
         return result;
     }
 
-    private void printResult(Object result, Long duration, RunDTO runDTO, ChannelHandlerContext ctx, boolean voidType, boolean traceMethod) {
+    private void printResult(Object result, long durationNanos, RunDTO runDTO, ChannelHandlerContext ctx, boolean voidType, boolean traceMethod) {
         RunTargetMethodResponsePacket packet = new RunTargetMethodResponsePacket();
         packet.setRunInfo(runDTO, DebugToolsBootstrap.serverConfig.getApplicationName());
-        packet.setDuration(duration);
+        packet.setDuration(durationNanos / 1_000_000L);
+        packet.setDurationNanos(durationNanos);
         if (voidType) {
             packet.setResultClassType(ResultClassType.VOID);
             packet.setPrintResult("Void");
@@ -242,10 +244,19 @@ public class RunTargetMethodRequestHandler implements PacketHandler<RunTargetMet
                 packet.setPrintResult("NULL");
             } else if (ClassUtil.isSimpleValueType(result.getClass())) {
                 packet.setResultClassType(ResultClassType.SIMPLE);
-                packet.setPrintResult(Convert.toStr(result));
+                String printResult = Convert.toStr(result);
+                packet.setPrintResult(DebugToolsResultUtils.preview(printResult));
+                packet.setPrintResultLength(DebugToolsResultUtils.truncatedLength(printResult));
+                if (packet.getPrintResultLength() != null) {
+                    String offsetPath = RunResultDTO.genOffsetPathRandom(result);
+                    packet.setOffsetPath(offsetPath);
+                    DebugToolsResultUtils.putCache(offsetPath, result);
+                }
             } else {
                 packet.setResultClassType(ResultClassType.OBJECT);
-                packet.setPrintResult(result.toString());
+                String printResult = result.toString();
+                packet.setPrintResult(DebugToolsResultUtils.preview(printResult));
+                packet.setPrintResultLength(DebugToolsResultUtils.truncatedLength(printResult));
                 String offsetPath = RunResultDTO.genOffsetPathRandom(result);
                 packet.setOffsetPath(offsetPath);
                 DebugToolsResultUtils.putCache(offsetPath, result);
@@ -253,6 +264,9 @@ public class RunTargetMethodRequestHandler implements PacketHandler<RunTargetMet
         }
         if (traceMethod) {
             List<MethodTreeNode> traceResult = MethodTrace.getResult();
+            if (BooleanUtil.isTrue(runDTO.getTraceMethodDTO().getTraceMergeSameCall())) {
+                traceResult = MethodTreeNode.mergeSameCall(traceResult);
+            }
             String offsetPath = RunResultDTO.genOffsetPathRandom(traceResult);
             DebugToolsResultUtils.putCache(offsetPath, traceResult);
             packet.setTraceOffsetPath(offsetPath);
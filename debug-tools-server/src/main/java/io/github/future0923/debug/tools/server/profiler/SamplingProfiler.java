@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.profiler;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.common.dto.ProfilerResultDTO;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 采样分析器
+ * <p>
+ * 按固定间隔通过 {@link ThreadMXBean} 采集所有线程的栈，聚合为折叠栈（火焰图格式），
+ * 不需要预先指定方法，也不修改字节码。
+ *
+ * @author future0923
+ */
+public class SamplingProfiler {
+
+    private static final Logger logger = Logger.getLogger(SamplingProfiler.class);
+
+    public static final SamplingProfiler INSTANCE = new SamplingProfiler();
+
+    /**
+     * 默认采样间隔(ms)
+     */
+    public static final long DEFAULT_INTERVAL = 20;
+
+    /**
+     * 默认最大栈深度
+     */
+    public static final int DEFAULT_MAX_DEPTH = 128;
+
+    /**
+     * 最多记录的不同栈数量，超出后计入 {@link #TRUNCATED_STACK}
+     */
+    private static final int MAX_STACKS = 20000;
+
+    private static final String TRUNCATED_STACK = "[truncated]";
+
+    /**
+     * 栈深度超过最大深度时，替代被截掉的靠近栈底的帧
+     */
+    private static final String TRUNCATED_FRAMES = "[truncated frames]";
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * 折叠栈 -> 出现次数
+     */
+    private final Map<String, AtomicLong> foldedStacks = new ConcurrentHashMap<>();
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private final AtomicLong stackCount = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    private ScheduledFuture<?> future;
+
+    private volatile long startTime;
+
+    private volatile long stopTime;
+
+    private volatile long interval = DEFAULT_INTERVAL;
+
+    private volatile int maxDepth = DEFAULT_MAX_DEPTH;
+
+    private volatile boolean onlyRunnable = true;
+
+    /**
+     * 采样线程id，采样时跳过自身
+     */
+    private volatile long samplerThreadId = -1;
+
+    private SamplingProfiler() {
+    }
+
+    /**
+     * 开始采样，清空之前的结果
+     *
+     * @param interval     采样间隔(ms)
+     * @param maxDepth     最大栈深度
+     * @param onlyRunnable 是否只采集RUNNABLE状态的线程
+     */
+    public synchronized void start(Long interval, Integer maxDepth, Boolean onlyRunnable) {
+        stop();
+        reset();
+        this.interval = interval == null || interval <= 0 ? DEFAULT_INTERVAL : interval;
+        this.maxDepth = maxDepth == null || maxDepth <= 0 ? DEFAULT_MAX_DEPTH : maxDepth;
+        this.onlyRunnable = onlyRunnable == null || onlyRunnable;
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r);
+                t.setName("DebugTools-Profiler");
+                t.setDaemon(true);
+                samplerThreadId = t.getId();
+                return t;
+            });
+        }
+        startTime = System.currentTimeMillis();
+        stopTime = 0;
+        future = executor.scheduleAtFixedRate(this::sample, 0, this.interval, TimeUnit.MILLISECONDS);
+        logger.info("sampling profiler started, interval {} ms", this.interval);
+    }
+
+    /**
+     * 停止采样，保留结果
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+            stopTime = System.currentTimeMillis();
+            logger.info("sampling profiler stopped, {} samples", sampleCount.get());
+        }
+    }
+
+    /**
+     * 清空结果
+     */
+    public synchronized void reset() {
+        foldedStacks.clear();
+        sampleCount.set(0);
+        stackCount.set(0);
+        startTime = future == null ? 0 : System.currentTimeMillis();
+    }
+
+    public boolean isRunning() {
+        return future != null;
+    }
+
+    /**
+     * 采样一次
+     */
+    private void sample() {
+        try {
+            // 只采集靠近栈顶的帧，多采集一帧用于判断是否被截断
+            int depth = maxDepth;
+            ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), depth == Integer.MAX_VALUE ? depth : depth + 1);
+            for (ThreadInfo threadInfo : threadInfos) {
+                if (threadInfo == null || threadInfo.getThreadId() == samplerThreadId) {
+                    continue;
+                }
+                if (onlyRunnable && threadInfo.getThreadState() != Thread.State.RUNNABLE) {
+                    continue;
+                }
+                StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+                if (stackTrace.length == 0) {
+                    continue;
+                }
+                String folded = fold(stackTrace, depth);
+                AtomicLong counter = foldedStacks.get(folded);
+                if (counter == null) {
+                    counter = foldedStacks.size() < MAX_STACKS
+                            ? foldedStacks.computeIfAbsent(folded, k -> new AtomicLong())
+                            : foldedStacks.computeIfAbsent(TRUNCATED_STACK, k -> new AtomicLong());
+                }
+                counter.incrementAndGet();
+                stackCount.incrementAndGet();
+            }
+            sampleCount.incrementAndGet();
+        } catch (Throwable e) {
+            logger.error("sampling profiler sample error", e);
+        }
+    }
+
+    /**
+     * 折叠栈，从栈底到栈顶以分号分隔
+     * <p>超过最大深度时保留靠近栈顶正在执行的帧，靠近栈底被截掉的帧合并为一个 {@link #TRUNCATED_FRAMES} 根帧，
+     * 火焰图中被截断的栈都归到这个根下
+     */
+    static String fold(StackTraceElement[] stackTrace, int maxDepth) {
+        int depth = Math.min(stackTrace.length, maxDepth);
+        StringBuilder sb = new StringBuilder(depth * 48 + TRUNCATED_FRAMES.length() + 1);
+        if (stackTrace.length > maxDepth) {
+            sb.append(TRUNCATED_FRAMES).append(';');
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            StackTraceElement element = stackTrace[i];
+            sb.append(element.getClassName()).append('.').append(element.getMethodName());
+            if (i > 0) {
+                sb.append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 获取当前结果
+     */
+    public ProfilerResultDTO getResult() {
+        Map<String, Long> snapshot = new HashMap<>(foldedStacks.size());
+        foldedStacks.forEach((stack, count) -> snapshot.put(stack, count.get()));
+        Map<String, Long> sorted = new LinkedHashMap<>(snapshot.size());
+        snapshot.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        ProfilerResultDTO result = new ProfilerResultDTO();
+        result.setRunning(isRunning());
+        result.setStartTime(startTime);
+        long end = isRunning() || stopTime == 0 ? System.currentTimeMillis() : stopTime;
+        result.setDuration(startTime == 0 ? 0 : end - startTime);
+        result.setInterval(interval);
+        result.setSampleCount(sampleCount.get());
+        result.setStackCount(stackCount.get());
+        result.setFoldedStacks(sorted);
+        return result;
+    }
+}
@@ -23,8 +23,7 @@ import io.github.future0923.debug.tools.base.trace.MethodTrace;
 import io.github.future0923.debug.tools.base.utils.DebugToolsClassUtils;
 import io.github.future0923.debug.tools.common.dto.TraceMethodDTO;
 import io.github.future0923.debug.tools.hotswap.core.util.JavassistUtil;
-import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
-import io.github.future0923.debug.tools.vm.JvmToolsUtils;
+import io.github.future0923.debug.tools.server.utils.BeanInstanceUtils;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtMethod;
@@ -35,15 +34,6 @@ import javassist.bytecode.ConstPool;
 import javassist.bytecode.Descriptor;
 import javassist.bytecode.Opcode;
 import lombok.Getter;
-import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.agent.builder.AgentBuilder;
-import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
-import net.bytebuddy.asm.Advice;
-import net.bytebuddy.description.NamedElement;
-import net.bytebuddy.description.method.MethodDescription;
-import net.bytebuddy.dynamic.scaffold.TypeValidation;
-import net.bytebuddy.matcher.ElementMatcher;
-import net.bytebuddy.matcher.ElementMatchers;
 import org.apache.commons.text.StringEscapeUtils;
 
 import java.beans.Introspector;
@@ -64,13 +54,6 @@ import java.util.regex.Pattern;
  */
 public class TraceMethodClassFileTransformer {
 
-    /**
-     * 已经追踪的方法信息
-     * key:方法唯一签名
-     * value:可以用来还原为之前的信息
-     */
-    private static final Map<String, ResettableClassFileTransformer> RESETTABLE_CLASS_FILE_TRANSFORMER_MAP = new ConcurrentHashMap<>();
-
     /**
      * 忽略的方法
      */
@@ -85,7 +68,7 @@ public class TraceMethodClassFileTransformer {
     /**
      * 追踪MyBatis时拦截的类名
      */
-    private static final String TRACE_MYBATIS_CLASS_NAME = "org.apache.ibatis.binding.MapperProxy";
+    static final String TRACE_MYBATIS_CLASS_NAME = "org.apache.ibatis.binding.MapperProxy";
 
     /**
      * 追踪MyBatis时拦截的方法名
@@ -103,23 +86,29 @@ public class TraceMethodClassFileTransformer {
      */
     public static void traceMethod(ClassLoader classLoader, Class<?> targetClass, Method targetMethod, TraceMethodDTO traceMethodDTO) throws Exception {
         MethodTrace.redefineTraceMethodProcessing = true;
-        ClassPool classPool = JavassistUtil.getClassPool(classLoader);
-        CtClass ctClass = classPool.get(targetClass.getName());
-        String methodDescription = getDescriptor(classPool, targetMethod);
-        redefineMethod(
-                classLoader,
-                classPool,
-                ctClass,
-                targetMethod.getName(),
-                methodDescription,
-                traceMethodDTO.getTraceSkipStartGetSetCheckBox(),
-                traceMethodDTO.getTraceBusinessPackageRegexp(),
-                traceMethodDTO.getTraceIgnorePackageRegexp(),
-                traceMethodDTO.getTraceMaxDepth() == null ? 1 : traceMethodDTO.getTraceMaxDepth()
-        );
-        redefineMyBatisMethod(classLoader, classPool, traceMethodDTO.getTraceMyBatis());
+        try {
+            ClassPool classPool = JavassistUtil.getClassPool(classLoader);
+            CtClass ctClass = classPool.get(targetClass.getName());
+            String methodDescription = getDescriptor(classPool, targetMethod);
+            redefineMethod(
+                    classLoader,
+                    classPool,
+                    ctClass,
+                    targetMethod.getName(),
+                    methodDescription,
+                    traceMethodDTO.getTraceSkipStartGetSetCheckBox(),
+                    traceMethodDTO.getTraceBusinessPackageRegexp(),
+                    traceMethodDTO.getTraceIgnorePackageRegexp(),
+                    traceMethodDTO.getTraceMaxDepth() == null ? 1 : traceMethodDTO.getTraceMaxDepth()
+            );
+            redefineMyBatisMethod(classLoader, classPool, traceMethodDTO.getTraceMyBatis());
+            // 所有追踪目标注册完成后统一批量重转换
+            TraceMethodRegistry.retransform();
+        } finally {
+            MethodTrace.redefineTraceMethodProcessing = false;
+        }
+        MethodTrace.setTraceMode(traceMethodDTO.getTraceMode(), traceMethodDTO.getTraceAggregateMaxChildren());
         MethodTrace.setTraceSqlStatus(traceMethodDTO.getTraceSQL());
-        MethodTrace.redefineTraceMethodProcessing = false;
     }
 
     /**
@@ -132,12 +121,13 @@ public class TraceMethodClassFileTransformer {
      */
     public static void traceMethod(String className, String methodName, String methodDescription) throws Exception {
         MethodTrace.redefineTraceMethodProcessing = true;
-        String qualifierNameKey = DebugToolsClassUtils.getQualifierMethod(className, methodName, methodDescription);
-        RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfAbsent(
-                qualifierNameKey,
-                key -> redefineClass(className, methodName, methodDescription)
-        );
-        MethodTrace.redefineTraceMethodProcessing = false;
+        try {
+            if (TraceMethodRegistry.addTarget(className, methodName, methodDescription)) {
+                TraceMethodRegistry.retransform();
+            }
+        } finally {
+            MethodTrace.redefineTraceMethodProcessing = false;
+        }
     }
 
     /**
@@ -150,14 +140,14 @@ public class TraceMethodClassFileTransformer {
      */
     public static void cancelTraceMethod(String className, String methodName, String methodDescription) throws Exception {
         MethodTrace.redefineTraceMethodProcessing = true;
-        String qualifierNameKey = DebugToolsClassUtils.getQualifierMethod(className, methodName, methodDescription);
-        RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfPresent(qualifierNameKey, (k, transformer) -> {
-            transformer.reset(DebugToolsBootstrap.INSTANCE.getInstrumentation(), AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
-            // 返回 null 表示移除
-            return null;
-        });
-        IGNORED_METHOD_SET.add(qualifierNameKey);
-        MethodTrace.redefineTraceMethodProcessing = false;
+        try {
+            if (TraceMethodRegistry.removeTarget(className, methodName, methodDescription)) {
+                TraceMethodRegistry.retransform();
+            }
+        } finally {
+            MethodTrace.redefineTraceMethodProcessing = false;
+        }
+        IGNORED_METHOD_SET.add(DebugToolsClassUtils.getQualifierMethod(className, methodName, methodDescription));
     }
 
     /**
@@ -176,18 +166,10 @@ public class TraceMethodClassFileTransformer {
             return;
         }
         String methodDescription = getDescriptor(classPool, ReflectUtil.getMethodByName(clazz, TRACE_MYBATIS_METHOD_NAME));
-        String qualifierNameKey = DebugToolsClassUtils.getQualifierMethod(TRACE_MYBATIS_CLASS_NAME, TRACE_MYBATIS_METHOD_NAME, methodDescription);
         if (BooleanUtil.isTrue(traceMyBatis)) {
-            RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfAbsent(
-                    qualifierNameKey,
-                    key -> redefineClass(TRACE_MYBATIS_CLASS_NAME, TRACE_MYBATIS_METHOD_NAME, methodDescription)
-            );
+            TraceMethodRegistry.addTarget(TRACE_MYBATIS_CLASS_NAME, TRACE_MYBATIS_METHOD_NAME, methodDescription);
         } else {
-            RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfPresent(qualifierNameKey, (k, transformer) -> {
-                transformer.reset(DebugToolsBootstrap.INSTANCE.getInstrumentation(), AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
-                // 返回 null 表示移除
-                return null;
-            });
+            TraceMethodRegistry.removeTarget(TRACE_MYBATIS_CLASS_NAME, TRACE_MYBATIS_METHOD_NAME, methodDescription);
         }
     }
 
@@ -219,15 +201,12 @@ public class TraceMethodClassFileTransformer {
         if (StrUtil.isNotBlank(traceBusinessPackageRegexp) && !Pattern.compile(StringEscapeUtils.unescapeJava(traceBusinessPackageRegexp)).matcher(className).matches()) {
             return;
         }
-        if (StrUtil.isNotBlank(traceIgnorePackageRegexp) && Pattern.compile(StringEscapeUtils.unescapeJava(traceIgnorePackageRegexp)).matcher(className).matches()) {
-            RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.entrySet().removeIf(entry -> {
-                if (Pattern.compile(traceIgnorePackageRegexp).matcher(entry.getKey().split("#")[0]).matches()) {
-                    entry.getValue().reset(DebugToolsBootstrap.INSTANCE.getInstrumentation(), AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
-                    return true;
-                }
-                return false;
-            });
-            return;
+        if (StrUtil.isNotBlank(traceIgnorePackageRegexp)) {
+            Pattern ignorePattern = Pattern.compile(StringEscapeUtils.unescapeJava(traceIgnorePackageRegexp));
+            if (ignorePattern.matcher(className).matches()) {
+                TraceMethodRegistry.removeTargets(tracedClassName -> ignorePattern.matcher(tracedClassName).matches());
+                return;
+            }
         }
         String qualifierNameKey = DebugToolsClassUtils.getQualifierMethod(className, methodName, methodDescription);
         if (IGNORED_METHOD_SET.contains(qualifierNameKey)) {
@@ -253,11 +232,7 @@ public class TraceMethodClassFileTransformer {
                 classGetSetMethodNameMap.put(targetClass, getSetMethodNameSet);
             }
             if (getSetMethodNameSet.contains(methodName)) {
-                RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfPresent(qualifierNameKey, (k, transformer) -> {
-                    transformer.reset(DebugToolsBootstrap.INSTANCE.getInstrumentation(), AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
-                    // 返回 null 表示移除
-                    return null;
-                });
+                TraceMethodRegistry.removeTarget(className, methodName, methodDescription);
                 return;
             }
         }
@@ -268,16 +243,8 @@ public class TraceMethodClassFileTransformer {
             if (codeAttribute == null) {
                 // 接口
                 if (targetClass.isInterface() || Modifier.isAbstract(method.getModifiers())) {
-                    Set<Class<?>> childClassSet = new HashSet<>();
-                    Object[] instances = JvmToolsUtils.getInstances(targetClass);
-                    for (Object instance : instances) {
-                        childClassSet.add(instance.getClass());
-                    }
-                    for (Class<?> childClass : childClassSet) {
-                        RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfAbsent(
-                                DebugToolsClassUtils.getQualifierMethod(childClass.getName(), methodName, methodDescription),
-                                key -> redefineClass(childClass.getName(), methodName, methodDescription)
-                        );
+                    for (Class<?> childClass : BeanInstanceUtils.getImplementationClasses(targetClass)) {
+                        TraceMethodRegistry.addTarget(childClass.getName(), methodName, methodDescription);
                     }
                 }
                 continue;
@@ -304,41 +271,10 @@ public class TraceMethodClassFileTransformer {
                             maxDepth - 1);
                 }
             }
-            RESETTABLE_CLASS_FILE_TRANSFORMER_MAP.computeIfAbsent(
-                    qualifierNameKey,
-                    key -> redefineClass(className, methodName, methodDescription)
-            );
+            TraceMethodRegistry.addTarget(className, methodName, methodDescription);
         }
     }
 
-    /**
-     * 调用bytebuddy重定义类
-     *
-     * @param className         类名
-     * @param methodName        方法名
-     * @param methodDescription 方法描述
-     * @return 重定义类转换器，用于还原
-     */
-    private static ResettableClassFileTransformer redefineClass(String className, String methodName, String methodDescription) {
-        return new AgentBuilder.Default(new ByteBuddy().with(TypeValidation.DISABLED))
-                .with(AgentBuilder.RedefinitionStrategy.REDEFINITION)
-                .disableClassFormatChanges()
-                .type(ElementMatchers.named(className))
-                .transform((builder, typeDescription, classLoader, module, protectionDomain) -> builder.visit(Advice.to(TraceMethodInterceptor.class).on(getMethodDescription(methodName, methodDescription)))).installOn(DebugToolsBootstrap.INSTANCE.getInstrumentation());
-    }
-
-    /**
-     * 通过方法描述获取方法匹配器
-     *
-     * @param methodName        方法名
-     * @param methodDescription 方法描述符
-     * @return 方法匹配器
-     */
-    private static ElementMatcher<? super MethodDescription> getMethodDescription(String methodName, String methodDescription) {
-        ElementMatcher.Junction<NamedElement> methodMatcher = ElementMatchers.named(methodName);
-        return methodDescription == null ? methodMatcher : methodMatcher.and(ElementMatchers.hasDescriptor(methodDescription));
-    }
-
     /**
      * 获取方法的CtMethod
      *
@@ -19,8 +19,6 @@ package io.github.future0923.debug.tools.server.trace;
 import io.github.future0923.debug.tools.base.trace.MethodTrace;
 import net.bytebuddy.asm.Advice;
 
-import java.lang.reflect.Method;
-
 /**
  * 追踪方法拦截器
  *
@@ -31,29 +29,17 @@ public class TraceMethodInterceptor {
     /**
      * 方法执行之前
      *
-     * @param clazz  原始类
-     * @param method 原始方法
-     * @param args   方法入参
+     * @param methodId 转换类时注册的方法id
      */
     @Advice.OnMethodEnter
-    static void invokeBeforeEachMethod(@Advice.Origin Class<?> clazz,
-                                       @Advice.Origin Method method,
-                                       @Advice.AllArguments Object[] args) {
-        if ("org.apache.ibatis.binding.MapperProxy".equals(clazz.getName())) {
-            Method invokeMethod = (Method) args[1];
-            if (!Object.class.equals(invokeMethod.getDeclaringClass())) {
-                Class<?> declaringClass = invokeMethod.getDeclaringClass();
-                MethodTrace.enterMyBatis(declaringClass.getName(), declaringClass.getSimpleName(), invokeMethod.getName(), MethodTrace.genMethodSignature(invokeMethod));
-            }
-            return;
-        }
-        MethodTrace.enterMethod(clazz.getName(), clazz.getSimpleName(), method.getName(), MethodTrace.genMethodSignature(method));
+    static void invokeBeforeEachMethod(@TraceMethodId int methodId) {
+        MethodTrace.enterMethod(methodId);
     }
 
     /**
      * 方法执行之后
      */
-    @Advice.OnMethodExit
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
     static void invokeWhileExitingEachMethod() {
         MethodTrace.exit();
     }
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.trace;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.base.trace.MethodTrace;
+import io.github.future0923.debug.tools.base.trace.MethodTraceType;
+import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeList;
+import net.bytebuddy.dynamic.scaffold.TypeValidation;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.matcher.ElementMatcher;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 方法追踪注册表
+ * <p>
+ * 全局只安装一个追踪转换器，追踪目标（类、方法、描述符）维护在注册表中。
+ * 添加或取消追踪只修改注册表并标记受影响的类，再通过 {@link #retransform()} 一次性批量重转换。
+ *
+ * @author future0923
+ */
+public class TraceMethodRegistry {
+
+    private static final Logger logger = Logger.getLogger(TraceMethodRegistry.class);
+
+    /**
+     * 追踪目标
+     * key:类名
+     * value:方法名+方法描述符集合（描述符为null时只有方法名，匹配所有同名方法）
+     */
+    private static final Map<String, Set<String>> TRACE_TARGET_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 等待重转换的类名
+     */
+    private static final Set<String> PENDING_CLASS_NAME_SET = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 追踪方法advice，转换时将方法id作为常量写入
+     */
+    private static final Advice TRACE_METHOD_ADVICE = Advice.withCustomMapping()
+            .bind(TraceMethodId.class, (Advice.OffsetMapping) (instrumentedType, instrumentedMethod, assigner, argumentHandler, sort) ->
+                    new Advice.OffsetMapping.Target.ForStackManipulation(IntegerConstant.forValue(registerMethod(instrumentedType, instrumentedMethod))))
+            .to(TraceMethodInterceptor.class);
+
+    /**
+     * 追踪MyBatis advice
+     */
+    private static final Advice TRACE_MYBATIS_ADVICE = Advice.to(TraceMyBatisInterceptor.class);
+
+    /**
+     * 全局唯一的追踪转换器
+     */
+    private static volatile ResettableClassFileTransformer transformer;
+
+    /**
+     * 添加追踪目标
+     *
+     * @param className         类名
+     * @param methodName        方法名
+     * @param methodDescription 方法描述符
+     * @return 之前未追踪返回true
+     */
+    public static boolean addTarget(String className, String methodName, String methodDescription) {
+        boolean added = TRACE_TARGET_MAP.computeIfAbsent(className, k -> ConcurrentHashMap.newKeySet()).add(getMethodKey(methodName, methodDescription));
+        if (added) {
+            PENDING_CLASS_NAME_SET.add(className);
+        }
+        return added;
+    }
+
+    /**
+     * 移除追踪目标
+     *
+     * @param className         类名
+     * @param methodName        方法名
+     * @param methodDescription 方法描述符
+     * @return 之前已追踪返回true
+     */
+    public static boolean removeTarget(String className, String methodName, String methodDescription) {
+        boolean[] removed = new boolean[1];
+        TRACE_TARGET_MAP.computeIfPresent(className, (k, methodKeySet) -> {
+            removed[0] = methodKeySet.remove(getMethodKey(methodName, methodDescription));
+            // 返回 null 表示移除
+            return methodKeySet.isEmpty() ? null : methodKeySet;
+        });
+        if (removed[0]) {
+            PENDING_CLASS_NAME_SET.add(className);
+        }
+        return removed[0];
+    }
+
+    /**
+     * 移除类名匹配的所有追踪目标
+     *
+     * @param classNamePredicate 类名匹配
+     */
+    public static void removeTargets(Predicate<String> classNamePredicate) {
+        TRACE_TARGET_MAP.keySet().removeIf(className -> {
+            if (classNamePredicate.test(className)) {
+                PENDING_CLASS_NAME_SET.add(className);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 是否追踪了该方法
+     *
+     * @param className         类名
+     * @param methodName        方法名
+     * @param methodDescription 方法描述符
+     * @return 是否追踪
+     */
+    public static boolean isTraced(String className, String methodName, String methodDescription) {
+        Set<String> methodKeySet = TRACE_TARGET_MAP.get(className);
+        return methodKeySet != null
+                && (methodKeySet.contains(methodName) || methodKeySet.contains(getMethodKey(methodName, methodDescription)));
+    }
+
+    /**
+     * 获取所有追踪的类名
+     */
+    public static Set<String> getTracedClassNames() {
+        return Collections.unmodifiableSet(TRACE_TARGET_MAP.keySet());
+    }
+
+    /**
+     * 将注册表的修改一次性应用到已加载的类上
+     */
+    public static void retransform() {
+        if (PENDING_CLASS_NAME_SET.isEmpty()) {
+            return;
+        }
+        Instrumentation instrumentation = DebugToolsBootstrap.INSTANCE.getInstrumentation();
+        install(instrumentation);
+        Set<String> classNameSet = new HashSet<>(PENDING_CLASS_NAME_SET);
+        PENDING_CLASS_NAME_SET.removeAll(classNameSet);
+        List<Class<?>> classList = new ArrayList<>();
+        for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            if (classNameSet.contains(clazz.getName()) && instrumentation.isModifiableClass(clazz)) {
+                classList.add(clazz);
+            }
+        }
+        if (classList.isEmpty()) {
+            return;
+        }
+        try {
+            instrumentation.retransformClasses(classList.toArray(new Class[0]));
+        } catch (Throwable e) {
+            logger.error("batch retransform trace classes error, retry one by one", e);
+            for (Class<?> clazz : classList) {
+                try {
+                    instrumentation.retransformClasses(clazz);
+                } catch (Throwable ex) {
+                    logger.error("retransform trace class {} error", ex, clazz.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * 安装全局追踪转换器
+     *
+     * @param instrumentation instrumentation
+     */
+    private static void install(Instrumentation instrumentation) {
+        if (transformer != null) {
+            return;
+        }
+        synchronized (TraceMethodRegistry.class) {
+            if (transformer != null) {
+                return;
+            }
+            transformer = new AgentBuilder.Default(new ByteBuddy().with(TypeValidation.DISABLED))
+                    .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                    // 安装时不扫描已加载的类，统一由 retransform() 批量处理
+                    .with(new AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Explicit())
+                    .disableClassFormatChanges()
+                    .type((ElementMatcher<TypeDescription>) typeDescription -> TRACE_TARGET_MAP.containsKey(typeDescription.getName()))
+                    .transform((builder, typeDescription, classLoader, module, protectionDomain) -> builder.visit(getAdvice(typeDescription.getName()).on(getMethodMatcher(typeDescription.getName()))))
+                    .installOn(instrumentation);
+        }
+    }
+
+    /**
+     * 获取类使用的advice
+     *
+     * @param className 类名
+     * @return advice
+     */
+    private static Advice getAdvice(String className) {
+        return TraceMethodClassFileTransformer.TRACE_MYBATIS_CLASS_NAME.equals(className) ? TRACE_MYBATIS_ADVICE : TRACE_METHOD_ADVICE;
+    }
+
+    /**
+     * 注册被转换的方法，获取方法id
+     *
+     * @param instrumentedType   类
+     * @param instrumentedMethod 方法
+     * @return 方法id
+     */
+    private static int registerMethod(TypeDescription instrumentedType, MethodDescription instrumentedMethod) {
+        return MethodTrace.registerMethod(
+                MethodTraceType.METHOD,
+                instrumentedType.getName(),
+                instrumentedType.getSimpleName(),
+                instrumentedMethod.getName(),
+                genMethodSignature(instrumentedMethod)
+        );
+    }
+
+    /**
+     * 生成方法签名，格式与 {@link MethodTrace#genMethodSignature(java.lang.reflect.Method)} 一致
+     */
+    private static String genMethodSignature(MethodDescription method) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method.getName()).append("(");
+        appendTypeNames(sb, method.getParameters().asTypeList());
+        sb.append("): ").append(getTypeName(method.getReturnType()));
+        if (!method.getExceptionTypes().isEmpty()) {
+            sb.append(" throws ");
+            appendTypeNames(sb, method.getExceptionTypes());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 拼接类型名称，以逗号分隔
+     */
+    private static void appendTypeNames(StringBuilder sb, TypeList.Generic types) {
+        for (int i = 0; i < types.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getTypeName(types.get(i)));
+        }
+    }
+
+    /**
+     * 获取类型名称
+     */
+    private static String getTypeName(TypeDescription.Generic type) {
+        switch (type.getSort()) {
+            case PARAMETERIZED:
+                StringBuilder sb = new StringBuilder(type.asErasure().getSimpleName()).append("<");
+                appendTypeNames(sb, type.getTypeArguments());
+                return sb.append(">").toString();
+            case GENERIC_ARRAY:
+                return getTypeName(type.getComponentType()) + "[]";
+            case VARIABLE:
+            case VARIABLE_SYMBOLIC:
+                return type.getSymbol();
+            case WILDCARD:
+                return "?";
+            default:
+                return type.asErasure().getSimpleName();
+        }
+    }
+
+    /**
+     * 获取类中追踪方法的匹配器
+     *
+     * @param className 类名
+     * @return 方法匹配器
+     */
+    private static ElementMatcher<? super MethodDescription> getMethodMatcher(String className) {
+        return (ElementMatcher<MethodDescription>) methodDescription -> isTraced(className, methodDescription.getInternalName(), methodDescription.getDescriptor());
+    }
+
+    /**
+     * 获取方法key
+     *
+     * @param methodName        方法名
+     * @param methodDescription 方法描述符
+     * @return 方法名+方法描述符
+     */
+    private static String getMethodKey(String methodName, String methodDescription) {
+        return methodDescription == null ? methodName : methodName + methodDescription;
+    }
+}
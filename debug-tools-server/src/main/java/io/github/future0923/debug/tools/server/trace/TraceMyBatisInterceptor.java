@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.trace;
+
+import io.github.future0923.debug.tools.base.trace.MethodTrace;
+import net.bytebuddy.asm.Advice;
+
+import java.lang.reflect.Method;
+
+/**
+ * 追踪MyBatis MapperProxy拦截器
+ *
+ * @author future0923
+ */
+public class TraceMyBatisInterceptor {
+
+    /**
+     * 方法执行之前
+     *
+     * @param invokeMethod 调用的Mapper方法
+     * @return 是否入栈
+     */
+    @Advice.OnMethodEnter
+    static boolean invokeBeforeEachMethod(@Advice.Argument(1) Method invokeMethod) {
+        if (Object.class.equals(invokeMethod.getDeclaringClass())) {
+            return false;
+        }
+        MethodTrace.enterMyBatis(invokeMethod);
+        return true;
+    }
+
+    /**
+     * 方法执行之后
+     *
+     * @param entered 是否入栈
+     */
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    static void invokeWhileExitingEachMethod(@Advice.Enter boolean entered) {
+        if (entered) {
+            MethodTrace.exit();
+        }
+    }
+}
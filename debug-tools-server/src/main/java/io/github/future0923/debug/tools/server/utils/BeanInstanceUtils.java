@@ -16,13 +16,21 @@
  */
 package io.github.future0923.debug.tools.server.utils;
 
+import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
 import io.github.future0923.debug.tools.vm.JvmToolsUtils;
 
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.stream.IntStream;
 
 /**
@@ -30,6 +38,11 @@ import java.util.stream.IntStream;
  */
 public class BeanInstanceUtils {
 
+    /**
+     * 类 -> 上次从JVM中找到的实例，类和实例都是弱引用，不影响类卸载和实例回收
+     */
+    private static final Map<Class<?>, WeakReference<Object>> INSTANCE_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static Object getInstance(Class<?> targetClass, Method targetMethod) {
         Object instance = getInstance(targetClass);
         if (!Modifier.isPublic(targetMethod.getModifiers())) {
@@ -39,15 +52,88 @@ public class BeanInstanceUtils {
         }
     }
 
+    /**
+     * 获取JVM中指定Class所有的实例，会遍历整个堆
+     */
     public static <T> T[] getInstances(Class<T> targetClass) {
         return JvmToolsUtils.getInstances(targetClass);
     }
 
+    /**
+     * 获取JVM中指定Class的实例，找到limit个后停止遍历堆
+     *
+     * @param limit 如果小于 0 ，则不限制；等于 0 时返回空数组
+     */
+    public static <T> T[] getInstances(Class<T> targetClass, int limit) {
+        return JvmToolsUtils.getInstances(targetClass, limit);
+    }
+
+    /**
+     * 统计JVM中指定Class存活实例的个数
+     */
+    public static long countInstances(Class<?> targetClass) {
+        return JvmToolsUtils.countInstances(targetClass);
+    }
+
+    /**
+     * 获取已加载的指定类（接口）的所有实现类，不包含接口、抽象类和lambda等合成类、隐藏类
+     * <p>遍历已加载的类，不遍历堆
+     */
+    public static Set<Class<?>> getImplementationClasses(Class<?> targetClass) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Instrumentation instrumentation = DebugToolsBootstrap.INSTANCE == null ? null : DebugToolsBootstrap.INSTANCE.getInstrumentation();
+        if (instrumentation == null) {
+            for (Object instance : getInstances(targetClass)) {
+                if (!isSyntheticOrHidden(instance.getClass())) {
+                    result.add(instance.getClass());
+                }
+            }
+            return result;
+        }
+        for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            if (clazz != targetClass
+                    && !clazz.isInterface()
+                    && !Modifier.isAbstract(clazz.getModifiers())
+                    && !isSyntheticOrHidden(clazz)
+                    && targetClass.isAssignableFrom(clazz)) {
+                result.add(clazz);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否是合成类（如lambda）或隐藏类，隐藏类和JDK8的匿名类名称中包含{@code /}，不能被重新转换
+     */
+    static boolean isSyntheticOrHidden(Class<?> clazz) {
+        return clazz.isSynthetic() || clazz.getName().indexOf('/') >= 0;
+    }
+
+    /**
+     * 获取JVM中指定Class的一个实例，优先使用上次找到的实例，找不到时遍历堆找到第一个后停止
+     *
+     * @return 实例，不存在时返回null
+     */
+    public static Object getJvmInstance(Class<?> targetClass) {
+        WeakReference<Object> reference = INSTANCE_CACHE.get(targetClass);
+        Object instance = reference == null ? null : reference.get();
+        if (instance != null) {
+            return instance;
+        }
+        Object[] instances = JvmToolsUtils.getInstances(targetClass, 1);
+        if (instances.length == 0) {
+            return null;
+        }
+        instance = instances[0];
+        INSTANCE_CACHE.put(targetClass, new WeakReference<>(instance));
+        return instance;
+    }
+
     /**
      * 获取实例对象
      * <p>优先通过spring 上下文获取，如果有多个取第最后一个
      * <p>获取不到从solon 上下文获取，如果有多个取第最后一个
-     * <p>获取不到从jvm中获取，如果有多个取第最后一个
+     * <p>获取不到从jvm中获取，如果有多个取找到的第一个
      * <p>获取不到调用构造方法创建
      */
     public static Object getInstance(Class<?> clazz) {
@@ -59,12 +145,11 @@ public class BeanInstanceUtils {
         } catch (Throwable ignored) {
             // 加载不到从JVM中获取
         }
-        Object[] instances = JvmToolsUtils.getInstances(clazz);
-        if (instances.length == 0) {
+        Object instance = getJvmInstance(clazz);
+        if (instance == null) {
             return instantiate(clazz);
-        } else {
-            return instances[instances.length - 1];
         }
+        return instance;
     }
 
     @SuppressWarnings("unchecked")
@@ -16,114 +16,117 @@
  */
 package io.github.future0923.debug.tools.server.utils;
 
-import io.github.future0923.debug.tools.base.classloader.DebugToolsExtensionClassLoader;
-import io.github.future0923.debug.tools.base.config.AgentConfig;
-import io.github.future0923.debug.tools.base.constants.ProjectConstants;
-import io.github.future0923.debug.tools.base.logging.Logger;
-import io.github.future0923.debug.tools.base.utils.DebugToolsClassUtils;
 import io.github.future0923.debug.tools.common.dto.RunContentDTO;
 import io.github.future0923.debug.tools.common.dto.RunDTO;
-import io.github.future0923.debug.tools.server.http.handler.AllClassLoaderHttpHandler;
+import io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.ExtensionMethod;
 import org.springframework.beans.factory.config.BeanDefinition;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.SOLON_ENV_UTIL;
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.SPRING_ENV_UTIL;
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.SPRING_REACTIVE_UTIL;
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.SPRING_SERVLET_UTIL;
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.XXL_JOB_ENV_UTIL;
+import static io.github.future0923.debug.tools.server.utils.DebugToolsExtensionBridge.invoke;
 
 /**
+ * 框架扩展工具类的调用入口，通过 {@link DebugToolsExtensionBridge} 按当前线程上下文类加载器解析并缓存
+ *
  * @author future0923
  */
 public class DebugToolsEnvUtils {
 
-    private static final Logger logger = Logger.getLogger(DebugToolsEnvUtils.class);
+    private static final String BEAN_FACTORY = "org.springframework.beans.factory.BeanFactory";
 
-    private static final Map<ClassLoader, DebugToolsExtensionClassLoader> EXTENSION_CLASS_LOADER_MAP = new HashMap<>();
+    private static final String SPRING_PROXY = "org.springframework.aop.SpringProxy";
 
-    private static ClassLoader appClassLoader;
+    private static final String MEDIA_TYPE = "org.springframework.http.MediaType";
 
-    private static DebugToolsExtensionClassLoader getExtensionClassLoader(ClassLoader classLoader) {
-        if (classLoader == null) {
-            classLoader = AllClassLoaderHttpHandler.getDefaultClassLoader();
-        }
-        appClassLoader = classLoader;
-        DebugToolsExtensionClassLoader extensionClassLoader = EXTENSION_CLASS_LOADER_MAP.get(classLoader);
-        if (extensionClassLoader != null) {
-            return extensionClassLoader;
-        }
-        synchronized (DebugToolsEnvUtils.class) {
-            extensionClassLoader = EXTENSION_CLASS_LOADER_MAP.get(classLoader);
-            if (extensionClassLoader != null) {
-                return extensionClassLoader;
-            }
-            List<URL> urls = new LinkedList<>();
-            Optional.ofNullable(AgentConfig.INSTANCE.getSpringExtensionURL()).ifPresent(urls::add);
-            Optional.ofNullable(AgentConfig.INSTANCE.getSolonExtensionURL()).ifPresent(urls::add);
-            Optional.ofNullable(AgentConfig.INSTANCE.getXxlJobExtensionURL()).ifPresent(urls::add);
-            extensionClassLoader = new DebugToolsExtensionClassLoader(urls.toArray(new URL[0]), classLoader);
-            EXTENSION_CLASS_LOADER_MAP.put(classLoader, extensionClassLoader);
-            return extensionClassLoader;
-        }
-    }
+    private static final String HTTP_SERVLET_REQUEST = "javax.servlet.http.HttpServletRequest";
+
+    private static final ExtensionMethod GET_LAST_BEAN_BY_NAME = new ExtensionMethod(SPRING_ENV_UTIL, "getLastBean", new Class<?>[]{String.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_BEANS_BY_NAME = new ExtensionMethod(SPRING_ENV_UTIL, "getBeans", new Class<?>[]{String.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_BEAN_NAMES_FOR_TYPE = new ExtensionMethod(SPRING_ENV_UTIL, "getBeanNamesForType", new Class<?>[]{Class.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_BEAN_DEFINITION = new ExtensionMethod(SPRING_ENV_UTIL, "getBeanDefinition", new Class<?>[]{String.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_SPRING_LAST_BEAN_BY_TYPE = new ExtensionMethod(SPRING_ENV_UTIL, "getLastBean", new Class<?>[]{Class.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_SOLON_LAST_BEAN_BY_TYPE = new ExtensionMethod(SOLON_ENV_UTIL, "getLastBean", new Class<?>[]{Class.class}, "org.noear.solon.core.AppContext");
+
+    private static final ExtensionMethod GET_BEANS_BY_TYPE = new ExtensionMethod(SPRING_ENV_UTIL, "getBeans", new Class<?>[]{Class.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod REGISTER_BEAN = new ExtensionMethod(SPRING_ENV_UTIL, "registerBean", new Class<?>[]{Object.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod REGISTER_BEAN_WITH_NAME = new ExtensionMethod(SPRING_ENV_UTIL, "registerBean", new Class<?>[]{String.class, Object.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod REGISTER_BEAN_CLASS = new ExtensionMethod(SPRING_ENV_UTIL, "registerBean", new Class<?>[]{String.class, Class.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod UNREGISTER_BEAN = new ExtensionMethod(SPRING_ENV_UTIL, "unregisterBean", new Class<?>[]{String.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod UNREGISTER_BEAN_AND_DEFINITION = new ExtensionMethod(SPRING_ENV_UTIL, "unregisterBeanAndDefinition", new Class<?>[]{String.class}, BEAN_FACTORY);
+
+    private static final ExtensionMethod GET_SPRING_CONFIG = new ExtensionMethod(SPRING_ENV_UTIL, "getSpringConfig", new Class<?>[]{String.class}, "org.springframework.core.env.Environment");
+
+    private static final ExtensionMethod GET_TARGET_OBJECT = new ExtensionMethod(SPRING_ENV_UTIL, "getTargetObject", new Class<?>[]{Object.class}, SPRING_PROXY);
+
+    private static final ExtensionMethod GET_TARGET_CLASS = new ExtensionMethod(SPRING_ENV_UTIL, "getTargetClass", new Class<?>[]{Object.class}, SPRING_PROXY);
+
+    private static final ExtensionMethod FIND_BRIDGED_METHOD = new ExtensionMethod(SPRING_ENV_UTIL, "findBridgedMethod", new Class<?>[]{Method.class}, "org.springframework.core.BridgeMethodResolver");
+
+    private static final ExtensionMethod SET_REQUEST = new ExtensionMethod(SPRING_SERVLET_UTIL, "setRequest", new Class<?>[]{RunDTO.class}, "org.springframework.web.context.request.RequestContextHolder", HTTP_SERVLET_REQUEST);
+
+    private static final ExtensionMethod IS_AOP_PROXY = new ExtensionMethod(SPRING_ENV_UTIL, "isAopProxy", new Class<?>[]{InvocationHandler.class}, "org.springframework.aop.framework.AopProxy");
+
+    private static final ExtensionMethod GET_ARGS = new ExtensionMethod(SPRING_ENV_UTIL, "getArgs", new Class<?>[]{Method.class, Map.class}, "org.springframework.core.ResolvableType");
+
+    private static final ExtensionMethod GET_REQUEST = new ExtensionMethod(SPRING_SERVLET_UTIL, "getRequest", new Class<?>[0], MEDIA_TYPE, HTTP_SERVLET_REQUEST);
+
+    private static final ExtensionMethod GET_SERVER_HTTP_REQUEST = new ExtensionMethod(SPRING_REACTIVE_UTIL, "getServerHttpRequest", new Class<?>[0], "org.springframework.http.server.reactive.ServerHttpRequest");
+
+    private static final ExtensionMethod GET_SERVER_WEB_EXCHANGE = new ExtensionMethod(SPRING_REACTIVE_UTIL, "getServerWebExchange", new Class<?>[0], "org.springframework.web.server.ServerWebExchange");
+
+    private static final ExtensionMethod GET_RESPONSE = new ExtensionMethod(SPRING_SERVLET_UTIL, "getResponse", new Class<?>[0], MEDIA_TYPE);
+
+    private static final ExtensionMethod GET_SERVER_HTTP_RESPONSE = new ExtensionMethod(SPRING_REACTIVE_UTIL, "getServerHttpResponse", new Class<?>[0], "org.springframework.http.server.reactive.ServerHttpResponse");
+
+    private static final ExtensionMethod SET_XXL_JOB_PARAM = new ExtensionMethod(XXL_JOB_ENV_UTIL, "setXxlJobParam", new Class<?>[]{String.class}, "com.xxl.job.core.context.XxlJobContext");
 
     public static Class<?> getSpringEnvUtilClass() {
-        try {
-            return getExtensionClassLoader(Thread.currentThread().getContextClassLoader()).loadClass("io.github.future0923.debug.tools.extension.spring.SpringEnvUtil");
-        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-            if (ProjectConstants.DEBUG) {
-                logger.warning("SpringEnvUtil get error", e);
-            }
-            return null;
-        }
+        return DebugToolsExtensionBridge.current().getUtilClass(SPRING_ENV_UTIL);
     }
 
     public static Class<?> getSpringServletUtil() {
-        try {
-            return getExtensionClassLoader(Thread.currentThread().getContextClassLoader()).loadClass("io.github.future0923.debug.tools.extension.spring.SpringServletUtil");
-        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-            if (ProjectConstants.DEBUG) {
-                logger.warning("SpringServletUtil get error", e);
-            }
-            return null;
-        }
+        return DebugToolsExtensionBridge.current().getUtilClass(SPRING_SERVLET_UTIL);
     }
 
     public static Class<?> getSpringReactiveUtil() {
-        try {
-            return getExtensionClassLoader(Thread.currentThread().getContextClassLoader()).loadClass("io.github.future0923.debug.tools.extension.spring.SpringReactiveUtil");
-        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-            if (ProjectConstants.DEBUG) {
-                logger.warning("SpringReactiveUtil get error", e);
-            }
-            return null;
-        }
+        return DebugToolsExtensionBridge.current().getUtilClass(SPRING_REACTIVE_UTIL);
     }
 
     public static Class<?> getSolonEnvUtilClass() {
-        try {
-            return getExtensionClassLoader(Thread.currentThread().getContextClassLoader()).loadClass("io.github.future0923.debug.tools.extension.solon.SolonEnvUtil");
-        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-            if (ProjectConstants.DEBUG) {
-                logger.warning("SolonEnvUtil get error", e);
-            }
-            return null;
-        }
+        return DebugToolsExtensionBridge.current().getUtilClass(SOLON_ENV_UTIL);
     }
 
     public static Class<?> getXxlJobEnvUtil() {
-        try {
-            return getExtensionClassLoader(Thread.currentThread().getContextClassLoader()).loadClass("io.github.future0923.debug.tools.extension.xxljob.XxlJobEnvUtil");
-        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-            if (ProjectConstants.DEBUG) {
-                logger.warning("XxlJobEnvUtil get error", e);
-            }
-            return null;
-        }
+        return DebugToolsExtensionBridge.current().getUtilClass(XXL_JOB_ENV_UTIL);
+    }
+
+    /**
+     * 获取当前线程上下文类加载器对应的扩展方法
+     *
+     * @return 方法句柄，扩展或依赖不存在时返回null
+     */
+    private static MethodHandle method(ExtensionMethod extensionMethod) {
+        return DebugToolsExtensionBridge.current().getMethod(extensionMethod);
     }
 
     /**
@@ -136,13 +139,11 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T getLastBean(String beanName) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getLastBean = method(GET_LAST_BEAN_BY_NAME);
+        if (getLastBean == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getLastBean = springEnvUtil.getMethod("getLastBean", String.class);
-        return (T) getLastBean.invoke(null, beanName);
+        return (T) invoke(getLastBean, beanName);
     }
 
 
@@ -156,13 +157,11 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> List<T> getBeans(String beanName) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getBeans = method(GET_BEANS_BY_NAME);
+        if (getBeans == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getBeans = springEnvUtil.getMethod("getBeans", String.class);
-        return (List<T>) getBeans.invoke(null, beanName);
+        return (List<T>) invoke(getBeans, beanName);
     }
 
     /**
@@ -173,13 +172,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static String[] getBeanNamesForType(Class<?> type) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getBeanNamesForType = method(GET_BEAN_NAMES_FOR_TYPE);
+        if (getBeanNamesForType == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getBeanNamesForType = springEnvUtil.getMethod("getBeanNamesForType", Class.class);
-        return (String[]) getBeanNamesForType.invoke(null, type);
+        return (String[]) invoke(getBeanNamesForType, type);
     }
 
     /**
@@ -190,13 +187,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static BeanDefinition getBeanDefinition(String beanName) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getBeanDefinition = method(GET_BEAN_DEFINITION);
+        if (getBeanDefinition == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getBeanDefinition = springEnvUtil.getMethod("getBeanDefinition", String.class);
-        return (BeanDefinition) getBeanDefinition.invoke(null, beanName);
+        return (BeanDefinition) invoke(getBeanDefinition, beanName);
     }
 
     /**
@@ -227,13 +222,11 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     private static <T> T getSpringLastBean(Class<T> requiredType) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getLastBean = method(GET_SPRING_LAST_BEAN_BY_TYPE);
+        if (getLastBean == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getLastBean = springEnvUtil.getMethod("getLastBean", Class.class);
-        return (T) getLastBean.invoke(null, requiredType);
+        return (T) invoke(getLastBean, requiredType);
     }
 
     /**
@@ -246,13 +239,11 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     private static <T> T getSolonLastBean(Class<T> requiredType) throws Exception {
-        Class<?> solonEnvUtil = getSolonEnvUtilClass();
-        if (solonEnvUtil == null) {
+        MethodHandle getLastBean = method(GET_SOLON_LAST_BEAN_BY_TYPE);
+        if (getLastBean == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.noear.solon.core.AppContext");
-        Method getLastBean = solonEnvUtil.getMethod("getLastBean", Class.class);
-        return (T) getLastBean.invoke(null, requiredType);
+        return (T) invoke(getLastBean, requiredType);
     }
 
     /**
@@ -265,13 +256,11 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> List<T> getBeans(Class<T> requiredType) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getBeans = method(GET_BEANS_BY_TYPE);
+        if (getBeans == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method getBean = springEnvUtil.getMethod("getBeans", Class.class);
-        return (List<T>) getBean.invoke(null, requiredType);
+        return (List<T>) invoke(getBeans, requiredType);
     }
 
     /**
@@ -281,13 +270,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static <T> void registerBean(T bean) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle registerBean = method(REGISTER_BEAN);
+        if (registerBean == null) {
             return;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method registerBean = springEnvUtil.getMethod("registerBean", Object.class);
-        registerBean.invoke(null, bean);
+        invoke(registerBean, bean);
     }
 
     /**
@@ -298,13 +285,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static <T> void registerBean(String beanName, T bean) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle registerBean = method(REGISTER_BEAN_WITH_NAME);
+        if (registerBean == null) {
             return;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method registerBean = springEnvUtil.getMethod("registerBean", String.class, Object.class);
-        registerBean.invoke(null, beanName, bean);
+        invoke(registerBean, beanName, bean);
     }
 
     /**
@@ -315,13 +300,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static <T> void registerBean(String beanName,Class<T> beanClass) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle registerBean = method(REGISTER_BEAN_CLASS);
+        if (registerBean == null) {
             return;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method registerBean = springEnvUtil.getMethod("registerBean", String.class, Class.class);
-        registerBean.invoke(null, beanName, beanClass);
+        invoke(registerBean, beanName, beanClass);
     }
 
     /**
@@ -331,13 +314,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static void unregisterBean(String beanName) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle unregisterBean = method(UNREGISTER_BEAN);
+        if (unregisterBean == null) {
             return;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method unregisterBean = springEnvUtil.getMethod("unregisterBean", String.class);
-        unregisterBean.invoke(null, beanName);
+        invoke(unregisterBean, beanName);
     }
 
     /**
@@ -347,13 +328,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static void unregisterBeanAndDefinition(String beanName) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle unregisterBeanAndDefinition = method(UNREGISTER_BEAN_AND_DEFINITION);
+        if (unregisterBeanAndDefinition == null) {
             return;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.beans.factory.BeanFactory");
-        Method unregisterBeanAndDefinition = springEnvUtil.getMethod("unregisterBeanAndDefinition", String.class);
-        unregisterBeanAndDefinition.invoke(null, beanName);
+        invoke(unregisterBeanAndDefinition, beanName);
     }
 
     /**
@@ -364,13 +343,11 @@ public class DebugToolsEnvUtils {
      * @throws Exception 反射调用异常
      */
     public static Object getSpringConfig(String value) throws Exception {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getSpringConfig = method(GET_SPRING_CONFIG);
+        if (getSpringConfig == null) {
             return null;
         }
-        DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.core.env.Environment");
-        Method getSpringConfig = springEnvUtil.getMethod("getSpringConfig", String.class);
-        return getSpringConfig.invoke(null, value);
+        return invoke(getSpringConfig, value);
     }
 
     /**
@@ -382,14 +359,12 @@ public class DebugToolsEnvUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T getTargetObject(Object candidate) {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getTargetObject = method(GET_TARGET_OBJECT);
+        if (getTargetObject == null) {
             return (T) candidate;
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.aop.SpringProxy");
-            Method getTargetObject = springEnvUtil.getMethod("getTargetObject", Object.class);
-            return (T) getTargetObject.invoke(null, candidate);
+            return (T) invoke(getTargetObject, candidate);
         } catch (Exception ignored) {
             return (T) candidate;
         }
@@ -402,14 +377,12 @@ public class DebugToolsEnvUtils {
      * @return 原始目标类，如果不是代理对象则返回自身的类
      */
     public static Class<?> getTargetClass(Object candidate) {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getTargetClass = method(GET_TARGET_CLASS);
+        if (getTargetClass == null) {
             return candidate.getClass();
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.aop.SpringProxy");
-            Method getTargetClass = springEnvUtil.getMethod("getTargetClass", Object.class);
-            return (Class<?>) getTargetClass.invoke(null, candidate);
+            return (Class<?>) invoke(getTargetClass, candidate);
         } catch (Exception ignored) {
             return candidate.getClass();
         }
@@ -422,18 +395,14 @@ public class DebugToolsEnvUtils {
      * @return 原始方法，如果不是桥接方法则返回自身
      */
     public static Method findBridgedMethod(Method targetMethod) {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle findBridgedMethod = method(FIND_BRIDGED_METHOD);
+        if (findBridgedMethod == null) {
             return targetMethod;
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.core.BridgeMethodResolver");
-            Method findBridgedMethod = springEnvUtil.getMethod("findBridgedMethod", Method.class);
-            return (Method) findBridgedMethod.invoke(null, targetMethod);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            return (Method) invoke(findBridgedMethod, targetMethod);
+        } catch (InvocationTargetException e) {
             throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return targetMethod;
         }
     }
 
@@ -443,18 +412,14 @@ public class DebugToolsEnvUtils {
      * @param runDTO 包含请求信息的DTO对象
      */
     public static void setRequest(RunDTO runDTO) {
-        Class<?> springServletUtil = getSpringServletUtil();
-        if (springServletUtil == null) {
+        MethodHandle setRequest = method(SET_REQUEST);
+        if (setRequest == null) {
             return;
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.web.context.request.RequestContextHolder");
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "javax.servlet.http.HttpServletRequest");
-            Method setRequest = springServletUtil.getMethod("setRequest", RunDTO.class);
-            setRequest.invoke(null, runDTO);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            invoke(setRequest, runDTO);
+        } catch (InvocationTargetException e) {
             throw new RuntimeException(e);
-        } catch (Exception ignored) {
         }
     }
 
@@ -465,18 +430,14 @@ public class DebugToolsEnvUtils {
      * @return 如果是Spring AOP代理返回true，否则返回false
      */
     public static boolean isAopProxy(InvocationHandler invocationHandler) {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle isAopProxy = method(IS_AOP_PROXY);
+        if (isAopProxy == null) {
             return false;
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.aop.framework.AopProxy");
-            Method isAopProxy = springEnvUtil.getMethod("isAopProxy", InvocationHandler.class);
-            return (boolean) isAopProxy.invoke(null, invocationHandler);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            return (boolean) invoke(isAopProxy, invocationHandler);
+        } catch (InvocationTargetException e) {
             throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return false;
         }
     }
 
@@ -488,18 +449,14 @@ public class DebugToolsEnvUtils {
      * @return 参数数组
      */
     public static Object[] getArgs(Method bridgedMethod, Map<String, RunContentDTO> targetMethodContent) {
-        Class<?> springEnvUtil = getSpringEnvUtilClass();
-        if (springEnvUtil == null) {
+        MethodHandle getArgs = method(GET_ARGS);
+        if (getArgs == null) {
             return DebugToolsParamConvertUtils.getArgs(bridgedMethod, targetMethodContent);
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.core.ResolvableType");
-            Method getArgs = springEnvUtil.getMethod("getArgs", Method.class, Map.class);
-            return (Object[]) getArgs.invoke(null, bridgedMethod, targetMethodContent);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            return (Object[]) invoke(getArgs, bridgedMethod, targetMethodContent);
+        } catch (InvocationTargetException e) {
             throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return DebugToolsParamConvertUtils.getArgs(bridgedMethod, targetMethodContent);
         }
     }
 
@@ -509,20 +466,7 @@ public class DebugToolsEnvUtils {
      * @return HTTP请求对象，如果Spring Servlet工具类不存在则返回null
      */
     public static Object getRequest() {
-        Class<?> springServletUtil = getSpringServletUtil();
-        if (springServletUtil == null) {
-            return null;
-        }
-        try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.http.MediaType");
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "javax.servlet.http.HttpServletRequest");
-            Method getRequest = springServletUtil.getMethod("getRequest");
-            return getRequest.invoke(null);
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return null;
-        }
+        return invokeOrThrow(GET_REQUEST);
     }
 
     /**
@@ -531,19 +475,7 @@ public class DebugToolsEnvUtils {
      * @return ServerHttpRequest对象，如果Spring Reactive工具类不存在则返回null
      */
     public static Object getServerHttpRequest() {
-        Class<?> springReactiveUtil = getSpringReactiveUtil();
-        if (springReactiveUtil == null) {
-            return null;
-        }
-        try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.http.server.reactive.ServerHttpRequest");
-            Method getRequest = springReactiveUtil.getMethod("getServerHttpRequest");
-            return getRequest.invoke(null);
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return null;
-        }
+        return invokeOrThrow(GET_SERVER_HTTP_REQUEST);
     }
 
     /**
@@ -552,19 +484,7 @@ public class DebugToolsEnvUtils {
      * @return ServerWebExchange对象，如果Spring Reactive工具类不存在则返回null
      */
     public static Object getServerWebExchange() {
-        Class<?> springReactiveUtil = getSpringReactiveUtil();
-        if (springReactiveUtil == null) {
-            return null;
-        }
-        try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.web.server.ServerWebExchange");
-            Method getRequest = springReactiveUtil.getMethod("getServerWebExchange");
-            return getRequest.invoke(null);
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return null;
-        }
+        return invokeOrThrow(GET_SERVER_WEB_EXCHANGE);
     }
 
     /**
@@ -573,19 +493,7 @@ public class DebugToolsEnvUtils {
      * @return HTTP响应对象，如果Spring Servlet工具类不存在则返回null
      */
     public static Object getResponse() {
-        Class<?> springServletUtil = getSpringServletUtil();
-        if (springServletUtil == null) {
-            return null;
-        }
-        try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.http.MediaType");
-            Method getResponse = springServletUtil.getMethod("getResponse");
-            return getResponse.invoke(null);
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return null;
-        }
+        return invokeOrThrow(GET_RESPONSE);
     }
 
     /**
@@ -594,19 +502,7 @@ public class DebugToolsEnvUtils {
      * @return ServerHttpResponse对象，如果Spring Reactive工具类不存在则返回null
      */
     public static Object getServerHttpResponse() {
-        Class<?> springReactiveUtil = getSpringReactiveUtil();
-        if (springReactiveUtil == null) {
-            return null;
-        }
-        try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "org.springframework.http.server.reactive.ServerHttpResponse");
-            Method getServerHttpResponse = springReactiveUtil.getMethod("getServerHttpResponse");
-            return getServerHttpResponse.invoke(null);
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (Exception ignored) {
-            return null;
-        }
+        return invokeOrThrow(GET_SERVER_HTTP_RESPONSE);
     }
 
     /**
@@ -615,17 +511,29 @@ public class DebugToolsEnvUtils {
      * @param jobParam 任务参数
      */
     public static void setXxlJobParam(String jobParam) {
-        Class<?> xxlJobEnvUtil = getXxlJobEnvUtil();
-        if (xxlJobEnvUtil == null) {
+        MethodHandle setXxlJobParam = method(SET_XXL_JOB_PARAM);
+        if (setXxlJobParam == null) {
             return;
         }
         try {
-            DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, "com.xxl.job.core.context.XxlJobContext");
-            Method setXxlJobParam = xxlJobEnvUtil.getMethod("setXxlJobParam", String.class);
-            setXxlJobParam.invoke(null, jobParam);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            invoke(setXxlJobParam, jobParam);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 调用无参扩展方法，扩展不存在时返回null，目标方法异常包装为RuntimeException抛出
+     */
+    private static Object invokeOrThrow(ExtensionMethod extensionMethod) {
+        MethodHandle handle = method(extensionMethod);
+        if (handle == null) {
+            return null;
+        }
+        try {
+            return invoke(handle);
+        } catch (InvocationTargetException e) {
             throw new RuntimeException(e);
-        } catch (Exception ignored) {
         }
     }
 }
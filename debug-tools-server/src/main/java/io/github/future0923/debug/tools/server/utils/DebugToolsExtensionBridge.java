@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.utils;
+
+import io.github.future0923.debug.tools.base.classloader.DebugToolsExtensionClassLoader;
+import io.github.future0923.debug.tools.base.config.AgentConfig;
+import io.github.future0923.debug.tools.base.constants.ProjectConstants;
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.base.utils.DebugToolsClassUtils;
+import io.github.future0923.debug.tools.server.http.handler.AllClassLoaderHttpHandler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 框架扩展（Spring/Solon/XXL-Job）工具类的调用桥
+ * <p>
+ * 每个应用类加载器对应一个桥，扩展工具类和方法只解析一次并缓存为 {@link MethodHandle}，
+ * 扩展或框架依赖不存在时缓存空结果，后续调用直接返回，不再重复加载类和查找方法。
+ *
+ * @author future0923
+ */
+public class DebugToolsExtensionBridge {
+
+    private static final Logger logger = Logger.getLogger(DebugToolsExtensionBridge.class);
+
+    public static final String SPRING_ENV_UTIL = "io.github.future0923.debug.tools.extension.spring.SpringEnvUtil";
+
+    public static final String SPRING_SERVLET_UTIL = "io.github.future0923.debug.tools.extension.spring.SpringServletUtil";
+
+    public static final String SPRING_REACTIVE_UTIL = "io.github.future0923.debug.tools.extension.spring.SpringReactiveUtil";
+
+    public static final String SOLON_ENV_UTIL = "io.github.future0923.debug.tools.extension.solon.SolonEnvUtil";
+
+    public static final String XXL_JOB_ENV_UTIL = "io.github.future0923.debug.tools.extension.xxljob.XxlJobEnvUtil";
+
+    /**
+     * 应用类加载器 -> 调用桥
+     */
+    private static final Map<ClassLoader, DebugToolsExtensionBridge> BRIDGE_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 统一的调用类型 (Object[])Object
+     */
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final ClassLoader appClassLoader;
+
+    private final DebugToolsExtensionClassLoader extensionClassLoader;
+
+    /**
+     * 扩展工具类，类不存在时为空
+     */
+    private final Map<String, Optional<Class<?>>> utilClassCache = new ConcurrentHashMap<>();
+
+    /**
+     * 扩展方法，扩展或依赖不存在时为空
+     */
+    private final Map<ExtensionMethod, Optional<MethodHandle>> methodCache = new ConcurrentHashMap<>();
+
+    private DebugToolsExtensionBridge(ClassLoader appClassLoader) {
+        this.appClassLoader = appClassLoader;
+        List<URL> urls = new LinkedList<>();
+        Optional.ofNullable(AgentConfig.INSTANCE.getSpringExtensionURL()).ifPresent(urls::add);
+        Optional.ofNullable(AgentConfig.INSTANCE.getSolonExtensionURL()).ifPresent(urls::add);
+        Optional.ofNullable(AgentConfig.INSTANCE.getXxlJobExtensionURL()).ifPresent(urls::add);
+        this.extensionClassLoader = new DebugToolsExtensionClassLoader(urls.toArray(new URL[0]), appClassLoader);
+    }
+
+    /**
+     * 获取当前线程上下文类加载器对应的调用桥
+     */
+    public static DebugToolsExtensionBridge current() {
+        return get(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * 获取类加载器对应的调用桥
+     *
+     * @param classLoader 应用类加载器，为null时使用默认类加载器
+     */
+    public static DebugToolsExtensionBridge get(ClassLoader classLoader) {
+        if (classLoader == null) {
+            classLoader = AllClassLoaderHttpHandler.getDefaultClassLoader();
+        }
+        DebugToolsExtensionBridge bridge = BRIDGE_MAP.get(classLoader);
+        if (bridge != null) {
+            return bridge;
+        }
+        return BRIDGE_MAP.computeIfAbsent(classLoader, DebugToolsExtensionBridge::new);
+    }
+
+    /**
+     * 获取扩展工具类
+     *
+     * @param className 扩展工具类名
+     * @return 扩展工具类，不存在时返回null
+     */
+    public Class<?> getUtilClass(String className) {
+        Optional<Class<?>> utilClass = utilClassCache.get(className);
+        if (utilClass == null) {
+            utilClass = utilClassCache.computeIfAbsent(className, this::loadUtilClass);
+        }
+        return utilClass.orElse(null);
+    }
+
+    private Optional<Class<?>> loadUtilClass(String className) {
+        try {
+            return Optional.of(extensionClassLoader.loadClass(className));
+        } catch (ClassNotFoundException | LinkageError e) {
+            if (ProjectConstants.DEBUG) {
+                logger.warning("{} get error", e, className);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 获取扩展方法
+     *
+     * @param extensionMethod 扩展方法描述
+     * @return 方法句柄，类型为 (Object[])Object，扩展或依赖不存在时返回null
+     */
+    public MethodHandle getMethod(ExtensionMethod extensionMethod) {
+        Optional<MethodHandle> handle = methodCache.get(extensionMethod);
+        if (handle == null) {
+            handle = methodCache.computeIfAbsent(extensionMethod, this::resolveMethod);
+        }
+        return handle.orElse(null);
+    }
+
+    private Optional<MethodHandle> resolveMethod(ExtensionMethod extensionMethod) {
+        Class<?> utilClass = getUtilClass(extensionMethod.utilClassName);
+        if (utilClass == null) {
+            return Optional.empty();
+        }
+        try {
+            for (String requiredClassName : extensionMethod.requiredClassNames) {
+                DebugToolsClassUtils.loadDebugToolsClass(appClassLoader, requiredClassName);
+            }
+            Method method = utilClass.getMethod(extensionMethod.methodName, extensionMethod.parameterTypes);
+            return Optional.of(MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asSpreader(Object[].class, extensionMethod.parameterTypes.length)
+                    .asType(INVOKE_TYPE));
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            if (ProjectConstants.DEBUG) {
+                logger.warning("{}.{} resolve error", e, extensionMethod.utilClassName, extensionMethod.methodName);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 调用扩展方法，目标方法抛出的异常包装为 {@link InvocationTargetException}，与反射调用保持一致
+     *
+     * @param handle {@link #getMethod(ExtensionMethod)} 返回的方法句柄
+     * @param args   参数
+     * @return 返回值，void方法返回null
+     */
+    public static Object invoke(MethodHandle handle, Object... args) throws InvocationTargetException {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * 扩展方法描述，作为缓存的key，按实例比较，应声明为常量
+     */
+    public static final class ExtensionMethod {
+
+        private final String utilClassName;
+
+        private final String methodName;
+
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * 调用前需要应用中存在的类，不存在时视为扩展不可用
+         */
+        private final String[] requiredClassNames;
+
+        public ExtensionMethod(String utilClassName, String methodName, Class<?>[] parameterTypes, String... requiredClassNames) {
+            this.utilClassName = utilClassName;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.requiredClassNames = requiredClassNames;
+        }
+    }
+}
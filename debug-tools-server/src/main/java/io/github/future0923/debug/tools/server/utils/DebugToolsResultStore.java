@@ -0,0 +1,606 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.utils;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.common.protocal.http.ResultCacheStatsRes;
+import io.github.future0923.debug.tools.common.utils.JdkUnsafeUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运行结果存储
+ * <p>
+ * 保存方法执行结果、异常和追踪树，供客户端按offsetPath查看详情。条目数量和估算的内存占用都有上限，
+ * 超出时按最近最少访问淘汰；超过存活时间没有被访问的条目由后台线程清理。可选使用软引用/弱引用保存结果，
+ * 内存紧张时由GC回收。
+ *
+ * @author future0923
+ */
+public class DebugToolsResultStore {
+
+    private static final Logger logger = Logger.getLogger(DebugToolsResultStore.class);
+
+    public static final DebugToolsResultStore INSTANCE = new DebugToolsResultStore();
+
+    /**
+     * 默认最多保存的结果数量
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * 默认估算内存上限(MB)
+     */
+    public static final int DEFAULT_MAX_MB = 256;
+
+    /**
+     * 默认未访问的存活时间(s)
+     */
+    public static final int DEFAULT_TTL_SECONDS = 30 * 60;
+
+    /**
+     * 估算内存时最多遍历的对象数量，超出后无法估算
+     */
+    static final int MAX_ESTIMATE_OBJECTS = 200_000;
+
+    /**
+     * 对象图超过 {@link #MAX_ESTIMATE_OBJECTS} 时{@link #estimateSize}的返回值，按整个内存上限计算
+     */
+    static final long UNKNOWN_SIZE = -1;
+
+    private static final long CLEAN_INTERVAL_SECONDS = 60;
+
+    /**
+     * 每个结果最多保存的容器快照数量，超出后清空重新记录
+     */
+    private static final int MAX_SNAPSHOTS = 1000;
+
+    /**
+     * 应用中共享的对象类型，结果引用到时不计入
+     */
+    private static final String[] SHARED_TYPE_NAMES = {
+            "org.springframework.beans.factory.BeanFactory",
+            "org.springframework.context.ApplicationContext",
+            "javax.sql.DataSource",
+    };
+
+    /**
+     * Spring组件注解，标注的类（包括通过元注解标注）的实例是容器中的bean
+     */
+    private static final String COMPONENT_ANNOTATION_NAME = "org.springframework.stereotype.Component";
+
+    /**
+     * Spring CGLIB代理类名中的标记
+     */
+    private static final String[] CGLIB_PROXY_MARKERS = {"$$EnhancerBySpringCGLIB$$", "$$SpringCGLIB$$"};
+
+    /**
+     * 估算对象大小时字段的缓存
+     */
+    private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<ClassLayout>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return new ClassLayout(type);
+        }
+    };
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private volatile long maxBytes = DEFAULT_MAX_MB * 1024L * 1024L;
+
+    private volatile long ttlMillis = DEFAULT_TTL_SECONDS * 1000L;
+
+    private volatile Retention retention = Retention.STRONG;
+
+    private long estimatedBytes;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long putCount;
+
+    private long evictionCount;
+
+    private long expiredCount;
+
+    private long collectedCount;
+
+    private ScheduledExecutorService cleaner;
+
+    private DebugToolsResultStore() {
+
+    }
+
+    /**
+     * 修改配置，传入null或非正数时使用默认值
+     *
+     * @param maxEntries 最多保存的结果数量
+     * @param maxMb      估算内存上限(MB)
+     * @param ttlSeconds 未访问的存活时间(s)
+     * @param retention  引用类型 strong | soft | weak
+     */
+    public synchronized void configure(Integer maxEntries, Integer maxMb, Integer ttlSeconds, String retention) {
+        this.maxEntries = maxEntries == null || maxEntries <= 0 ? DEFAULT_MAX_ENTRIES : maxEntries;
+        this.maxBytes = (maxMb == null || maxMb <= 0 ? DEFAULT_MAX_MB : maxMb) * 1024L * 1024L;
+        this.ttlMillis = (ttlSeconds == null || ttlSeconds <= 0 ? DEFAULT_TTL_SECONDS : ttlSeconds) * 1000L;
+        this.retention = Retention.of(retention);
+        evict(System.currentTimeMillis());
+    }
+
+    public void put(String key, Object value) {
+        long size = estimateSize(value);
+        // 无法估算的结果至少和内存上限一样大
+        Entry entry = new Entry(value, retention, size == UNKNOWN_SIZE ? maxBytes : size);
+        synchronized (this) {
+            Entry old = entries.put(key, entry);
+            if (old != null) {
+                estimatedBytes -= old.size;
+            }
+            estimatedBytes += entry.size;
+            putCount++;
+            evict(entry.lastAccessTime);
+        }
+        startCleaner();
+    }
+
+    public synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.lastAccessTime < now - ttlMillis) {
+            remove(key, entry);
+            expiredCount++;
+            missCount++;
+            return null;
+        }
+        Object value = entry.get();
+        if (value == null) {
+            remove(key, entry);
+            collectedCount++;
+            missCount++;
+            return null;
+        }
+        entry.lastAccessTime = now;
+        hitCount++;
+        return value;
+    }
+
+    /**
+     * 记录容器展开时的子节点快照，之后同一个结果按位置查找子节点都使用这个快照，容器被修改后位置也不会错乱。
+     * 快照在结果被移除前一直强引用保存，不会被GC回收后按变化后的顺序重建，快照数组的大小计入结果的估算内存
+     *
+     * @param key        结果的key
+     * @param offsetPath 容器的offsetPath
+     * @param snapshot   容器的子节点
+     */
+    public synchronized void putSnapshot(String key, String offsetPath, Object[] snapshot) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.snapshots == null) {
+            entry.snapshots = new HashMap<>();
+        } else if (entry.snapshots.size() >= MAX_SNAPSHOTS) {
+            for (Object[] old : entry.snapshots.values()) {
+                entry.size -= snapshotSize(old);
+                estimatedBytes -= snapshotSize(old);
+            }
+            entry.snapshots.clear();
+        }
+        Object[] old = entry.snapshots.put(offsetPath, snapshot);
+        long delta = snapshotSize(snapshot) - (old == null ? 0 : snapshotSize(old));
+        entry.size += delta;
+        estimatedBytes += delta;
+        evict(System.currentTimeMillis());
+    }
+
+    /**
+     * 获取容器的子节点快照
+     *
+     * @param key        结果的key
+     * @param offsetPath 容器的offsetPath
+     * @return 子节点快照，没有记录时返回null
+     */
+    public synchronized Object[] getSnapshot(String key, String offsetPath) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.snapshots == null) {
+            return null;
+        }
+        return entry.snapshots.get(offsetPath);
+    }
+
+    public synchronized void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            estimatedBytes -= entry.size;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    public synchronized ResultCacheStatsRes getStats() {
+        ResultCacheStatsRes res = new ResultCacheStatsRes();
+        res.setEntries(entries.size());
+        res.setEstimatedBytes(estimatedBytes);
+        res.setMaxEntries(maxEntries);
+        res.setMaxBytes(maxBytes);
+        res.setTtlSeconds(ttlMillis / 1000);
+        res.setRetention(retention.name().toLowerCase());
+        res.setHitCount(hitCount);
+        res.setMissCount(missCount);
+        res.setPutCount(putCount);
+        res.setEvictionCount(evictionCount);
+        res.setExpiredCount(expiredCount);
+        res.setCollectedCount(collectedCount);
+        return res;
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            estimatedBytes -= entry.size;
+        }
+    }
+
+    /**
+     * 清理过期、已被GC回收的条目，再按最近最少访问淘汰到上限以内。最新放入的条目至少保留一个
+     */
+    private void evict(long now) {
+        long expireBefore = now - ttlMillis;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.lastAccessTime < expireBefore) {
+                expiredCount++;
+            } else if (entry.isCollected()) {
+                collectedCount++;
+            } else {
+                continue;
+            }
+            iterator.remove();
+            estimatedBytes -= entry.size;
+        }
+        iterator = entries.values().iterator();
+        while (entries.size() > 1 && (entries.size() > maxEntries || estimatedBytes > maxBytes) && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            estimatedBytes -= entry.size;
+            evictionCount++;
+        }
+    }
+
+    private synchronized void startCleaner() {
+        if (cleaner != null) {
+            return;
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("DebugTools-ResultStore-Cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        cleaner.scheduleWithFixedDelay(() -> {
+            try {
+                synchronized (this) {
+                    evict(System.currentTimeMillis());
+                }
+            } catch (Throwable e) {
+                logger.error("result store clean error", e);
+            }
+        }, CLEAN_INTERVAL_SECONDS, CLEAN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 估算对象图占用的内存，按64位JVM开启压缩指针计算
+     * <p>
+     * 类、类加载器、线程以及Spring bean、代理等应用共享对象不计入，也不继续遍历它们引用的对象。
+     * 对象图超过 {@link #MAX_ESTIMATE_OBJECTS} 个对象时，遍历到的只是下限，深层对象图无法从已遍历部分推算，返回{@link #UNKNOWN_SIZE}。
+     *
+     * @return 估算的字节数，无法估算时返回{@link #UNKNOWN_SIZE}
+     */
+    static long estimateSize(Object root) {
+        if (root == null) {
+            return 0;
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long size = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (visited.contains(object)) {
+                continue;
+            }
+            if (visited.size() >= MAX_ESTIMATE_OBJECTS) {
+                return UNKNOWN_SIZE;
+            }
+            visited.add(object);
+            Class<?> clazz = object.getClass();
+            if (clazz.isArray()) {
+                int length = Array.getLength(object);
+                Class<?> componentType = clazz.getComponentType();
+                size += align(16 + (long) length * ClassLayout.sizeOf(componentType));
+                if (!componentType.isPrimitive()) {
+                    for (Object element : (Object[]) object) {
+                        if (element != null && !isShared(element)) {
+                            pending.push(element);
+                        }
+                    }
+                }
+                continue;
+            }
+            ClassLayout layout = LAYOUTS.get(clazz);
+            size += layout.shallowSize;
+            for (long offset : layout.referenceOffsets) {
+                Object value = JdkUnsafeUtils.getObject(object, offset, null);
+                if (value != null && !isShared(value)) {
+                    pending.push(value);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 类、类加载器、线程、Spring bean等对象不属于结果本身，不计入
+     */
+    private static boolean isShared(Object object) {
+        return object instanceof Class || object instanceof ClassLoader || object instanceof Thread || LAYOUTS.get(object.getClass()).shared;
+    }
+
+    /**
+     * 快照数组本身的大小，数组中的子节点属于结果，已经计入
+     */
+    private static long snapshotSize(Object[] snapshot) {
+        return align(16 + (long) snapshot.length * ClassLayout.sizeOf(Object.class));
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * 引用类型
+     */
+    public enum Retention {
+
+        /**
+         * 强引用，只按数量、内存和存活时间淘汰
+         */
+        STRONG,
+
+        /**
+         * 软引用，内存不足时可被GC回收
+         */
+        SOFT,
+
+        /**
+         * 弱引用，没有其他引用时可被GC回收
+         */
+        WEAK;
+
+        /**
+         * 按引用类型包装对象
+         */
+        private Object wrap(Object value) {
+            if (this == SOFT) {
+                return new SoftReference<>(value);
+            }
+            if (this == WEAK) {
+                return new WeakReference<>(value);
+            }
+            return value;
+        }
+
+        /**
+         * 获取包装的对象，已被回收时返回null
+         */
+        private static Object unwrap(Object value) {
+            return value instanceof Reference ? ((Reference<?>) value).get() : value;
+        }
+
+        public static Retention of(String name) {
+            if (name != null) {
+                for (Retention retention : values()) {
+                    if (retention.name().equalsIgnoreCase(name.trim())) {
+                        return retention;
+                    }
+                }
+            }
+            return STRONG;
+        }
+    }
+
+    private static class Entry {
+
+        private final Object value;
+
+        private final Retention retention;
+
+        /**
+         * 估算的内存，包含快照数组
+         */
+        private long size;
+
+        private long lastAccessTime = System.currentTimeMillis();
+
+        /**
+         * 容器offsetPath -> 子节点快照
+         */
+        private Map<String, Object[]> snapshots;
+
+        private Entry(Object value, Retention retention, long size) {
+            this.value = retention.wrap(value);
+            this.retention = retention;
+            this.size = size;
+        }
+
+        private Object get() {
+            return Retention.unwrap(value);
+        }
+
+        private boolean isCollected() {
+            return value instanceof Reference && ((Reference<?>) value).get() == null;
+        }
+    }
+
+    /**
+     * 类的浅层大小和引用字段偏移量
+     */
+    private static class ClassLayout {
+
+        private final long shallowSize;
+
+        private final long[] referenceOffsets;
+
+        /**
+         * 是否是应用共享对象的类型
+         */
+        private final boolean shared;
+
+        private ClassLayout(Class<?> clazz) {
+            this.shared = isSharedType(clazz);
+            long size = 12;
+            List<Long> offsets = new ArrayList<>();
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+                Field[] fields;
+                try {
+                    fields = current.getDeclaredFields();
+                } catch (Throwable e) {
+                    continue;
+                }
+                for (Field field : fields) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    size += sizeOf(field.getType());
+                    if (!field.getType().isPrimitive()) {
+                        try {
+                            offsets.add(JdkUnsafeUtils.getObjectFieldOffset(field));
+                        } catch (Throwable ignored) {
+                            // record、隐藏类不支持获取偏移量
+                        }
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+            this.referenceOffsets = new long[offsets.size()];
+            for (int i = 0; i < referenceOffsets.length; i++) {
+                referenceOffsets[i] = offsets.get(i);
+            }
+        }
+
+        private static boolean isSharedType(Class<?> clazz) {
+            if (clazz.isArray() || clazz.isPrimitive()) {
+                return false;
+            }
+            if (Proxy.isProxyClass(clazz)) {
+                return true;
+            }
+            for (String marker : CGLIB_PROXY_MARKERS) {
+                if (clazz.getName().contains(marker)) {
+                    return true;
+                }
+            }
+            try {
+                for (Annotation annotation : clazz.getAnnotations()) {
+                    if (isComponent(annotation.annotationType(), new HashSet<>())) {
+                        return true;
+                    }
+                }
+            } catch (Throwable ignored) {
+                // 注解类型找不到时按普通类处理
+            }
+            return isSharedTypeName(clazz, new HashSet<>());
+        }
+
+        private static boolean isComponent(Class<? extends Annotation> annotationType, Set<Class<?>> visited) {
+            if (COMPONENT_ANNOTATION_NAME.equals(annotationType.getName())) {
+                return true;
+            }
+            if (!visited.add(annotationType) || annotationType.getName().startsWith("java.lang.annotation.")) {
+                return false;
+            }
+            for (Annotation meta : annotationType.getAnnotations()) {
+                if (isComponent(meta.annotationType(), visited)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isSharedTypeName(Class<?> clazz, Set<Class<?>> visited) {
+            if (clazz == null || clazz == Object.class || !visited.add(clazz)) {
+                return false;
+            }
+            for (String name : SHARED_TYPE_NAMES) {
+                if (name.equals(clazz.getName())) {
+                    return true;
+                }
+            }
+            for (Class<?> anInterface : clazz.getInterfaces()) {
+                if (isSharedTypeName(anInterface, visited)) {
+                    return true;
+                }
+            }
+            return isSharedTypeName(clazz.getSuperclass(), visited);
+        }
+
+        private static int sizeOf(Class<?> type) {
+            if (type == long.class || type == double.class) {
+                return 8;
+            }
+            if (type == byte.class || type == boolean.class) {
+                return 1;
+            }
+            if (type == short.class || type == char.class) {
+                return 2;
+            }
+            return 4;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.github.future0923.debug.tools.server.utils;
 
 import io.github.future0923.debug.tools.base.hutool.core.collection.CollUtil;
+import io.github.future0923.debug.tools.base.hutool.core.convert.Convert;
 import io.github.future0923.debug.tools.base.hutool.core.util.ArrayUtil;
 import io.github.future0923.debug.tools.base.hutool.core.util.ClassUtil;
 import io.github.future0923.debug.tools.base.logging.Logger;
@@ -25,7 +26,10 @@ import io.github.future0923.debug.tools.common.dto.RunResultDTO;
 import io.github.future0923.debug.tools.common.enums.ResultVarClassType;
 import io.github.future0923.debug.tools.base.utils.DebugToolsClassUtils;
 import io.github.future0923.debug.tools.common.utils.JdkUnsafeUtils;
+import io.github.future0923.debug.tools.server.DebugToolsBootstrap;
+import io.github.future0923.debug.tools.server.config.ServerConfig;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -34,27 +38,40 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.RandomAccess;
 
 /**
  * @author future0923
  */
 public class DebugToolsResultUtils {
 
-    private static final Map<String, Object> CACHE = new ConcurrentHashMap<>();
-
     private static final Logger log = Logger.getLogger(DebugToolsResultUtils.class);
 
+    /**
+     * 容器默认每页子节点数量
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * 容器每页最多子节点数量
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * offsetPath与分页起始位置的分隔符
+     */
+    public static final String PAGE_SEPARATOR = "#";
+
     public static void putCache(String offsetPath, Object object) {
         if (offsetPath == null || object == null) {
             return;
         }
-        CACHE.put(offsetPath, object);
+        DebugToolsResultStore.INSTANCE.put(offsetPath, object);
     }
 
     public static void removeCache(String offsetPath) {
         if (DebugToolsStringUtils.isNotBlank(offsetPath)) {
-            CACHE.remove(offsetPath);
+            DebugToolsResultStore.INSTANCE.remove(offsetPath);
         }
     }
 
@@ -64,14 +81,67 @@ public class DebugToolsResultUtils {
         }
         int index = offsetPath.indexOf("/");
         if (index == -1) {
-            return CACHE.get(offsetPath);
+            return DebugToolsResultStore.INSTANCE.get(offsetPath);
         } else {
-            Object object = CACHE.get(offsetPath.substring(0, index));
+            Object object = DebugToolsResultStore.INSTANCE.get(offsetPath.substring(0, index));
             if (object == null) {
                 return null;
             }
-            return getValueByOffset(object, offsetPath);
+            return getValueBySnapshotOffset(object, offsetPath);
+        }
+    }
+
+    /**
+     * 从结果根节点逐级查找，Map和不能按下标访问的集合按展开时的快照取子节点
+     */
+    private static Object getValueBySnapshotOffset(Object root, String offsetPath) {
+        Object result = root;
+        int start = offsetPath.indexOf("/");
+        while (start != -1 && result != null) {
+            int end = offsetPath.indexOf("/", start + 1);
+            String[] split = offsetPath.substring(start + 1, end == -1 ? offsetPath.length() : end).split("@");
+            if (split.length == 2) {
+                long offset = Long.parseLong(split[0]);
+                if (isSnapshotContainer(result)) {
+                    Object[] children = getSnapshot(result, offsetPath.substring(0, start));
+                    result = offset < children.length ? children[Math.toIntExact(offset)] : null;
+                } else {
+                    result = getValueByOffset(result, offset, split[1]);
+                }
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * 获取结果的文本内容
+     */
+    public static String toPrintResult(Object object) {
+        if (object == null) {
+            return "NULL";
+        }
+        return ClassUtil.isSimpleValueType(object.getClass()) ? Convert.toStr(object) : object.toString();
+    }
+
+    /**
+     * 截断超过 {@link ServerConfig#getResultPreviewLength()} 的结果内容
+     */
+    public static String preview(String printResult) {
+        if (printResult == null || printResult.length() <= DebugToolsBootstrap.serverConfig.getResultPreviewLength()) {
+            return printResult;
         }
+        return printResult.substring(0, DebugToolsBootstrap.serverConfig.getResultPreviewLength());
+    }
+
+    /**
+     * 结果内容被截断时返回完整长度，否则返回null
+     */
+    public static Integer truncatedLength(String printResult) {
+        if (printResult == null || printResult.length() <= DebugToolsBootstrap.serverConfig.getResultPreviewLength()) {
+            return null;
+        }
+        return printResult.length();
     }
 
     public static Object getValueByField(Object object, Field field) {
@@ -111,12 +181,7 @@ public class DebugToolsResultUtils {
             return object;
         }
         if (object instanceof Map<?, ?>) {
-            return ((Map<?, ?>) object)
-                    .entrySet()
-                    .stream()
-                    .filter(h -> System.identityHashCode(h.getKey()) == offset)
-                    .findFirst()
-                    .orElse(null);
+            return CollUtil.get(((Map<?, ?>) object).entrySet(), Math.toIntExact(offset));
         } else if (object instanceof Map.Entry<?, ?>) {
             Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
             return offset == 0 ? entry.getKey() : entry.getValue();
@@ -130,15 +195,29 @@ public class DebugToolsResultUtils {
     }
 
     public static List<RunResultDTO> convertRunResultDTO(Object object, String filedOffset) {
+        return convertRunResultDTO(object, filedOffset, 0, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 展开结果的子节点，集合、数组和Map只返回[offset, offset + limit)范围内的子节点，后面还有时追加一个 {@link RunResultDTO.Type#PAGE} 节点
+     *
+     * @param object      要展开的对象
+     * @param filedOffset 对象的offsetPath
+     * @param offset      容器子节点的起始位置
+     * @param limit       容器子节点的最大数量
+     */
+    public static List<RunResultDTO> convertRunResultDTO(Object object, String filedOffset, int offset, int limit) {
         if (object == null) {
             return Collections.emptyList();
         }
         if (ClassUtil.isBasicType(object.getClass())) {
             return Collections.singletonList(new RunResultDTO(null, object, RunResultDTO.Type.SIMPLE, filedOffset));
         }
+        offset = Math.max(offset, 0);
+        limit = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
         if (object instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) object;
-            return map(map, filedOffset);
+            return map(map, filedOffset, offset, limit);
         }
         if (object instanceof Map.Entry<?, ?>) {
             Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
@@ -149,16 +228,28 @@ public class DebugToolsResultUtils {
         }
         if (object instanceof Collection<?>) {
             Collection<?> coll = (Collection<?>) object;
-            Object[] array = coll.toArray();
-            return array(array, filedOffset);
+            return collection(coll, filedOffset, offset, limit);
         }
         if (ArrayUtil.isArray(object)) {
-            Object[] array = (Object[]) object;
-            return array(array, filedOffset);
+            return array(object, filedOffset, offset, limit);
         }
         return object(object, filedOffset);
     }
 
+    /**
+     * 解析带分页位置的offsetPath
+     *
+     * @param offsetPath offsetPath或offsetPath#offset
+     * @return [offsetPath, offset]
+     */
+    public static String[] parsePageOffsetPath(String offsetPath) {
+        int index = offsetPath == null ? -1 : offsetPath.lastIndexOf(PAGE_SEPARATOR);
+        if (index == -1) {
+            return new String[]{offsetPath, null};
+        }
+        return new String[]{offsetPath.substring(0, index), offsetPath.substring(index + 1)};
+    }
+
     private static List<RunResultDTO> object(Object object, String filedOffset) {
         List<Field> declaredFields = DebugToolsClassUtils.getAllDeclaredFields(object.getClass());
         List<RunResultDTO> result = new ArrayList<>(declaredFields.size());
@@ -172,20 +263,93 @@ public class DebugToolsResultUtils {
         return result;
     }
 
-    private static List<RunResultDTO> array(Object[] array, String filedOffset) {
-        List<RunResultDTO> result = new ArrayList<>(array.length);
-        for (int i = 0; i < array.length; i++) {
-            String index = java.lang.String.valueOf(i);
-            result.add(new RunResultDTO(index, array[i], RunResultDTO.Type.COLLECTION, filedOffset + "/" + index + "@" + ResultVarClassType.COLLECTION.getType()));
+    private static List<RunResultDTO> array(Object array, String filedOffset, int offset, int limit) {
+        int length = Array.getLength(array);
+        int end = (int) Math.min(length, (long) offset + limit);
+        List<RunResultDTO> result = new ArrayList<>(Math.max(end - offset, 0) + 1);
+        for (int i = offset; i < end; i++) {
+            result.add(collectionElement(i, Array.get(array, i), filedOffset));
+        }
+        addPage(result, filedOffset, end, length);
+        return result;
+    }
+
+    private static List<RunResultDTO> collection(Collection<?> coll, String filedOffset, int offset, int limit) {
+        if (!isSnapshotContainer(coll)) {
+            List<?> list = (List<?>) coll;
+            int size = list.size();
+            int end = (int) Math.min(size, (long) offset + limit);
+            List<RunResultDTO> result = new ArrayList<>(Math.max(end - offset, 0) + 1);
+            for (int i = offset; i < end; i++) {
+                result.add(collectionElement(i, list.get(i), filedOffset));
+            }
+            addPage(result, filedOffset, end, size);
+            return result;
         }
+        // 不能按下标直接访问的集合，按第一次展开时的快照取子节点
+        Object[] children = getSnapshot(coll, filedOffset);
+        int end = (int) Math.min(children.length, (long) offset + limit);
+        List<RunResultDTO> result = new ArrayList<>(Math.max(end - offset, 0) + 1);
+        for (int i = offset; i < end; i++) {
+            result.add(collectionElement(i, children[i], filedOffset));
+        }
+        addPage(result, filedOffset, end, children.length);
         return result;
     }
 
-    private static List<RunResultDTO> map(Map<?, ?> map, String filedOffset) {
-        List<RunResultDTO> result = new ArrayList<>(map.size());
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            result.add(new RunResultDTO(entry.getKey(), entry.getValue(), RunResultDTO.Type.MAP, filedOffset + "/" + System.identityHashCode(entry.getKey()) + "@" + ResultVarClassType.MAP));
+    private static RunResultDTO collectionElement(int index, Object element, String filedOffset) {
+        String name = String.valueOf(index);
+        return new RunResultDTO(name, element, RunResultDTO.Type.COLLECTION, filedOffset + "/" + name + "@" + ResultVarClassType.COLLECTION.getType());
+    }
+
+    private static List<RunResultDTO> map(Map<?, ?> map, String filedOffset, int offset, int limit) {
+        // 按第一次展开时的快照取子节点，Map被修改后子节点的位置不变
+        Object[] children = getSnapshot(map, filedOffset);
+        int size = children.length;
+        int end = (int) Math.min(size, (long) offset + limit);
+        List<RunResultDTO> result = new ArrayList<>(Math.max(end - offset, 0) + 1);
+        for (int i = offset; i < end; i++) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) children[i];
+            String childOffset = filedOffset + "/" + i + "@" + ResultVarClassType.MAP.getType();
+            result.add(new RunResultDTO(entry.getKey(), entry.getValue(), RunResultDTO.Type.MAP, childOffset));
         }
+        addPage(result, filedOffset, end, size);
         return result;
     }
+
+    /**
+     * 容器还有剩余子节点时追加分页节点，展开该节点获取下一页
+     */
+    private static void addPage(List<RunResultDTO> result, String filedOffset, int end, int size) {
+        if (end < size) {
+            RunResultDTO page = new RunResultDTO("[" + end + ".." + (size - 1) + "]", "size = " + (size - end), RunResultDTO.Type.PAGE, filedOffset + PAGE_SEPARATOR + end);
+            page.setLeaf(false);
+            result.add(page);
+        }
+    }
+
+    /**
+     * Map和不能按下标访问的集合按位置取子节点时需要快照
+     */
+    private static boolean isSnapshotContainer(Object object) {
+        return object instanceof Map<?, ?> || (object instanceof Collection<?> && !(object instanceof List<?> && object instanceof RandomAccess));
+    }
+
+    /**
+     * 获取容器的子节点快照，同一个结果中第一次获取时创建并记录
+     *
+     * @param container   Map或集合
+     * @param filedOffset 容器的offsetPath
+     * @return Map返回Map.Entry数组，集合返回元素数组
+     */
+    private static Object[] getSnapshot(Object container, String filedOffset) {
+        int index = filedOffset.indexOf("/");
+        String key = index == -1 ? filedOffset : filedOffset.substring(0, index);
+        Object[] snapshot = DebugToolsResultStore.INSTANCE.getSnapshot(key, filedOffset);
+        if (snapshot == null) {
+            snapshot = container instanceof Map<?, ?> ? ((Map<?, ?>) container).entrySet().toArray() : ((Collection<?>) container).toArray();
+            DebugToolsResultStore.INSTANCE.putSnapshot(key, filedOffset, snapshot);
+        }
+        return snapshot;
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.compiler;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author future0923
+ */
+class DynamicCompilerCacheTest {
+
+    @Test
+    void redefinitionRemovesDependentByteCodes() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        DynamicCompilerCache.putByteCodes(classLoader, "a", byteCodes("test.A", "test.A$1"));
+        DynamicCompilerCache.putByteCodes(classLoader, "b", byteCodes("test.B"));
+
+        ClassRedefinitionListener.INSTANCE.transform(classLoader, "test/A", Object.class, null, new byte[0]);
+        // Object被重新定义，所有编译结果都可能依赖它
+        assertNull(DynamicCompilerCache.getByteCodes(classLoader, "a"));
+        assertNull(DynamicCompilerCache.getByteCodes(classLoader, "b"));
+
+        DynamicCompilerCache.putByteCodes(classLoader, "a", byteCodes("test.A", "test.A$1"));
+        DynamicCompilerCache.putByteCodes(classLoader, "b", byteCodes("test.B"));
+        DynamicCompilerCache.classesRedefined(classLoader, Collections.singletonList("test.A"));
+        assertNotNull(DynamicCompilerCache.getByteCodes(classLoader, "a"));
+        assertNull(DynamicCompilerCache.getByteCodes(classLoader, "b"));
+    }
+
+    @Test
+    void loadingIsIgnored() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        DynamicCompilerCache.putByteCodes(classLoader, "b", byteCodes("test.B"));
+        ClassRedefinitionListener.INSTANCE.transform(classLoader, "test/A", null, null, new byte[0]);
+        assertNotNull(DynamicCompilerCache.getByteCodes(classLoader, "b"));
+    }
+
+    @Test
+    void otherClassLoaderIsNotAffected() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        DynamicCompilerCache.putByteCodes(classLoader, "b", byteCodes("test.B"));
+        DynamicCompilerCache.classesRedefined(new URLClassLoader(new URL[0]), Collections.singletonList("test.A"));
+        assertNotNull(DynamicCompilerCache.getByteCodes(classLoader, "b"));
+    }
+
+    private static Map<String, byte[]> byteCodes(String... classNames) {
+        Map<String, byte[]> byteCodes = new HashMap<>();
+        for (String className : classNames) {
+            byteCodes.put(className, new byte[0]);
+        }
+        return byteCodes;
+    }
+}
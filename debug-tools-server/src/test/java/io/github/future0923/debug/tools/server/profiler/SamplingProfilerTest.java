@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.profiler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author future0923
+ */
+class SamplingProfilerTest {
+
+    /**
+     * 栈顶在前，与 {@link Thread#getStackTrace()} 顺序一致
+     */
+    private static StackTraceElement[] stack(String... methods) {
+        StackTraceElement[] elements = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            elements[i] = new StackTraceElement("T", methods[i], null, -1);
+        }
+        return elements;
+    }
+
+    @Test
+    void foldFromRoot() {
+        assertEquals("T.main;T.a;T.b", SamplingProfiler.fold(stack("b", "a", "main"), 10));
+    }
+
+    @Test
+    void truncateRootFrames() {
+        assertEquals("[truncated frames];T.c;T.d", SamplingProfiler.fold(stack("d", "c", "b", "a", "main"), 2));
+        // 采集了 maxDepth + 1 帧，多出的一帧只用于判断是否被截断
+        assertEquals("[truncated frames];T.b;T.x", SamplingProfiler.fold(stack("x", "b", "a"), 2));
+        assertEquals("T.a;T.b", SamplingProfiler.fold(stack("b", "a"), 2));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class BeanInstanceUtilsTest {
+
+    @Test
+    void zeroLimitReturnsEmptyArray() {
+        String[] instances = BeanInstanceUtils.getInstances(String.class, 0);
+        assertEquals(0, instances.length);
+    }
+
+    @Test
+    void lambdaClassIsSynthetic() {
+        Runnable lambda = () -> {
+        };
+        Runnable anonymous = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        assertTrue(BeanInstanceUtils.isSyntheticOrHidden(lambda.getClass()));
+        assertFalse(BeanInstanceUtils.isSyntheticOrHidden(anonymous.getClass()));
+        assertFalse(BeanInstanceUtils.isSyntheticOrHidden(BeanInstanceUtilsTest.class));
+    }
+}
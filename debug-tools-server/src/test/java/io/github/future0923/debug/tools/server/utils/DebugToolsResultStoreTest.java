@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.utils;
+
+import io.github.future0923.debug.tools.common.protocal.http.ResultCacheStatsRes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author future0923
+ */
+class DebugToolsResultStoreTest {
+
+    @AfterEach
+    void reset() {
+        DebugToolsResultStore.INSTANCE.configure(null, null, null, null);
+        DebugToolsResultStore.INSTANCE.clear();
+    }
+
+    @Test
+    void estimateSmallObject() {
+        assertEquals(0, DebugToolsResultStore.estimateSize(null));
+        long size = DebugToolsResultStore.estimateSize(new Holder(null));
+        assertTrue(size > 0);
+        assertEquals(size, DebugToolsResultStore.estimateSize(new Holder(null)));
+    }
+
+    @Test
+    void sizeGrowsWithFlatGraph() {
+        List<Holder> small = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            small.add(new Holder(null));
+        }
+        List<Holder> large = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            large.add(new Holder(null));
+        }
+        double ratio = (double) DebugToolsResultStore.estimateSize(large) / DebugToolsResultStore.estimateSize(small);
+        assertTrue(ratio > 90 && ratio < 110, String.valueOf(ratio));
+    }
+
+    @Test
+    void sizeGrowsWithDeepLinkedList() {
+        LinkedList<Integer> large = new LinkedList<>();
+        for (int i = 0; i < 50_000; i++) {
+            large.add(i);
+        }
+        LinkedList<Integer> small = new LinkedList<>(large.subList(0, 500));
+        double ratio = (double) DebugToolsResultStore.estimateSize(large) / DebugToolsResultStore.estimateSize(small);
+        assertTrue(ratio > 80 && ratio < 120, String.valueOf(ratio));
+    }
+
+    @Test
+    void truncatedGraphIsChargedWholeBudget() {
+        List<Holder> graph = new ArrayList<>();
+        for (int i = 0; i < DebugToolsResultStore.MAX_ESTIMATE_OBJECTS; i++) {
+            graph.add(new Holder(null));
+        }
+        assertEquals(DebugToolsResultStore.UNKNOWN_SIZE, DebugToolsResultStore.estimateSize(graph));
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.put("small", new Holder(null));
+        store.put("graph", graph);
+        ResultCacheStatsRes stats = store.getStats();
+        assertEquals(stats.getMaxBytes(), stats.getEstimatedBytes());
+        assertNull(store.get("small"));
+        assertNotNull(store.get("graph"));
+    }
+
+    @Test
+    void evictByEntryCount() {
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.configure(2, null, null, null);
+        long evicted = store.getStats().getEvictionCount();
+        store.put("a", new Holder(null));
+        store.put("b", new Holder(null));
+        store.get("a");
+        store.put("c", new Holder(null));
+        assertEquals(2, store.getStats().getEntries());
+        assertEquals(evicted + 1, store.getStats().getEvictionCount());
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+    }
+
+    @Test
+    void evictByByteBudget() {
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.configure(null, 1, null, null);
+        for (int i = 0; i < 5; i++) {
+            store.put(String.valueOf(i), new byte[400_000]);
+        }
+        ResultCacheStatsRes stats = store.getStats();
+        assertEquals(2, stats.getEntries());
+        assertTrue(stats.getEstimatedBytes() <= stats.getMaxBytes());
+        assertNull(store.get("2"));
+        assertNotNull(store.get("3"));
+        assertNotNull(store.get("4"));
+    }
+
+    @Test
+    void expireByTtl() throws InterruptedException {
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.configure(null, null, 1, null);
+        long expired = store.getStats().getExpiredCount();
+        store.put("a", new Holder(null));
+        assertNotNull(store.get("a"));
+        Thread.sleep(1100);
+        assertNull(store.get("a"));
+        assertEquals(expired + 1, store.getStats().getExpiredCount());
+        assertEquals(0, store.getStats().getEntries());
+        assertEquals(0, store.getStats().getEstimatedBytes());
+    }
+
+    @Test
+    void snapshotIsChargedToEntry() {
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.put("a", new Holder(null));
+        long bytes = store.getStats().getEstimatedBytes();
+        store.putSnapshot("a", "0", new Object[100]);
+        assertEquals(bytes + 416, store.getStats().getEstimatedBytes());
+        store.putSnapshot("a", "0", new Object[10]);
+        assertEquals(bytes + 56, store.getStats().getEstimatedBytes());
+        store.remove("a");
+        assertEquals(0, store.getStats().getEstimatedBytes());
+    }
+
+    @Test
+    void snapshotIsHeldStronglyWithWeakRetention() {
+        DebugToolsResultStore store = DebugToolsResultStore.INSTANCE;
+        store.configure(null, null, null, "weak");
+        Holder value = new Holder(null);
+        store.put("a", value);
+        store.putSnapshot("a", "0", new Object[]{new Holder(null)});
+        System.gc();
+        assertSame(value, store.get("a"));
+        assertNotNull(store.getSnapshot("a", "0"));
+    }
+
+    @Test
+    void sharedObjectsAreNotFollowed() {
+        long empty = DebugToolsResultStore.estimateSize(new Holder(null));
+        List<Holder> graph = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            graph.add(new Holder(null));
+        }
+        Runnable proxy = (Runnable) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Runnable.class}, (p, m, a) -> graph);
+        assertEquals(empty, DebugToolsResultStore.estimateSize(new Holder(proxy)));
+        assertEquals(empty, DebugToolsResultStore.estimateSize(new Holder(new Bean$$SpringCGLIB$$0(graph))));
+        assertTrue(DebugToolsResultStore.estimateSize(new Holder(new Bean(graph))) > empty * 100);
+    }
+
+    private static class Holder {
+
+        private final Object value;
+
+        private long id;
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class Bean {
+
+        private final Object graph;
+
+        private Bean(Object graph) {
+            this.graph = graph;
+        }
+    }
+
+    private static class Bean$$SpringCGLIB$$0 extends Bean {
+
+        private Bean$$SpringCGLIB$$0(Object graph) {
+            super(graph);
+        }
+    }
+}
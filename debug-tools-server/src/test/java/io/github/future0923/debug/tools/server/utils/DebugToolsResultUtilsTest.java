@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.server.utils;
+
+import io.github.future0923.debug.tools.common.dto.RunResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author future0923
+ */
+class DebugToolsResultUtilsTest {
+
+    private static final String KEY = "DebugToolsResultUtilsTest";
+
+    @AfterEach
+    void tearDown() {
+        DebugToolsResultUtils.removeCache(KEY);
+    }
+
+    @Test
+    void mapChildStableAfterModification() {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put("key" + i, "value" + i);
+        }
+        DebugToolsResultUtils.putCache(KEY, map);
+        List<RunResultDTO> children = DebugToolsResultUtils.convertRunResultDTO(map, KEY, 0, 5);
+        assertEquals(6, children.size());
+        RunResultDTO third = children.get(3);
+        Map.Entry<?, ?> expected = (Map.Entry<?, ?>) DebugToolsResultUtils.getValueByOffset(third.getFiledOffset());
+
+        // 扩容后HashMap的遍历顺序变化，按位置查找仍然返回展开时的子节点
+        for (int i = 10; i < 1000; i++) {
+            map.put("key" + i, "value" + i);
+        }
+        Map.Entry<?, ?> actual = (Map.Entry<?, ?>) DebugToolsResultUtils.getValueByOffset(third.getFiledOffset());
+        assertSame(expected.getKey(), actual.getKey());
+        assertEquals(third.getName(), String.valueOf(actual.getKey()));
+        assertSame(expected.getValue(), DebugToolsResultUtils.getValueByOffset(third.getFiledOffset() + "/1@map.entry"));
+
+        // 下一页使用同一个快照
+        List<RunResultDTO> next = DebugToolsResultUtils.convertRunResultDTO(map, KEY, 5, 100);
+        assertEquals(5, next.size());
+    }
+
+    @Test
+    void setChildStableAfterModification() {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            set.add(i * 7);
+        }
+        DebugToolsResultUtils.putCache(KEY, set);
+        List<RunResultDTO> children = DebugToolsResultUtils.convertRunResultDTO(set, KEY, 0, 100);
+        Object expected = DebugToolsResultUtils.getValueByOffset(children.get(4).getFiledOffset());
+        for (int i = 1000; i < 2000; i++) {
+            set.add(i);
+        }
+        set.remove(0);
+        assertSame(expected, DebugToolsResultUtils.getValueByOffset(children.get(4).getFiledOffset()));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.sql;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * 生成的 Statement 包装类的父类
+ * <p>
+ * 包装类直接调用被包装的 Statement，只有开启打印SQL时才调用这里记录参数和打印SQL。
+ *
+ * @author future0923
+ */
+public abstract class AbstractSqlStatementWrapper {
+
+    private static final Object[] EMPTY_PARAMETERS = new Object[0];
+
+    /**
+     * 被包装的 Statement
+     */
+    protected final Statement statement;
+
+    /**
+     * 绑定的参数，下标为参数位置-1
+     */
+    private Object[] parameters = EMPTY_PARAMETERS;
+
+    /**
+     * 已绑定的最大参数位置
+     */
+    private int parameterCount;
+
+    protected AbstractSqlStatementWrapper(Statement statement) {
+        this.statement = statement;
+    }
+
+    /**
+     * 记录绑定的参数
+     *
+     * @param index 参数位置，从1开始
+     * @param value 参数值
+     */
+    protected void recordParameter(int index, Object value) {
+        if (index <= 0) {
+            return;
+        }
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length << 1));
+        }
+        parameters[index - 1] = value;
+        if (index > parameterCount) {
+            parameterCount = index;
+        }
+    }
+
+    /**
+     * 执行完成后打印SQL并清空参数
+     *
+     * @param startTime 开始时间
+     * @param sql       执行时传入的SQL，没有时为null
+     */
+    protected void afterExecute(long startTime, String sql) {
+        long consume = System.currentTimeMillis() - startTime;
+        Object[] bindParameters = Arrays.copyOf(parameters, parameterCount);
+        Arrays.fill(parameters, 0, parameterCount, null);
+        parameterCount = 0;
+        SqlPrintInterceptor.afterExecute(consume, statement, bindParameters, sql);
+    }
+
+    @Override
+    public String toString() {
+        return statement.toString();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.sql;
+
+import io.github.future0923.debug.tools.base.context.RunMethodContext;
+import io.github.future0923.debug.tools.base.hutool.core.util.ArrayUtil;
+import io.github.future0923.debug.tools.base.hutool.core.util.ClassLoaderUtil;
+import io.github.future0923.debug.tools.base.hutool.core.util.ClassUtil;
+import io.github.future0923.debug.tools.base.hutool.core.util.ReflectUtil;
+import io.github.future0923.debug.tools.base.hutool.core.util.StrUtil;
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.base.tuple.Tuple2;
+import io.github.future0923.debug.tools.base.utils.DebugToolsJavaVersionUtils;
+import io.github.future0923.debug.tools.vm.JvmToolsUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 根据调用方所在包过滤SQL打印
+ * <p>
+ * Java9及以上使用 {@code StackWalker} 逐帧遍历调用栈，命中规则后立即停止，不需要获取完整的调用栈；
+ * Java8使用 {@link Thread#getStackTrace()}。每个类的匹配结果按规则缓存，规则重新加载后缓存失效。
+ *
+ * @author future0923
+ */
+public class SqlCallerFilter {
+
+    private static final Logger logger = Logger.getLogger(SqlCallerFilter.class);
+
+    private static final Pattern PROXY_CLASS_PATTERN = Pattern.compile("(jdk.proxy\\d+.\\$Proxy.*)|(com.sun.proxy.\\$Proxy.*)");
+
+    private static final String MYBATIS_PROXY_CLASS_NAME = "org.apache.ibatis.binding.MapperProxy";
+
+    private static final String MYBATIS_PLUS_PROXY_CLASS_NAME = "com.baomidou.mybatisplus.core.override.MybatisMapperProxy";
+
+    private static final String JPA_PROXY_CLASS_NAME = "org.springframework.aop.framework.JdkDynamicAopProxy";
+
+    /**
+     * 每个规则最多缓存的类数量
+     */
+    private static final int MAX_CACHE_SIZE = 1 << 14;
+
+    /**
+     * StackWalker#walk，绑定了StackWalker实例，Java8时为null
+     */
+    private static final MethodHandle STACK_WALKER_WALK;
+
+    /**
+     * StackWalker.StackFrame#getClassName
+     */
+    private static final MethodHandle STACK_FRAME_GET_CLASS_NAME;
+
+    static {
+        MethodHandle walk = null;
+        MethodHandle getClassName = null;
+        if (DebugToolsJavaVersionUtils.isGreaterThanJava8()) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> stackWalkerClass = Class.forName("java.lang.StackWalker");
+                Class<?> stackFrameClass = Class.forName("java.lang.StackWalker$StackFrame");
+                Object stackWalker = lookup.findStatic(stackWalkerClass, "getInstance", MethodType.methodType(stackWalkerClass)).invoke();
+                walk = lookup.findVirtual(stackWalkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                        .bindTo(stackWalker);
+                getClassName = lookup.findVirtual(stackFrameClass, "getClassName", MethodType.methodType(String.class))
+                        .asType(MethodType.methodType(String.class, Object.class));
+            } catch (Throwable e) {
+                logger.debug("StackWalker is not available, use Thread#getStackTrace: {}", e.getMessage());
+                walk = null;
+                getClassName = null;
+            }
+        }
+        STACK_WALKER_WALK = walk;
+        STACK_FRAME_GET_CLASS_NAME = getClassName;
+    }
+
+    private static volatile MatchCache includeCache;
+
+    private static volatile MatchCache excludeCache;
+
+    private SqlCallerFilter() {
+    }
+
+    /**
+     * 调用栈中是否有类所在的包匹配打印规则
+     */
+    public static boolean isIncluded(Set<Pattern> sqlPrintPackages) {
+        MatchCache cache = includeCache;
+        if (cache == null || cache.patterns != sqlPrintPackages) {
+            cache = new MatchCache(sqlPrintPackages, true);
+            includeCache = cache;
+        }
+        return anyCallerMatch(cache);
+    }
+
+    /**
+     * 调用栈中是否有类所在的包匹配忽略规则
+     */
+    public static boolean isExcluded(Set<Pattern> sqlPrintIgnorePackages) {
+        MatchCache cache = excludeCache;
+        if (cache == null || cache.patterns != sqlPrintIgnorePackages) {
+            cache = new MatchCache(sqlPrintIgnorePackages, false);
+            excludeCache = cache;
+        }
+        return anyCallerMatch(cache);
+    }
+
+    private static boolean anyCallerMatch(MatchCache cache) {
+        Tuple2<String, String> runMethod = RunMethodContext.getRunMethod();
+        if (runMethod != null && cache.test(runMethod.f0)) {
+            return true;
+        }
+        if (STACK_WALKER_WALK != null) {
+            try {
+                Function<Stream<?>, Boolean> function = stream -> stream.map(SqlCallerFilter::getClassName).anyMatch(cache);
+                return (Boolean) (Object) STACK_WALKER_WALK.invokeExact(function);
+            } catch (Throwable e) {
+                logger.debug("StackWalker walk error: {}", e.getMessage());
+            }
+        }
+        for (StackTraceElement stackTraceElement : Thread.currentThread().getStackTrace()) {
+            if (cache.test(stackTraceElement.getClassName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getClassName(Object stackFrame) {
+        try {
+            return (String) STACK_FRAME_GET_CLASS_NAME.invokeExact(stackFrame);
+        } catch (Throwable e) {
+            return StrUtil.EMPTY;
+        }
+    }
+
+    /**
+     * 获取类所在的包名，代理类获取代理接口的包名
+     *
+     * @return 包名，需要跳过的类返回空字符串，代理类无法解析时返回null
+     */
+    private static String getPackageNameAndProxy(String className) {
+        if (className.startsWith("io.github.future0923.debug.tools.sql.SqlPrintInterceptor")
+                || className.startsWith("io.github.future0923.debug.tools.sql.SqlCallerFilter")) {
+            return StrUtil.EMPTY;
+        }
+        if (className.startsWith("io.github.future0923.debug.tools.server")) {
+            return StrUtil.EMPTY;
+        }
+        if (className.startsWith("io.github.future0923.debug.tools.common")) {
+            return StrUtil.EMPTY;
+        }
+        if (PROXY_CLASS_PATTERN.matcher(className).find()) {
+            Object[] instances = JvmToolsUtils.getInstances(ClassLoaderUtil.loadClass(className), 1);
+            if (ArrayUtil.isEmpty(instances)) {
+                return null;
+            }
+            InvocationHandler invocationHandler = Proxy.getInvocationHandler(instances[0]);
+            if (MYBATIS_PROXY_CLASS_NAME.equals(invocationHandler.getClass().getName())
+                    || MYBATIS_PLUS_PROXY_CLASS_NAME.equals(invocationHandler.getClass().getName())) {
+                return ClassUtil.getPackageName(((Class<?>) ReflectUtil.getFieldValue(invocationHandler, "mapperInterface")).getName());
+            } else if (JPA_PROXY_CLASS_NAME.equals(invocationHandler.getClass().getName())) {
+                Class<?>[] proxiedInterfaces = (Class<?>[]) ReflectUtil.getFieldValue(invocationHandler, "proxiedInterfaces");
+                if (ArrayUtil.isNotEmpty(proxiedInterfaces)) {
+                    return ClassUtil.getPackageName((proxiedInterfaces[0].getName()));
+                } else {
+                    return StrUtil.EMPTY;
+                }
+            } else {
+                return StrUtil.EMPTY;
+            }
+        } else {
+            return ClassUtil.getPackageName(className);
+        }
+    }
+
+    /**
+     * 一组规则下每个类的匹配结果
+     */
+    private static class MatchCache implements Predicate<String> {
+
+        private final Set<Pattern> patterns;
+
+        /**
+         * 包名为空时是否跳过
+         */
+        private final boolean skipBlank;
+
+        private final Map<String, Boolean> resultMap = new ConcurrentHashMap<>();
+
+        private MatchCache(Set<Pattern> patterns, boolean skipBlank) {
+            this.patterns = patterns;
+            this.skipBlank = skipBlank;
+        }
+
+        @Override
+        public boolean test(String className) {
+            Boolean result = resultMap.get(className);
+            if (result != null) {
+                return result;
+            }
+            String packageName;
+            try {
+                packageName = getPackageNameAndProxy(className);
+            } catch (Exception e) {
+                logger.debug("get package name of {} error: {}", className, e.getMessage());
+                return false;
+            }
+            // 代理类暂时没有实例，不缓存
+            boolean cacheable = packageName != null;
+            if (packageName == null) {
+                packageName = StrUtil.EMPTY;
+            }
+            result = match(packageName);
+            if (cacheable && resultMap.size() < MAX_CACHE_SIZE) {
+                resultMap.put(className, result);
+            }
+            return result;
+        }
+
+        private boolean match(String packageName) {
+            if (skipBlank && StrUtil.isBlank(packageName)) {
+                return false;
+            }
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(packageName).find()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -41,17 +41,21 @@ public class SqlDriverClassFileTransformer implements ClassFileTransformer {
                 return null;
             }
             String dotClassName = className.replace('/', '.');
-            if (!DataSourceDriverClassEnum.isTargetDriver(dotClassName)) {
+            if (!SqlPrintByteCodeEnhance.isInstalled() || !DataSourceDriverClassEnum.isTargetDriver(dotClassName)) {
                 return null;
             }
             ClassPool classPool = JavassistUtil.getClassPool(loader);
-            CtClass ctClass = classPool.get(dotClassName);
+            // 从本次传入的字节码创建，重新增强时不会拿到 ClassPool 中已修改的类
+            CtClass ctClass = JavassistUtil.createCtClass(classPool, classfileBuffer);
             CtMethod connectMethod = ctClass.getDeclaredMethod("connect", new CtClass[]{classPool.get("java.lang.String"), classPool.get("java.util.Properties")});
             connectMethod.insertAfter("{ " +
                     "   return " + SqlPrintInterceptor.class.getName() + ".proxyConnection((java.sql.Connection)$_); " +
                     "}");
             logger.info("Print {} log bytecode enhancement successful", DataSourceDriverClassEnum.getSqlDriverType(dotClassName));
-            return ctClass.toBytecode();
+            byte[] bytecode = ctClass.toBytecode();
+            ctClass.detach();
+            SqlPrintByteCodeEnhance.addEnhancedClass(dotClassName);
+            return bytecode;
         } catch (Throwable t) {
             logger.error("Failed to print SQL log bytecode enhancement", t);
         }
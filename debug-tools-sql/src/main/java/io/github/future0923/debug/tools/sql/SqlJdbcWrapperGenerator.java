@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2024-2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.future0923.debug.tools.sql;
+
+import io.github.future0923.debug.tools.base.logging.Logger;
+import io.github.future0923.debug.tools.hotswap.core.util.JavassistUtil;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成 JDBC Connection / Statement 的包装类
+ * <p>
+ * 使用 Javassist 按当前JDK的接口方法生成直接调用被包装对象的实现类，代替 {@link java.lang.reflect.Proxy} 反射调用。
+ * 创建 Statement 的方法返回包装后的 Statement，设置参数和执行SQL的方法在开启打印SQL时调用 {@link AbstractSqlStatementWrapper}。
+ *
+ * @author future0923
+ */
+public class SqlJdbcWrapperGenerator {
+
+    private static final Logger logger = Logger.getLogger(SqlJdbcWrapperGenerator.class);
+
+    private static final List<String> CONNECTION_AGENT_METHODS = Arrays.asList("prepareStatement", "createStatement");
+
+    private static final List<String> PREPARED_STATEMENT_METHODS = Arrays.asList("execute", "executeUpdate", "executeQuery", "addBatch");
+
+    private static final String CONNECTION_WRAPPER_CLASS_NAME = SqlJdbcWrapperGenerator.class.getPackage().getName() + ".DebugToolsConnectionWrapper";
+
+    private static final String STATEMENT_WRAPPER_CLASS_NAME = SqlJdbcWrapperGenerator.class.getPackage().getName() + ".DebugToolsStatementWrapper";
+
+    private static final String PREPARED_STATEMENT_WRAPPER_CLASS_NAME = SqlJdbcWrapperGenerator.class.getPackage().getName() + ".DebugToolsPreparedStatementWrapper";
+
+    private static final Map<Class<?>, String> BOX_CLASS_MAP = new HashMap<>();
+
+    static {
+        BOX_CLASS_MAP.put(boolean.class, Boolean.class.getName());
+        BOX_CLASS_MAP.put(byte.class, Byte.class.getName());
+        BOX_CLASS_MAP.put(char.class, Character.class.getName());
+        BOX_CLASS_MAP.put(short.class, Short.class.getName());
+        BOX_CLASS_MAP.put(int.class, Integer.class.getName());
+        BOX_CLASS_MAP.put(long.class, Long.class.getName());
+        BOX_CLASS_MAP.put(float.class, Float.class.getName());
+        BOX_CLASS_MAP.put(double.class, Double.class.getName());
+    }
+
+    private SqlJdbcWrapperGenerator() {
+    }
+
+    /**
+     * 包装 Connection，生成失败时返回原对象
+     */
+    public static Connection wrapConnection(Connection connection) {
+        if (connection == null || Holder.connectionConstructor == null) {
+            return connection;
+        }
+        try {
+            return Holder.connectionConstructor.newInstance(connection);
+        } catch (Exception e) {
+            logger.error("Failed to wrap connection", e);
+            return connection;
+        }
+    }
+
+    /**
+     * 包装 Statement，生成失败时返回原对象
+     */
+    public static Statement wrapStatement(Statement statement) {
+        if (statement == null) {
+            return null;
+        }
+        Constructor<? extends Statement> constructor = statement instanceof PreparedStatement
+                ? Holder.preparedStatementConstructor
+                : Holder.statementConstructor;
+        if (constructor == null) {
+            return statement;
+        }
+        try {
+            return constructor.newInstance(statement);
+        } catch (Exception e) {
+            logger.error("Failed to wrap statement", e);
+            return statement;
+        }
+    }
+
+    /**
+     * 第一次使用时生成包装类
+     */
+    private static class Holder {
+
+        private static final Constructor<? extends Connection> connectionConstructor;
+
+        private static final Constructor<? extends Statement> statementConstructor;
+
+        private static final Constructor<? extends Statement> preparedStatementConstructor;
+
+        static {
+            Constructor<? extends Connection> connection = null;
+            Constructor<? extends Statement> statement = null;
+            Constructor<? extends Statement> preparedStatement = null;
+            try {
+                statement = generateStatementWrapper(STATEMENT_WRAPPER_CLASS_NAME, Statement.class);
+                preparedStatement = generateStatementWrapper(PREPARED_STATEMENT_WRAPPER_CLASS_NAME, PreparedStatement.class);
+                connection = generateConnectionWrapper();
+            } catch (Throwable e) {
+                logger.error("Failed to generate jdbc wrapper, sql will not be printed", e);
+            }
+            connectionConstructor = connection;
+            statementConstructor = statement;
+            preparedStatementConstructor = preparedStatement;
+        }
+    }
+
+    private static Constructor<? extends Connection> generateConnectionWrapper() throws Exception {
+        ClassPool classPool = JavassistUtil.getClassPool(SqlJdbcWrapperGenerator.class.getClassLoader());
+        CtClass ctClass = classPool.makeClass(CONNECTION_WRAPPER_CLASS_NAME);
+        ctClass.addInterface(classPool.get(Connection.class.getName()));
+        ctClass.addField(CtField.make("private final java.sql.Connection delegate;", ctClass));
+        ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName() + "(java.sql.Connection delegate) { this.delegate = delegate; }", ctClass));
+        for (Method method : getInterfaceMethods(Connection.class)) {
+            String call = "delegate." + method.getName() + "(" + argumentList(method) + ")";
+            String body;
+            if (CONNECTION_AGENT_METHODS.contains(method.getName()) && Statement.class.isAssignableFrom(method.getReturnType())) {
+                body = "return (" + method.getReturnType().getTypeName() + ") " + SqlJdbcWrapperGenerator.class.getName() + ".wrapStatement(" + call + ");";
+            } else {
+                body = delegateStatement(method, call);
+            }
+            ctClass.addMethod(CtNewMethod.make(methodSource(method, body), ctClass));
+        }
+        ctClass.addMethod(CtNewMethod.make("public String toString() { return delegate.toString(); }", ctClass));
+        Class<?> clazz = ctClass.toClass(SqlJdbcWrapperGenerator.class);
+        ctClass.detach();
+        return clazz.asSubclass(Connection.class).getConstructor(Connection.class);
+    }
+
+    private static Constructor<? extends Statement> generateStatementWrapper(String className, Class<? extends Statement> statementInterface) throws Exception {
+        ClassPool classPool = JavassistUtil.getClassPool(SqlJdbcWrapperGenerator.class.getClassLoader());
+        CtClass ctClass = classPool.makeClass(className, classPool.get(AbstractSqlStatementWrapper.class.getName()));
+        ctClass.addInterface(classPool.get(statementInterface.getName()));
+        String interfaceName = statementInterface.getName();
+        ctClass.addField(CtField.make("private final " + interfaceName + " delegate;", ctClass));
+        ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName() + "(java.sql.Statement statement) { super(statement); this.delegate = (" + interfaceName + ") statement; }", ctClass));
+        String printEnabled = SqlPrintInterceptor.class.getName() + ".isPrintEnabled()";
+        for (Method method : getInterfaceMethods(statementInterface)) {
+            String call = "delegate." + method.getName() + "(" + argumentList(method) + ")";
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            String body;
+            if (PREPARED_STATEMENT_METHODS.contains(method.getName())) {
+                String sql = parameterTypes.length > 0 && parameterTypes[0] == String.class ? "p0" : "null";
+                StringBuilder sb = new StringBuilder();
+                sb.append("if (!").append(printEnabled).append(") { ").append(delegateStatement(method, call)).append(" }");
+                sb.append("long startTime = System.currentTimeMillis();");
+                if (method.getReturnType() == void.class) {
+                    sb.append(call).append(";");
+                    sb.append("afterExecute(startTime, ").append(sql).append(");");
+                } else {
+                    sb.append(method.getReturnType().getTypeName()).append(" result = ").append(call).append(";");
+                    sb.append("afterExecute(startTime, ").append(sql).append(");");
+                    sb.append("return result;");
+                }
+                body = sb.toString();
+            } else if (PreparedStatement.class.isAssignableFrom(statementInterface)
+                    && method.getName().startsWith("set")
+                    && parameterTypes.length >= 2
+                    && parameterTypes[0] == int.class) {
+                // 显式记录 NULL 值
+                String value = method.getName().startsWith("setNull") ? "\"NULL\"" : box(parameterTypes[1], "p1");
+                body = call + "; if (" + printEnabled + ") { recordParameter(p0, " + value + "); }";
+            } else {
+                body = delegateStatement(method, call);
+            }
+            ctClass.addMethod(CtNewMethod.make(methodSource(method, body), ctClass));
+        }
+        Class<?> clazz = ctClass.toClass(SqlJdbcWrapperGenerator.class);
+        ctClass.detach();
+        return clazz.asSubclass(Statement.class).getConstructor(Statement.class);
+    }
+
+    /**
+     * 获取接口需要实现的方法，同签名的方法只保留返回值最具体的
+     */
+    private static List<Method> getInterfaceMethods(Class<?> interfaceClass) {
+        Map<String, Method> methodMap = new LinkedHashMap<>();
+        for (Method method : interfaceClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String key = method.getName() + Arrays.toString(method.getParameterTypes());
+            Method exist = methodMap.get(key);
+            if (exist == null || exist.getReturnType().isAssignableFrom(method.getReturnType())) {
+                methodMap.put(key, method);
+            }
+        }
+        return new ArrayList<>(methodMap.values());
+    }
+
+    private static String delegateStatement(Method method, String call) {
+        return method.getReturnType() == void.class ? call + "; return;" : "return " + call + ";";
+    }
+
+    private static String argumentList(Method method) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('p').append(i);
+        }
+        return sb.toString();
+    }
+
+    private static String methodSource(Method method, String body) {
+        StringBuilder sb = new StringBuilder("public ");
+        sb.append(method.getReturnType().getTypeName()).append(' ').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(parameterTypes[i].getTypeName()).append(" p").append(i);
+        }
+        sb.append(')');
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            sb.append(i == 0 ? " throws " : ", ").append(exceptionTypes[i].getName());
+        }
+        return sb.append(" { ").append(body).append(" }").toString();
+    }
+
+    private static String box(Class<?> type, String name) {
+        String boxClassName = BOX_CLASS_MAP.get(type);
+        return boxClassName == null ? name : boxClassName + ".valueOf(" + name + ")";
+    }
+}
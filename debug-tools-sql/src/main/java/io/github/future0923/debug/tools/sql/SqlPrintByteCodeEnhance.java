@@ -19,29 +19,144 @@ package io.github.future0923.debug.tools.sql;
 import io.github.future0923.debug.tools.base.config.AgentArgs;
 import io.github.future0923.debug.tools.base.enums.PrintSqlType;
 import io.github.future0923.debug.tools.base.hutool.core.util.BooleanUtil;
+import io.github.future0923.debug.tools.base.logging.Logger;
 import io.github.future0923.debug.tools.base.utils.DebugToolsIgnoreSqlUtils;
 
 import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 字节码增强打印SQL
+ * <p>
+ * 开启打印时增强驱动的 connect 方法包装连接，关闭打印时重新转换驱动类恢复原始字节码，新建的连接不再被包装。
  *
  * @author future0923
  */
 public class SqlPrintByteCodeEnhance {
 
+    private static final Logger logger = Logger.getLogger(SqlPrintByteCodeEnhance.class);
+
+    private static Instrumentation instrumentation;
+
+    private static SqlDriverClassFileTransformer transformer;
+
+    /**
+     * 忽略SQL配置文件路径，第一次增强时加载
+     */
+    private static String ignoreSqlConfigPath;
+
+    /**
+     * 是否增强驱动
+     */
+    private static volatile boolean installed = false;
+
+    /**
+     * 当前已增强的驱动类
+     */
+    private static final Set<String> ENHANCED_CLASS_SET = ConcurrentHashMap.newKeySet();
+
     /**
      * 增加字节码让其打印SQL
      *
      * @param inst     instrumentation
      */
     public static void enhance(Instrumentation inst, AgentArgs agentArgs) {
+        instrumentation = inst;
         SqlPrintInterceptor.setPrintSqlType(agentArgs.getPrintSql());
+        SqlPrintInterceptor.setAutoSaveSql(BooleanUtil.toBoolean(agentArgs.getAutoSaveSql()));
+        SqlPrintInterceptor.setSqlRetentionDays(agentArgs.getSqlRetentionDays());
+        ignoreSqlConfigPath = agentArgs.getIgnoreSqlConfigPath();
         if (PrintSqlType.isPrint(agentArgs.getPrintSql()) || BooleanUtil.toBoolean(agentArgs.getTraceSql())) {
-            SqlPrintInterceptor.setAutoSaveSql(BooleanUtil.toBoolean(agentArgs.getAutoSaveSql()));
-            SqlPrintInterceptor.setSqlRetentionDays(agentArgs.getSqlRetentionDays());
-            DebugToolsIgnoreSqlUtils.create(agentArgs.getIgnoreSqlConfigPath());
-            inst.addTransformer(new SqlDriverClassFileTransformer(), true);
+            install();
+        }
+    }
+
+    /**
+     * 修改打印SQL类型，开启时增强驱动，关闭时恢复驱动
+     *
+     * @param printSqlType 打印SQL类型
+     */
+    public static synchronized void changePrintSqlType(String printSqlType) {
+        SqlPrintInterceptor.setPrintSqlType(printSqlType);
+        if (SqlPrintInterceptor.isPrintEnabled()) {
+            install();
+        } else {
+            uninstall();
+        }
+    }
+
+    /**
+     * 增强已加载和之后加载的驱动类
+     */
+    public static synchronized void install() {
+        if (installed || instrumentation == null) {
+            return;
         }
+        installed = true;
+        if (transformer == null) {
+            DebugToolsIgnoreSqlUtils.create(ignoreSqlConfigPath);
+            transformer = new SqlDriverClassFileTransformer();
+            instrumentation.addTransformer(transformer, true);
+        }
+        retransformDrivers();
+        logger.info("SQL print bytecode enhancement installed");
+    }
+
+    /**
+     * 恢复已增强的驱动类
+     */
+    public static synchronized void uninstall() {
+        if (!installed) {
+            return;
+        }
+        installed = false;
+        retransformDrivers();
+        logger.info("SQL print bytecode enhancement uninstalled");
+    }
+
+    /**
+     * 重新转换已加载的驱动类，转换器根据 {@link #installed} 决定是否增强
+     */
+    private static void retransformDrivers() {
+        if (!instrumentation.isRetransformClassesSupported()) {
+            logger.warning("Retransform classes is not supported, SQL print bytecode enhancement only takes effect on drivers loaded later");
+            return;
+        }
+        List<Class<?>> driverClassList = new ArrayList<>();
+        for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            if (DataSourceDriverClassEnum.isTargetDriver(clazz.getName())) {
+                driverClassList.add(clazz);
+            }
+        }
+        if (!installed) {
+            ENHANCED_CLASS_SET.clear();
+        }
+        for (Class<?> clazz : driverClassList) {
+            try {
+                instrumentation.retransformClasses(clazz);
+            } catch (Throwable e) {
+                logger.error("Failed to retransform driver class {}", e, clazz.getName());
+            }
+        }
+    }
+
+    static void addEnhancedClass(String className) {
+        ENHANCED_CLASS_SET.add(className);
+    }
+
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * 获取已增强的驱动类
+     */
+    public static Set<String> getEnhancedClasses() {
+        return Collections.unmodifiableSet(new TreeSet<>(ENHANCED_CLASS_SET));
     }
 }
@@ -20,17 +20,31 @@ import io.github.future0923.debug.tools.base.constants.ProjectConstants;
 import io.github.future0923.debug.tools.base.logging.Logger;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * SQL文件写入工具类
+ * <p>
+ * 执行SQL的线程只把记录放入有界无锁队列，由单独的写入线程批量写入保持打开的当天文件，
+ * 按固定间隔刷盘，跨天时切换文件并执行一次过期文件清理。
  */
 public class SqlFileWriter {
 
@@ -40,76 +54,307 @@ public class SqlFileWriter {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    private static final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 队列最多缓存的记录数量，超出后丢弃
+     */
+    private static final int MAX_QUEUE_SIZE = 1 << 16;
+
+    /**
+     * 写缓冲区大小，写满立即写入文件
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 队列为空时的刷盘间隔(ms)
+     */
+    private static final long FLUSH_INTERVAL = 200;
+
+    /**
+     * 每批最多写出的记录数量
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    private static final Queue<SqlRecord> QUEUE = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger QUEUE_SIZE = new AtomicInteger();
+
+    private static final AtomicLong DROPPED_COUNT = new AtomicLong();
+
+    private static volatile Thread writerThread;
 
     /**
      * 写入SQL记录到文件，支持保留天数和0天清空逻辑
      */
     public static void writeSqlRecordWithRetention(String sql, long consumeTime, String dbType, Integer days) {
-        lock.lock();
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            String dateStr = now.format(DATE_FORMATTER);
-            String timeStr = now.format(TIME_FORMATTER);
-
-            String content = String.format(
-                    "-- %s | %s | %dms\n%s;\n\n",
-                    timeStr, dbType, consumeTime, sql
-            );
-
-            String projectPath = System.getProperty("user.dir");
-            Path sqlDir = Paths.get(projectPath, SQL_DIR);
+        if (QUEUE_SIZE.incrementAndGet() > MAX_QUEUE_SIZE) {
+            QUEUE_SIZE.decrementAndGet();
+            if (DROPPED_COUNT.getAndIncrement() == 0) {
+                logger.warning("SQL record queue is full, records will be dropped");
+            }
+            return;
+        }
+        QUEUE.offer(new SqlRecord(System.currentTimeMillis(), sql, consumeTime, dbType, days == null ? -1 : days));
+        if (writerThread == null) {
+            startWriter();
+        }
+    }
+
+    /**
+     * 获取因队列已满丢弃的记录数量
+     */
+    public static long getDroppedCount() {
+        return DROPPED_COUNT.get();
+    }
+
+    private static synchronized void startWriter() {
+        if (writerThread != null) {
+            return;
+        }
+        Writer writer = new Writer();
+        Thread thread = new Thread(writer::run);
+        thread.setName("DebugTools-SqlFileWriter");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::drainAndClose, "DebugTools-SqlFileWriter-Shutdown"));
+        writerThread = thread;
+    }
+
+    /**
+     * SQL记录
+     */
+    private static class SqlRecord {
+
+        private final long time;
+
+        private final String sql;
+
+        private final long consumeTime;
+
+        private final String dbType;
+
+        private final int days;
+
+        private SqlRecord(long time, String sql, long consumeTime, String dbType, int days) {
+            this.time = time;
+            this.sql = sql;
+            this.consumeTime = consumeTime;
+            this.dbType = dbType;
+            this.days = days;
+        }
+    }
+
+    /**
+     * 写入线程，只有该线程访问文件
+     */
+    private static class Writer {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private final StringBuilder content = new StringBuilder(1024);
+
+        private final Path sqlDir = Paths.get(System.getProperty("user.dir"), SQL_DIR);
+
+        private FileChannel channel;
+
+        /**
+         * 当前打开文件的日期
+         */
+        private LocalDate currentDate;
+
+        /**
+         * 上次清理时使用的保留天数
+         */
+        private int currentDays = Integer.MIN_VALUE;
+
+        /**
+         * 保留0天时只保留最后一条记录
+         */
+        private SqlRecord lastRecord;
+
+        private void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!writeBatch()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL));
+                }
+            }
+        }
+
+        /**
+         * 写出一批记录，没有记录时刷盘
+         *
+         * @return 是否有记录
+         */
+        private synchronized boolean writeBatch() {
+            try {
+                if (drain(BATCH_SIZE)) {
+                    return true;
+                }
+                flush();
+            } catch (Throwable e) {
+                logger.error("Failed to write SQL record to file", e);
+                closeChannel();
+                // 下一条记录重新打开文件
+                currentDate = null;
+            }
+            return false;
+        }
+
+        /**
+         * 写出队列中的记录
+         *
+         * @param max 最多写出的数量
+         * @return 是否有记录
+         */
+        private boolean drain(int max) throws IOException {
+            int count = 0;
+            SqlRecord record;
+            while (count < max && (record = QUEUE.poll()) != null) {
+                QUEUE_SIZE.decrementAndGet();
+                count++;
+                write(record);
+            }
+            return count > 0;
+        }
+
+        private void write(SqlRecord record) throws IOException {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.time), ZoneId.systemDefault());
+            LocalDate date = time.toLocalDate();
+            if (!date.equals(currentDate) || record.days != currentDays) {
+                rollover(date, record.days);
+            }
+            if (record.days == 0) {
+                // 0天：只保留最后一条，刷盘时覆盖写入
+                lastRecord = record;
+                return;
+            }
+            append(format(record, time));
+        }
+
+        private String format(SqlRecord record, LocalDateTime time) {
+            content.setLength(0);
+            content.append("-- ").append(time.format(TIME_FORMATTER))
+                    .append(" | ").append(record.dbType)
+                    .append(" | ").append(record.consumeTime).append("ms\n")
+                    .append(record.sql).append(";\n\n");
+            return content.toString();
+        }
+
+        private void append(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > buffer.remaining()) {
+                flushBuffer();
+            }
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        /**
+         * 切换到指定日期的文件并清理过期文件
+         */
+        private void rollover(LocalDate date, int days) throws IOException {
+            flush();
+            closeChannel();
+            currentDate = date;
+            currentDays = days;
             if (!Files.exists(sqlDir)) {
                 Files.createDirectories(sqlDir);
             }
+            cleanup(date, days);
+            if (days != 0) {
+                channel = FileChannel.open(sqlFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            logger.debug("SQL record file: {}", sqlFile());
+        }
 
-            // 删除超出天数的文件或全部删除
-            if (days == 0) {
-                // 删除所有sql文件
-                Files.list(sqlDir)
-                        .filter(p -> p.getFileName().toString().endsWith(".sql"))
-                        .forEach(p -> {
-                            try { Files.deleteIfExists(p); } catch (IOException ignore) {}
-                        });
-            } else if (days > 0) {
-                LocalDateTime threshold = now.minusDays(days - 1); // 保留N天，含今天
-                Files.list(sqlDir)
-                        .filter(p -> p.getFileName().toString().endsWith(".sql"))
-                        .forEach(p -> {
-                            String name = p.getFileName().toString();
-                            String date = name.replace(".sql", "");
-                            try {
-                                LocalDateTime fileDate = LocalDateTime.parse(date + "T00:00:00");
-                                if (fileDate.isBefore(threshold.withHour(0).withMinute(0).withSecond(0).withNano(0))) {
-                                    Files.deleteIfExists(p);
-                                }
-                            } catch (Exception ignore) {}
-                        });
-            }
-
-            Path sqlFile = sqlDir.resolve(dateStr + ".sql");
-            if (days == 0) {
-                // 0天：每次都覆盖写入（清空）
-                Files.write(
-                        sqlFile,
-                        content.getBytes(StandardCharsets.UTF_8),
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.TRUNCATE_EXISTING
-                );
-            } else {
-                // 正常追加
-                Files.write(
-                        sqlFile,
-                        content.getBytes(StandardCharsets.UTF_8),
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.APPEND
-                );
-            }
-            logger.debug("SQL record written to file: {}", sqlFile);
-        } catch (IOException e) {
-            logger.error("Failed to write SQL record to file", e);
-        } finally {
-            lock.unlock();
+        /**
+         * 删除超出天数的文件或全部删除
+         */
+        private void cleanup(LocalDate today, int days) {
+            if (days < 0) {
+                return;
+            }
+            // 保留N天，含今天
+            LocalDate threshold = today.minusDays(days - 1);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(sqlDir, "*.sql")) {
+                for (Path path : stream) {
+                    try {
+                        if (days == 0) {
+                            Files.deleteIfExists(path);
+                            continue;
+                        }
+                        String name = path.getFileName().toString();
+                        LocalDate fileDate = LocalDate.parse(name.substring(0, name.length() - 4), DATE_FORMATTER);
+                        if (fileDate.isBefore(threshold)) {
+                            Files.deleteIfExists(path);
+                        }
+                    } catch (Exception ignore) {
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to clean expired SQL record file", e);
+            }
+        }
+
+        private Path sqlFile() {
+            return sqlDir.resolve(currentDate.format(DATE_FORMATTER) + ".sql");
+        }
+
+        private void flush() throws IOException {
+            if (lastRecord != null) {
+                SqlRecord record = lastRecord;
+                lastRecord = null;
+                LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.time), ZoneId.systemDefault());
+                Files.write(sqlFile(), format(record, time).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            flushBuffer();
+        }
+
+        private void flushBuffer() throws IOException {
+            if (buffer.position() == 0) {
+                return;
+            }
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer src) throws IOException {
+            if (channel == null) {
+                src.position(src.limit());
+                return;
+            }
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        }
+
+        private void closeChannel() {
+            buffer.clear();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignore) {
+                }
+                channel = null;
+            }
+        }
+
+        /**
+         * 进程退出时写出剩余记录
+         */
+        private synchronized void drainAndClose() {
+            try {
+                drain(Integer.MAX_VALUE);
+                flush();
+            } catch (Throwable e) {
+                logger.error("Failed to write SQL record to file", e);
+            } finally {
+                closeChannel();
+            }
         }
     }
 }
@@ -25,6 +25,7 @@ import io.github.future0923.debug.tools.base.utils.DebugToolsStringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.net.URL;
 
 /**
@@ -60,10 +61,33 @@ public class JvmToolsUtils {
         storeLib(getLibName());
     }
 
+    /**
+     * 获取某个class在jvm中当前所有存活实例，会遍历整个堆
+     */
     public static <T> T[] getInstances(Class<T> targetClass) {
         return instance.getInstances(targetClass);
     }
 
+    /**
+     * 获取某个class在jvm中当前存活的实例，找到limit个后停止遍历堆
+     *
+     * @param limit 如果小于 0 ，则不限制；等于 0 时返回空数组，不遍历堆
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T[] getInstances(Class<T> targetClass, int limit) {
+        if (limit == 0) {
+            return (T[]) Array.newInstance(targetClass, 0);
+        }
+        return instance.getInstances(targetClass, limit);
+    }
+
+    /**
+     * 统计某个class在jvm中当前所有存活实例的总个数，不创建实例数组
+     */
+    public static long countInstances(Class<?> targetClass) {
+        return instance.countInstances(targetClass);
+    }
+
     private static void initVmTool(String libPath) {
         instance = VmTool.getInstance(libPath);
         if (instance == null) {